@@ -0,0 +1,130 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.processor;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+
+/**
+ * Model of a type adapter to generate.
+ */
+abstract class AdapterModel {
+
+    static final String GENERATED_COMMENT = "/**\n * Generated by " + TypeAdapterProcessor.class.getName() +
+            ". Do not edit.\n */\n";
+
+    private final TypeElement type;
+    private final String packageName;
+    private final String adapterSimpleName;
+
+    AdapterModel(TypeElement type, Elements elements) {
+        this.type = type;
+        this.packageName = elements.getPackageOf(type).getQualifiedName().toString();
+
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        for (Element element = type.getEnclosingElement(); element instanceof TypeElement;
+             element = element.getEnclosingElement()) {
+            name.insert(0, '_').insert(0, element.getSimpleName());
+        }
+        this.adapterSimpleName = name.append("GeneratedAdapter").toString();
+    }
+
+    /**
+     * Gets model type.
+     *
+     * @return model type
+     */
+    TypeElement getType() {
+        return type;
+    }
+
+    /**
+     * Gets canonical name of a model type.
+     *
+     * @return canonical name
+     */
+    String getTypeName() {
+        return type.getQualifiedName().toString();
+    }
+
+    /**
+     * Gets fully qualified name of a generated adapter.
+     *
+     * @return name of generated adapter
+     */
+    String getAdapterName() {
+        return packageName.isEmpty() ? adapterSimpleName : packageName + '.' + adapterSimpleName;
+    }
+
+    /**
+     * Generates source code of a type adapter. The adapter must have a public constructor that takes
+     * {@code com.google.gson.Gson} as a single parameter.
+     *
+     * @param factory fully qualified name of generated factory
+     * @return source code
+     */
+    abstract String generate(String factory);
+
+    String getPackageName() {
+        return packageName;
+    }
+
+    String getAdapterSimpleName() {
+        return adapterSimpleName;
+    }
+
+    static String quote(String value) {
+        StringBuilder builder = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7E) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+        return builder.append('"').toString();
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.processor;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.Elements;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Type adapter of a class. Fields are serialized in the same order as Gson's reflective adapter does: fields of a class
+ * first and then fields of its superclasses. A model is created with its builder or constructor after all fields have
+ * been read.
+ */
+final class ClassAdapterModel extends AdapterModel {
+
+    private final List<Models.Field> fields;
+    private final Construction construction;
+
+    ClassAdapterModel(TypeElement type, Elements elements, List<Models.Field> fields, Construction construction) {
+        super(type, elements);
+        this.fields = fields;
+        this.construction = construction;
+    }
+
+    @Override
+    String generate(String factory) {
+        String type = getTypeName();
+        StringBuilder source = new StringBuilder();
+        if (!getPackageName().isEmpty()) {
+            source.append("package ").append(getPackageName()).append(";\n\n");
+        }
+        source.append(GENERATED_COMMENT)
+                .append("public final class ").append(getAdapterSimpleName())
+                .append(" extends com.google.gson.TypeAdapter<").append(type).append("> {\n\n")
+                .append("    private final com.google.gson.Gson gson;\n");
+        for (int i = 0; i < fields.size(); ++i) {
+            source.append("    private final com.google.gson.TypeAdapter<").append(fields.get(i).adapterType)
+                    .append("> adapter").append(i).append(";\n");
+        }
+
+        source.append("\n    @SuppressWarnings(\"unchecked\")\n")
+                .append("    public ").append(getAdapterSimpleName()).append("(com.google.gson.Gson gson) {\n")
+                .append("        this.gson = gson;\n");
+        for (int i = 0; i < fields.size(); ++i) {
+            source.append("        adapter").append(i).append(" = ").append(fields.get(i).adapter).append(";\n");
+        }
+        source.append("    }\n\n");
+
+        // read
+        source.append("    @Override\n")
+                .append("    public ").append(type).append(" read(com.google.gson.stream.JsonReader in)")
+                .append(" throws java.io.IOException {\n")
+                .append("        if (in.peek() == com.google.gson.stream.JsonToken.NULL) {\n")
+                .append("            in.nextNull();\n")
+                .append("            return null;\n")
+                .append("        }\n\n");
+        for (int i = 0; i < fields.size(); ++i) {
+            source.append("        ").append(fields.get(i).adapterType).append(" value").append(i).append(" = null;\n");
+        }
+        source.append("\n        in.beginObject();\n")
+                .append("        while (in.hasNext()) {\n")
+                .append("            switch (in.nextName()) {\n");
+        for (int i = 0; i < fields.size(); ++i) {
+            for (String name : fields.get(i).name.getJsonNames()) {
+                source.append("                case ").append(quote(name)).append(":\n");
+            }
+            source.append("                    value").append(i).append(" = adapter").append(i).append(".read(in);\n")
+                    .append("                    break;\n");
+        }
+        source.append("                default:\n")
+                .append("                    in.skipValue();\n")
+                .append("            }\n")
+                .append("        }\n")
+                .append("        in.endObject();\n\n")
+                .append("        try {\n");
+        if (construction.builderType != null) {
+            source.append("            ").append(construction.builderType).append(" builder = new ")
+                    .append(construction.builderType).append("();\n");
+            for (int i = 0; i < fields.size(); ++i) {
+                source.append("            if (value").append(i).append(" != null) {\n")
+                        .append("                builder.").append(construction.setters.get(i)).append("(value")
+                        .append(i).append(");\n")
+                        .append("            }\n");
+            }
+            source.append("            return builder.create();\n");
+        } else {
+            source.append("            return new ").append(type).append('(');
+            for (int i = 0; i < construction.arguments.size(); ++i) {
+                Models.Field field = construction.arguments.get(i);
+                String value = "value" + fields.indexOf(field);
+                if (i > 0) {
+                    source.append(", ");
+                }
+                TypeKind kind = construction.parameterKinds.get(i);
+                if (kind.isPrimitive()) {
+                    source.append(value).append(" == null ? ").append(defaultValue(kind))
+                            .append(" : ").append(value).append('.').append(kind.name().toLowerCase(Locale.ROOT))
+                            .append("Value()");
+                } else {
+                    source.append(value);
+                }
+            }
+            source.append(");\n");
+        }
+        source.append("        } catch (RuntimeException e) {\n")
+                .append("            throw new com.google.gson.JsonSyntaxException(\"unable to create ")
+                .append(getType().getSimpleName()).append(": \" + e.getMessage(), e);\n")
+                .append("        }\n")
+                .append("    }\n\n");
+
+        // write
+        source.append("    @Override\n")
+                .append("    public void write(com.google.gson.stream.JsonWriter out, ").append(type)
+                .append(" value) throws java.io.IOException {\n")
+                .append("        if (value == null) {\n")
+                .append("            out.nullValue();\n")
+                .append("            return;\n")
+                .append("        }\n\n")
+                .append("        out.beginObject();\n");
+        for (int i = 0; i < fields.size(); ++i) {
+            Models.Field field = fields.get(i);
+            String access = field.declaringType.equals(type) ? "value." + field.name.javaName :
+                    "((" + field.declaringType + ") value)." + field.name.javaName;
+            source.append("        out.name(").append(quote(field.name.jsonName)).append(");\n");
+            if (field.runtimeType) {
+                source.append("        ").append(factory).append(".runtimeTypeAdapter(gson, adapter").append(i)
+                        .append(", ").append(field.erasure).append(".class, ").append(access)
+                        .append(").write(out, ").append(access).append(");\n");
+            } else {
+                source.append("        adapter").append(i).append(".write(out, ").append(access).append(");\n");
+            }
+        }
+        source.append("        out.endObject();\n")
+                .append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    private static String defaultValue(TypeKind kind) {
+        switch (kind) {
+            case BOOLEAN:
+                return "false";
+            case CHAR:
+                return "(char) 0";
+            case BYTE:
+                return "(byte) 0";
+            case SHORT:
+                return "(short) 0";
+            case LONG:
+                return "0L";
+            case FLOAT:
+                return "0F";
+            case DOUBLE:
+                return "0D";
+            default:
+                return "0";
+        }
+    }
+
+    /**
+     * How to create a model: either with a builder and its setters or with a constructor.
+     */
+    static final class Construction {
+
+        final String builderType;
+        final List<String> setters;
+        final List<Models.Field> arguments;
+        final List<TypeKind> parameterKinds;
+
+        private Construction(String builderType, List<String> setters, List<Models.Field> arguments,
+                             List<TypeKind> parameterKinds) {
+            this.builderType = builderType;
+            this.setters = setters;
+            this.arguments = arguments;
+            this.parameterKinds = parameterKinds;
+        }
+
+        static Construction builder(String builderType, List<String> setters) {
+            return new Construction(builderType, setters, null, null);
+        }
+
+        static Construction constructor(List<Models.Field> arguments, List<TypeKind> parameterKinds) {
+            return new Construction(null, null, arguments, parameterKinds);
+        }
+    }
+}
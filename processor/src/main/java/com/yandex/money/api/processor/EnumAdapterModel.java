@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.processor;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import java.util.List;
+
+/**
+ * Type adapter of an enum. Constants are written with their serialized names and read with serialized or alternate
+ * names. Unknown names are read as {@code null} like Gson does.
+ */
+final class EnumAdapterModel extends AdapterModel {
+
+    private final List<Models.Name> constants;
+
+    EnumAdapterModel(TypeElement type, Elements elements, List<Models.Name> constants) {
+        super(type, elements);
+        this.constants = constants;
+    }
+
+    @Override
+    String generate(String factory) {
+        String type = getTypeName();
+        StringBuilder source = new StringBuilder();
+        if (!getPackageName().isEmpty()) {
+            source.append("package ").append(getPackageName()).append(";\n\n");
+        }
+        source.append(GENERATED_COMMENT)
+                .append("public final class ").append(getAdapterSimpleName())
+                .append(" extends com.google.gson.TypeAdapter<").append(type).append("> {\n\n")
+                .append("    public ").append(getAdapterSimpleName()).append("(com.google.gson.Gson gson) {\n")
+                .append("    }\n\n");
+
+        source.append("    @Override\n")
+                .append("    public ").append(type).append(" read(com.google.gson.stream.JsonReader in)")
+                .append(" throws java.io.IOException {\n")
+                .append("        if (in.peek() == com.google.gson.stream.JsonToken.NULL) {\n")
+                .append("            in.nextNull();\n")
+                .append("            return null;\n")
+                .append("        }\n")
+                .append("        switch (in.nextString()) {\n");
+        for (Models.Name constant : constants) {
+            for (String name : constant.getJsonNames()) {
+                source.append("            case ").append(quote(name)).append(":\n");
+            }
+            source.append("                return ").append(type).append('.').append(constant.javaName).append(";\n");
+        }
+        source.append("            default:\n")
+                .append("                return null;\n")
+                .append("        }\n")
+                .append("    }\n\n");
+
+        source.append("    @Override\n")
+                .append("    public void write(com.google.gson.stream.JsonWriter out, ").append(type)
+                .append(" value) throws java.io.IOException {\n")
+                .append("        if (value == null) {\n")
+                .append("            out.nullValue();\n")
+                .append("            return;\n")
+                .append("        }\n")
+                .append("        switch (value) {\n");
+        for (Models.Name constant : constants) {
+            source.append("            case ").append(constant.javaName).append(":\n")
+                    .append("                out.value(").append(quote(constant.jsonName)).append(");\n")
+                    .append("                break;\n");
+        }
+        source.append("            default:\n")
+                .append("                out.nullValue();\n")
+                .append("        }\n")
+                .append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.processor;
+
+import java.util.List;
+
+/**
+ * Generates {@code TypeAdapterFactory} that creates all generated type adapters.
+ */
+final class FactoryWriter {
+
+    private static final String REFLECTIVE_ADAPTER =
+            "com.google.gson.internal.bind.ReflectiveTypeAdapterFactory.Adapter";
+
+    private FactoryWriter() {
+    }
+
+    /**
+     * Generates source code of a factory.
+     *
+     * @param name fully qualified name of a factory
+     * @param adapters adapters to create
+     * @return source code
+     */
+    static String generate(String name, List<AdapterModel> adapters) {
+        int index = name.lastIndexOf('.');
+        String packageName = index < 0 ? "" : name.substring(0, index);
+        String simpleName = name.substring(index + 1);
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append(AdapterModel.GENERATED_COMMENT)
+                .append("public final class ").append(simpleName)
+                .append(" implements com.google.gson.TypeAdapterFactory {\n\n")
+                .append("    @SuppressWarnings(\"unchecked\")\n")
+                .append("    @Override\n")
+                .append("    public <T> com.google.gson.TypeAdapter<T> create(com.google.gson.Gson gson, ")
+                .append("com.google.gson.reflect.TypeToken<T> type) {\n")
+                .append("        Class<? super T> rawType = type.getRawType();\n");
+        for (AdapterModel adapter : adapters) {
+            source.append("        if (rawType == ").append(adapter.getTypeName()).append(".class) {\n")
+                    .append("            return (com.google.gson.TypeAdapter<T>) new ").append(adapter.getAdapterName())
+                    .append("(gson);\n")
+                    .append("        }\n");
+        }
+        source.append("        return null;\n")
+                .append("    }\n\n");
+
+        source.append("    /**\n")
+                .append("     * Chooses type adapter for a field value the same way Gson's reflective adapter does.\n")
+                .append("     */\n")
+                .append("    @SuppressWarnings(\"unchecked\")\n")
+                .append("    public static <T> com.google.gson.TypeAdapter<T> runtimeTypeAdapter(")
+                .append("com.google.gson.Gson gson, com.google.gson.TypeAdapter<T> declared, Class<?> declaredType, ")
+                .append("T value) {\n")
+                .append("        if (value == null || value.getClass() == declaredType) {\n")
+                .append("            return declared;\n")
+                .append("        }\n")
+                .append("        com.google.gson.TypeAdapter<T> runtime = (com.google.gson.TypeAdapter<T>) ")
+                .append("gson.getAdapter(value.getClass());\n")
+                .append("        if (!(runtime instanceof ").append(REFLECTIVE_ADAPTER).append(")) {\n")
+                .append("            return runtime;\n")
+                .append("        }\n")
+                .append("        return declared instanceof ").append(REFLECTIVE_ADAPTER)
+                .append(" ? runtime : declared;\n")
+                .append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+}
@@ -0,0 +1,497 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.processor;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Analyses models and creates {@link AdapterModel}s for them.
+ */
+final class Models {
+
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+    private static final String JSON_ADAPTER = "com.google.gson.annotations.JsonAdapter";
+    private static final String TYPE_ADAPTER = "com.google.gson.TypeAdapter";
+    private static final String TYPE_ADAPTER_FACTORY = "com.google.gson.TypeAdapterFactory";
+
+    private final Elements elements;
+    private final Types types;
+
+    Models(ProcessingEnvironment processingEnv) {
+        this.elements = processingEnv.getElementUtils();
+        this.types = processingEnv.getTypeUtils();
+    }
+
+    /**
+     * Checks if a type is a model that uses {@code @SerializedName} for its fields or enum constants.
+     *
+     * @param type type to check
+     * @return {@code true} if type is annotated model
+     */
+    boolean isAnnotatedModel(TypeElement type) {
+        if (type.getKind() == ElementKind.ENUM) {
+            for (Element element : type.getEnclosedElements()) {
+                if (element.getKind() == ElementKind.ENUM_CONSTANT && getAnnotation(element, SERIALIZED_NAME) != null) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        if (type.getKind() != ElementKind.CLASS) {
+            return false;
+        }
+        for (TypeElement current = type; current != null; current = getSuperclass(current)) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                if (!field.getModifiers().contains(Modifier.STATIC) && getAnnotation(field, SERIALIZED_NAME) != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates adapter model for an enum.
+     *
+     * @param type enum type
+     * @return adapter model
+     * @throws UnsupportedModelException if adapter cannot be generated
+     */
+    AdapterModel enumModel(TypeElement type) throws UnsupportedModelException {
+        checkAccessible(type);
+
+        List<Name> constants = new ArrayList<>();
+        Set<String> jsonNames = new HashSet<>();
+        for (Element element : type.getEnclosedElements()) {
+            if (element.getKind() == ElementKind.ENUM_CONSTANT) {
+                Name name = getName(element);
+                for (String jsonName : name.getJsonNames()) {
+                    if (!jsonNames.add(jsonName)) {
+                        throw new UnsupportedModelException("duplicate name " + jsonName);
+                    }
+                }
+                constants.add(name);
+            }
+        }
+        return new EnumAdapterModel(type, elements, constants);
+    }
+
+    /**
+     * Creates adapter model for a class.
+     *
+     * @param type class type
+     * @return adapter model
+     * @throws UnsupportedModelException if adapter cannot be generated
+     */
+    AdapterModel classModel(TypeElement type) throws UnsupportedModelException {
+        checkAccessible(type);
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new UnsupportedModelException("abstract class");
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            throw new UnsupportedModelException("generic class");
+        }
+        if (getAnnotation(type, JSON_ADAPTER) != null) {
+            throw new UnsupportedModelException("class has @JsonAdapter");
+        }
+
+        String packageName = getPackageName(type);
+        DeclaredType declaredType = (DeclaredType) type.asType();
+        List<Field> fields = new ArrayList<>();
+        Set<String> jsonNames = new HashSet<>();
+        for (TypeElement current = type; current != null; current = getSuperclass(current)) {
+            for (VariableElement element : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                Set<Modifier> modifiers = element.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+                if (!isAccessible(element, packageName)) {
+                    throw new UnsupportedModelException("field " + element + " is not accessible");
+                }
+                TypeMirror fieldType = types.asMemberOf(declaredType, element);
+                if (hasTypeVariables(fieldType)) {
+                    throw new UnsupportedModelException("field " + element + " has type variables");
+                }
+
+                Field field = new Field(getName(element), current.getQualifiedName().toString(), fieldType,
+                        types.erasure(fieldType).toString());
+                for (String jsonName : field.name.getJsonNames()) {
+                    if (!jsonNames.add(jsonName)) {
+                        throw new UnsupportedModelException("duplicate name " + jsonName);
+                    }
+                }
+                field.adapterType = fieldType.getKind().isPrimitive() ?
+                        types.boxedClass((PrimitiveType) fieldType).getQualifiedName().toString() :
+                        fieldType.toString();
+                initAdapter(field, element);
+                fields.add(field);
+            }
+        }
+
+        ClassAdapterModel.Construction construction = builderConstruction(type, fields, packageName);
+        if (construction == null) {
+            construction = constructorConstruction(type, fields, packageName);
+        }
+        if (construction == null) {
+            throw new UnsupportedModelException("neither Builder nor matching constructor found");
+        }
+        return new ClassAdapterModel(type, elements, fields, construction);
+    }
+
+    private void initAdapter(Field field, VariableElement element) throws UnsupportedModelException {
+        AnnotationMirror jsonAdapter = getAnnotation(element, JSON_ADAPTER);
+        if (jsonAdapter != null) {
+            TypeMirror adapterType = (TypeMirror) getValue(jsonAdapter, "value");
+            boolean nullSafe = !Boolean.FALSE.equals(getValue(jsonAdapter, "nullSafe"));
+            String adapterClass = types.erasure(adapterType).toString();
+            if (!hasPublicNoArgConstructor((TypeElement) types.asElement(adapterType))) {
+                throw new UnsupportedModelException(adapterClass + " has no public no-arg constructor");
+            }
+            if (isSubtype(adapterType, TYPE_ADAPTER)) {
+                field.adapter = "(com.google.gson.TypeAdapter) new " + adapterClass + "()" +
+                        (nullSafe ? ".nullSafe()" : "");
+            } else if (isSubtype(adapterType, TYPE_ADAPTER_FACTORY)) {
+                field.adapter = "new " + adapterClass + "().create(gson, " + typeToken(field) + ")";
+                field.adapter = nullSafe ? "(com.google.gson.TypeAdapter) " + field.adapter + ".nullSafe()" :
+                        field.adapter;
+            } else {
+                throw new UnsupportedModelException("unsupported @JsonAdapter " + adapterClass);
+            }
+            return;
+        }
+
+        TypeMirror type = field.type;
+        if (type.getKind().isPrimitive()) {
+            field.adapter = "gson.getAdapter(" + field.adapterType + ".class)";
+        } else if (type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).getTypeArguments().isEmpty()) {
+            field.adapter = "gson.getAdapter(" + field.erasure + ".class)";
+            field.runtimeType = !((DeclaredType) type).asElement().getModifiers().contains(Modifier.FINAL);
+        } else {
+            field.adapter = "gson.getAdapter(" + typeToken(field) + ")";
+        }
+    }
+
+    private ClassAdapterModel.Construction builderConstruction(TypeElement type, List<Field> fields,
+                                                               String packageName) {
+        TypeElement builder = null;
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            if (nested.getSimpleName().contentEquals("Builder")) {
+                builder = nested;
+            }
+        }
+        if (builder == null || !builder.getModifiers().contains(Modifier.STATIC) ||
+                builder.getModifiers().contains(Modifier.ABSTRACT) || !isAccessible(builder, packageName) ||
+                !hasNoArgConstructor(builder, packageName)) {
+            return null;
+        }
+
+        List<? extends Element> members = elements.getAllMembers(builder);
+        ExecutableElement create = findMethod(members, "create", null, packageName);
+        if (create == null || !types.isAssignable(create.getReturnType(), type.asType())) {
+            return null;
+        }
+
+        List<String> setters = new ArrayList<>();
+        for (Field field : fields) {
+            String name = field.name.javaName;
+            ExecutableElement setter = findMethod(members,
+                    "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1), field.type, packageName);
+            if (setter == null) {
+                return null;
+            }
+            setters.add(setter.getSimpleName().toString());
+        }
+        return ClassAdapterModel.Construction.builder(builder.getQualifiedName().toString(), setters);
+    }
+
+    private ClassAdapterModel.Construction constructorConstruction(TypeElement type, List<Field> fields,
+                                                                   String packageName) {
+        Map<String, Field> byName = new HashMap<>();
+        for (Field field : fields) {
+            byName.put(field.name.javaName, field);
+        }
+
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            List<? extends VariableElement> parameters = constructor.getParameters();
+            if (!isAccessible(constructor, packageName) || parameters.size() != fields.size()) {
+                continue;
+            }
+            List<Field> arguments = new ArrayList<>();
+            for (VariableElement parameter : parameters) {
+                Field field = byName.get(parameter.getSimpleName().toString());
+                if (field == null || !isCompatible(field.type, parameter.asType()) || arguments.contains(field)) {
+                    break;
+                }
+                arguments.add(field);
+            }
+            if (arguments.size() == fields.size()) {
+                List<TypeKind> kinds = new ArrayList<>();
+                for (VariableElement parameter : parameters) {
+                    kinds.add(parameter.asType().getKind());
+                }
+                return ClassAdapterModel.Construction.constructor(arguments, kinds);
+            }
+        }
+        return null;
+    }
+
+    private ExecutableElement findMethod(List<? extends Element> members, String name, TypeMirror argument,
+                                         String packageName) {
+        for (ExecutableElement method : ElementFilter.methodsIn(members)) {
+            if (!method.getSimpleName().contentEquals(name) || method.getModifiers().contains(Modifier.STATIC) ||
+                    !isAccessible(method, packageName)) {
+                continue;
+            }
+            List<? extends VariableElement> parameters = method.getParameters();
+            if (argument == null ? parameters.isEmpty() :
+                    parameters.size() == 1 && isCompatible(argument, parameters.get(0).asType())) {
+                return method;
+            }
+        }
+        return null;
+    }
+
+    private boolean isCompatible(TypeMirror from, TypeMirror to) {
+        if (types.isAssignable(from, to)) {
+            return true;
+        }
+        // values are kept boxed while reading
+        return from.getKind().isPrimitive() &&
+                types.isAssignable(types.boxedClass((PrimitiveType) from).asType(), to);
+    }
+
+    private Name getName(Element element) {
+        AnnotationMirror annotation = getAnnotation(element, SERIALIZED_NAME);
+        String javaName = element.getSimpleName().toString();
+        if (annotation == null) {
+            return new Name(javaName, javaName, Collections.<String>emptyList());
+        }
+        List<String> alternates = new ArrayList<>();
+        Object value = getValue(annotation, "alternate");
+        if (value instanceof List) {
+            for (Object alternate : (List<?>) value) {
+                alternates.add((String) ((AnnotationValue) alternate).getValue());
+            }
+        }
+        return new Name(javaName, (String) getValue(annotation, "value"), alternates);
+    }
+
+    private String typeToken(Field field) {
+        return "new com.google.gson.reflect.TypeToken<" + field.adapterType + ">() {}";
+    }
+
+    private boolean hasTypeVariables(TypeMirror type) {
+        switch (type.getKind()) {
+            case TYPEVAR:
+                return true;
+            case ARRAY:
+                return hasTypeVariables(((ArrayType) type).getComponentType());
+            case WILDCARD:
+                WildcardType wildcard = (WildcardType) type;
+                return wildcard.getExtendsBound() != null && hasTypeVariables(wildcard.getExtendsBound()) ||
+                        wildcard.getSuperBound() != null && hasTypeVariables(wildcard.getSuperBound());
+            case DECLARED:
+                for (TypeMirror argument : ((DeclaredType) type).getTypeArguments()) {
+                    if (hasTypeVariables(argument)) {
+                        return true;
+                    }
+                }
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    private void checkAccessible(TypeElement type) throws UnsupportedModelException {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            TypeElement current = (TypeElement) element;
+            Set<Modifier> modifiers = current.getModifiers();
+            NestingKind nestingKind = current.getNestingKind();
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                throw new UnsupportedModelException("private class");
+            }
+            if (nestingKind == NestingKind.LOCAL || nestingKind == NestingKind.ANONYMOUS) {
+                throw new UnsupportedModelException("local class");
+            }
+            if (nestingKind == NestingKind.MEMBER && current.getKind() == ElementKind.CLASS &&
+                    !modifiers.contains(Modifier.STATIC)) {
+                throw new UnsupportedModelException("inner class");
+            }
+        }
+    }
+
+    private boolean isAccessible(Element element, String packageName) {
+        Set<Modifier> modifiers = element.getModifiers();
+        if (modifiers.contains(Modifier.PUBLIC)) {
+            return true;
+        }
+        return !modifiers.contains(Modifier.PRIVATE) && getPackageName(element).equals(packageName);
+    }
+
+    private boolean hasNoArgConstructor(TypeElement type, String packageName) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && isAccessible(constructor, packageName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasPublicNoArgConstructor(TypeElement type) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return type.getModifiers().contains(Modifier.PUBLIC);
+            }
+        }
+        return false;
+    }
+
+    private boolean isSubtype(TypeMirror type, String superType) {
+        TypeElement element = elements.getTypeElement(superType);
+        return element != null && types.isSubtype(types.erasure(type), types.erasure(element.asType()));
+    }
+
+    private String getPackageName(Element element) {
+        return elements.getPackageOf(element).getQualifiedName().toString();
+    }
+
+    private TypeElement getSuperclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) types.asElement(superclass);
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private static AnnotationMirror getAnnotation(Element element, String annotationType) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName()
+                    .contentEquals(annotationType)) {
+                return annotation;
+            }
+        }
+        return null;
+    }
+
+    private Object getValue(AnnotationMirror annotation, String name) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry :
+                elements.getElementValuesWithDefaults(annotation).entrySet()) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue().getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Java and JSON names of a field or an enum constant.
+     */
+    static final class Name {
+
+        final String javaName;
+        final String jsonName;
+        final List<String> alternates;
+
+        Name(String javaName, String jsonName, List<String> alternates) {
+            this.javaName = javaName;
+            this.jsonName = jsonName;
+            this.alternates = alternates;
+        }
+
+        List<String> getJsonNames() {
+            List<String> names = new ArrayList<>(alternates.size() + 1);
+            names.add(jsonName);
+            names.addAll(alternates);
+            return names;
+        }
+    }
+
+    /**
+     * Serialized field of a model.
+     */
+    static final class Field {
+
+        final Name name;
+        final String declaringType;
+        final TypeMirror type;
+        final String erasure;
+
+        /**
+         * Type argument of field's type adapter, boxed for primitives.
+         */
+        String adapterType;
+        /**
+         * Expression that creates field's type adapter.
+         */
+        String adapter;
+        /**
+         * {@code true} if runtime type of a value should be taken into account on serialization.
+         */
+        boolean runtimeType;
+
+        Field(Name name, String declaringType, TypeMirror type, String erasure) {
+            this.name = name;
+            this.declaringType = declaringType;
+            this.type = type;
+            this.erasure = erasure;
+        }
+    }
+
+    /**
+     * Thrown if a type adapter cannot be generated for a model.
+     */
+    static final class UnsupportedModelException extends Exception {
+        UnsupportedModelException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates reflection-free streaming Gson type adapters for models which fields are annotated with
+ * {@code @SerializedName} and a {@code GeneratedTypeAdapterFactory} that creates them.
+ * <p/>
+ * A model gets an adapter if it can be created without reflection: either with its nested {@code Builder} that has a
+ * setter for every serialized field and a {@code create()} method, or with a constructor which parameters match
+ * serialized fields by name and type. Enums get adapters if any of their constants is annotated. Other models are
+ * skipped and left to Gson's reflective adapters. Pass {@code -Atypeadapters.debug=true} to see skipped models.
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions({TypeAdapterProcessor.OPTION_FACTORY, TypeAdapterProcessor.OPTION_DEBUG})
+public final class TypeAdapterProcessor extends AbstractProcessor {
+
+    static final String OPTION_FACTORY = "typeadapters.factory";
+    static final String OPTION_DEBUG = "typeadapters.debug";
+
+    private static final String DEFAULT_FACTORY = "com.yandex.money.api.typeadapters.GeneratedTypeAdapterFactory";
+
+    private boolean processed;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (processed || roundEnv.processingOver()) {
+            return false;
+        }
+        processed = true;
+
+        Models models = new Models(processingEnv);
+        List<AdapterModel> adapters = new ArrayList<>();
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            collect(models, type, adapters);
+        }
+
+        String factory = processingEnv.getOptions().get(OPTION_FACTORY);
+        factory = factory == null ? DEFAULT_FACTORY : factory;
+        try {
+            for (AdapterModel adapter : adapters) {
+                write(adapter.getAdapterName(), adapter.generate(factory), adapter.getType());
+            }
+            write(factory, FactoryWriter.generate(factory, adapters), null);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "unable to write type adapters: " + e);
+        }
+        return false;
+    }
+
+    private void collect(Models models, TypeElement type, List<AdapterModel> adapters) {
+        if (models.isAnnotatedModel(type)) {
+            try {
+                adapters.add(type.getKind() == ElementKind.ENUM ? models.enumModel(type) : models.classModel(type));
+            } catch (Models.UnsupportedModelException e) {
+                if (Boolean.parseBoolean(processingEnv.getOptions().get(OPTION_DEBUG))) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE,
+                            "no type adapter generated: " + e.getMessage(), type);
+                }
+            }
+        }
+        for (Element element : type.getEnclosedElements()) {
+            if (element instanceof TypeElement) {
+                collect(models, (TypeElement) element, adapters);
+            }
+        }
+    }
+
+    private void write(String name, String source, Element originatingElement) throws IOException {
+        JavaFileObject file = originatingElement == null ?
+                processingEnv.getFiler().createSourceFile(name) :
+                processingEnv.getFiler().createSourceFile(name, originatingElement);
+        Writer writer = file.openWriter();
+        try {
+            writer.write(source);
+        } finally {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.methods.wallet;
+
+import com.yandex.money.api.util.Responses;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing of synthetic {@link OperationHistory} pages the same way {@link OperationHistory.Request} does it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationHistoryBenchmark {
+
+    private static final String[] DIRECTIONS = { "in", "out" };
+    private static final String[] STATUSES = { "success", "refused", "in_progress" };
+    private static final String[] TYPES = {
+            "payment-shop", "outgoing-transfer", "deposition", "incoming-transfer", "incoming-transfer-protected"
+    };
+    private static final String[] TITLES = {
+            "Оплата ADSL-интернет компании XXX", "Прямое пополние счета телефона YYY", "Банк ZZZ, пополнение",
+            "Перевод на счет 4100123456789"
+    };
+
+    @Param({"100", "10000"})
+    public int records;
+
+    private byte[] page;
+
+    @Setup
+    public void setUp() throws UnsupportedEncodingException {
+        page = createPage(records).getBytes("UTF-8");
+    }
+
+    @Benchmark
+    public OperationHistory parse() {
+        return Responses.parseJson(new ByteArrayInputStream(page), OperationHistory.class, null);
+    }
+
+    private static String createPage(int records) {
+        StringBuilder builder = new StringBuilder(records * 300)
+                .append("{\"next_record\":\"").append(records).append("\",\"operations\":[");
+        for (int i = 0; i < records; ++i) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"operation_id\":\"").append(1234567 + i)
+                    .append("\",\"status\":\"").append(STATUSES[i % STATUSES.length])
+                    .append("\",\"pattern_id\":\"").append(2900 + i % 10)
+                    .append("\",\"direction\":\"").append(DIRECTIONS[i % DIRECTIONS.length])
+                    .append("\",\"amount\":").append(100 + i % 1000).append('.').append(i % 100)
+                    .append(",\"datetime\":\"2017-0").append(1 + i % 9).append('-').append(10 + i % 18)
+                    .append("T").append(10 + i % 14).append(':').append(10 + i % 50)
+                    .append(":00.000+03:00\",\"title\":\"").append(TITLES[i % TITLES.length])
+                    .append("\",\"label\":\"order-").append(i)
+                    .append("\",\"favourite\":").append(i % 7 == 0)
+                    .append(",\"type\":\"").append(TYPES[i % TYPES.length])
+                    .append("\"}");
+        }
+        return builder.append("]}").toString();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link FormUrlEncoder} with {@link URLEncoder} based encoding that was used by {@link ParametersBuffer}
+ * before. Run with {@code -prof gc} to see allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormUrlEncoderBenchmark {
+
+    @Param({"ascii", "cyrillic"})
+    public String values;
+
+    private final ByteArrayOutputStream stream = new ByteArrayOutputStream(1024);
+    private final StringBuilder builder = new StringBuilder(1024);
+    private final ParametersBuffer buffer = new ParametersBuffer();
+
+    private Map<String, String> parameters;
+
+    @Setup
+    public void setUp() {
+        parameters = new LinkedHashMap<>();
+        parameters.put("pattern_id", "p2p");
+        parameters.put("to", "4100175017397");
+        parameters.put("amount", "1234.56");
+        parameters.put("instance_id", "aWeVsAgfG6EOxnW7hZ6Bbg5KJlaaxzXgFvbTzgd5e7F2DyVGmNjtKNAnuk7pYn1W");
+        parameters.put("ext_auth_success_uri", "https://example.com/success?order=42");
+        parameters.put("ext_auth_fail_uri", "https://example.com/fail?order=42");
+        if ("cyrillic".equals(values)) {
+            parameters.put("message", "Оплата заказа №42 в интернет-магазине");
+            parameters.put("comment", "Перевод средств по договору");
+        } else {
+            parameters.put("message", "Payment for order 42 in the online store");
+            parameters.put("comment", "Money transfer under the contract");
+        }
+        buffer.setParameters(parameters);
+    }
+
+    @Benchmark
+    public byte[] urlEncoderPrepareBytes() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        for (Map.Entry<String, String> entry : parameters.entrySet()) {
+            if (stream.size() > 0) {
+                stream.write("&".getBytes("UTF-8"));
+            }
+            stream.write(URLEncoder.encode(entry.getKey(), "UTF-8").getBytes("UTF-8"));
+            stream.write("=".getBytes("UTF-8"));
+            stream.write(URLEncoder.encode(entry.getValue(), "UTF-8").getBytes("UTF-8"));
+        }
+        return stream.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] formUrlEncoderPrepareBytes() {
+        return buffer.prepareBytes();
+    }
+
+    @Benchmark
+    public int urlEncoderWriteTo() throws IOException {
+        stream.reset();
+        boolean first = true;
+        for (Map.Entry<String, String> entry : parameters.entrySet()) {
+            if (first) {
+                first = false;
+            } else {
+                stream.write('&');
+            }
+            stream.write(URLEncoder.encode(entry.getKey(), "UTF-8").getBytes("UTF-8"));
+            stream.write('=');
+            stream.write(URLEncoder.encode(entry.getValue(), "UTF-8").getBytes("UTF-8"));
+        }
+        return stream.size();
+    }
+
+    @Benchmark
+    public int formUrlEncoderWriteTo() throws IOException {
+        stream.reset();
+        buffer.writeTo(stream);
+        return stream.size();
+    }
+
+    @Benchmark
+    public String urlEncoderPrepareGet() throws UnsupportedEncodingException {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, String> entry : parameters.entrySet()) {
+            builder.append(builder.length() == 0 ? '?' : '&')
+                    .append(URLEncoder.encode(entry.getKey(), "UTF-8"))
+                    .append('=')
+                    .append(URLEncoder.encode(entry.getValue(), "UTF-8"));
+        }
+        return builder.toString();
+    }
+
+    @Benchmark
+    public String formUrlEncoderPrepareGet() {
+        return buffer.prepareGet();
+    }
+
+    @Benchmark
+    public int formUrlEncoderToBuilder() {
+        builder.setLength(0);
+        for (Map.Entry<String, String> entry : parameters.entrySet()) {
+            FormUrlEncoder.encode(entry.getKey(), builder).append('=');
+            FormUrlEncoder.encode(entry.getValue(), builder).append('&');
+        }
+        return builder.length();
+    }
+}
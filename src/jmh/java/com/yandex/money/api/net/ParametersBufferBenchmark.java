@@ -0,0 +1,87 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ParametersBuffer#prepareBytes()} and {@link ParametersBuffer#prepareGet()} for a typical payment
+ * request and for a request with many showcase form parameters.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParametersBufferBenchmark {
+
+    @Param({"8", "64"})
+    public int size;
+
+    private final ParametersBuffer buffer = new ParametersBuffer();
+
+    @Setup
+    public void setUp() {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("pattern_id", "p2p");
+        parameters.put("to", "4100175017397");
+        parameters.put("amount_due", "1234.56");
+        parameters.put("comment", "Перевод средств по договору");
+        parameters.put("message", "Payment for order #42");
+        parameters.put("label", "order-42");
+        parameters.put("codepro", "false");
+        parameters.put("hold_for_pickup", "false");
+        for (int i = parameters.size(); i < size; ++i) {
+            parameters.put("field_" + i, i % 2 == 0 ? "value " + i : "значение " + i);
+        }
+        buffer.setParameters(parameters);
+    }
+
+    @Benchmark
+    public byte[] prepareBytes() {
+        return buffer.prepareBytes();
+    }
+
+    @Benchmark
+    public String prepareGet() {
+        return buffer.prepareGet();
+    }
+}
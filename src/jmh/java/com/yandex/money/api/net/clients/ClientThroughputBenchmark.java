@@ -0,0 +1,365 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.yandex.money.api.net.clients;
+
+import com.yandex.money.api.methods.payment.ProcessPayment;
+import com.yandex.money.api.methods.payment.RequestPayment;
+import com.yandex.money.api.methods.wallet.OperationHistory;
+import com.yandex.money.api.net.ApiRequest;
+import com.yandex.money.api.net.providers.DefaultApiV1HostsProvider;
+import com.yandex.money.api.util.HttpHeaders;
+import com.yandex.money.api.util.MimeTypes;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import javax.net.ServerSocketFactory;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Measures throughput and latency of {@link DefaultApiClient} against an in-process {@link MockWebServer} with canned
+ * responses. Unlike JMH benchmarks it covers the whole call: request preparation, HTTP exchange and response parsing.
+ * <p/>
+ * Each worker executes {@link RequestPayment}, {@link ProcessPayment} and {@link OperationHistory} requests in a loop
+ * mixed as 2:2:1. Canned responses are taken from {@code src/test/resources}, so it should be run from the project
+ * directory: {@code ./gradlew throughput -Pworkers=16 -Pwarmup=10 -Pduration=30}.
+ */
+public final class ClientThroughputBenchmark {
+
+    private static final String[] NAMES = { "RequestPayment", "ProcessPayment", "OperationHistory" };
+    private static final String[] PATHS = { "/request-payment", "/process-payment", "/operation-history" };
+    private static final String[] RESOURCES = {
+            "/methods/payment/request-payment-1.json",
+            "/methods/payment/process-payment-1.json",
+            "/methods/wallet/operation-history-1.json"
+    };
+    private static final int[] MIX = { 0, 1, 0, 1, 2 };
+
+    // keeps a strong reference, otherwise the level can be lost when the logger is collected
+    private static final Logger SERVER_LOGGER = Logger.getLogger(MockWebServer.class.getName());
+
+    private final int workers;
+    private final ApiClient client;
+    private final ApiRequest<?>[] requests;
+
+    private ClientThroughputBenchmark(int workers, final MockWebServer server) {
+        this.workers = workers;
+
+        ConnectionPoolConfig poolConfig = new ConnectionPoolConfig.Builder()
+                .setMaxIdleConnections(workers)
+                .setMaxRequests(workers)
+                .setMaxRequestsPerHost(workers)
+                .create();
+        client = new DefaultApiClient.Builder()
+                .setClientId("clientId")
+                .setConnectionPoolConfig(poolConfig)
+                .setHostsProvider(new DefaultApiV1HostsProvider(false) {
+                    @Override
+                    public String getMoney() {
+                        return server.url("").toString();
+                    }
+                })
+                .create();
+        client.setAccessToken("accessToken");
+
+        Map<String, String> params = new HashMap<>();
+        params.put("to", "4100175017397");
+        params.put("amount", "1234.56");
+        params.put("comment", "Перевод средств по договору");
+        params.put("message", "Payment for order #42");
+        requests = new ApiRequest<?>[] {
+                RequestPayment.Request.newInstance("p2p", params),
+                new ProcessPayment.Request("1234567890"),
+                new OperationHistory.Request.Builder()
+                        .setRecords(30)
+                        .setDetails(true)
+                        .create()
+        };
+    }
+
+    public static void main(String[] args) throws Exception {
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int warmupSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+
+        // server logs every request, that would dominate the measurements
+        SERVER_LOGGER.setLevel(Level.WARNING);
+
+        MockWebServer server = new MockWebServer();
+        server.setServerSocketFactory(new NoDelayServerSocketFactory());
+        server.setDispatcher(new CannedDispatcher());
+        server.start();
+        try {
+            ClientThroughputBenchmark benchmark = new ClientThroughputBenchmark(workers, server);
+            System.out.println("Warming up: " + workers + " workers, " + warmupSeconds + " s");
+            checkErrors(benchmark.run(warmupSeconds));
+            System.out.println("Measuring: " + workers + " workers, " + durationSeconds + " s");
+            Result result = benchmark.run(durationSeconds);
+            result.print();
+            checkErrors(result);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    /**
+     * Failed calls are not counted in throughput and latencies, but a run with failures does not measure what it
+     * should, so it is reported as failed.
+     */
+    private static void checkErrors(Result result) {
+        if (result.errors > 0) {
+            throw new IllegalStateException(result.errors + " calls failed", result.firstError);
+        }
+    }
+
+    private Result run(int seconds) throws InterruptedException {
+        long durationNanos = TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch start = new CountDownLatch(1);
+        Worker[] workers = new Worker[this.workers];
+        for (int i = 0; i < workers.length; ++i) {
+            workers[i] = new Worker(i, start, durationNanos);
+            workers[i].start();
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        for (Worker worker : workers) {
+            worker.join();
+        }
+        return new Result(System.nanoTime() - started, workers);
+    }
+
+    private final class Worker extends Thread {
+
+        final Latencies[] latencies = new Latencies[NAMES.length];
+        final CountDownLatch start;
+        final long durationNanos;
+
+        int position;
+        int errors;
+        Exception firstError;
+
+        Worker(int index, CountDownLatch start, long durationNanos) {
+            super("throughput-worker-" + index);
+            this.start = start;
+            this.durationNanos = durationNanos;
+            position = index % MIX.length;
+            for (int i = 0; i < latencies.length; ++i) {
+                latencies[i] = new Latencies();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                start.await();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            long deadline = System.nanoTime() + durationNanos;
+            long now;
+            do {
+                int type = MIX[position++ % MIX.length];
+                long begin = System.nanoTime();
+                try {
+                    client.execute(requests[type]);
+                    now = System.nanoTime();
+                    latencies[type].add(now - begin);
+                } catch (Exception e) {
+                    now = System.nanoTime();
+                    if (errors++ == 0) {
+                        firstError = e;
+                    }
+                }
+            } while (now < deadline);
+        }
+    }
+
+    private static final class Result {
+
+        final long elapsedNanos;
+        final Latencies[] latencies = new Latencies[NAMES.length];
+        final Latencies total = new Latencies();
+
+        int errors;
+        Exception firstError;
+
+        Result(long elapsedNanos, Worker[] workers) {
+            this.elapsedNanos = elapsedNanos;
+            for (int i = 0; i < latencies.length; ++i) {
+                latencies[i] = new Latencies();
+            }
+            for (Worker worker : workers) {
+                errors += worker.errors;
+                if (firstError == null) {
+                    firstError = worker.firstError;
+                }
+                for (int i = 0; i < latencies.length; ++i) {
+                    latencies[i].addAll(worker.latencies[i]);
+                    total.addAll(worker.latencies[i]);
+                }
+            }
+        }
+
+        void print() {
+            double seconds = elapsedNanos / 1e9;
+            System.out.println(String.format(Locale.US, "%-18s %10s %12s %10s %10s %10s", "request", "count",
+                    "req/s", "p50, ms", "p99, ms", "p999, ms"));
+            for (int i = 0; i < latencies.length; ++i) {
+                print(NAMES[i], latencies[i], seconds);
+            }
+            print("total", total, seconds);
+            System.out.println("errors: " + errors);
+        }
+
+        private static void print(String name, Latencies latencies, double seconds) {
+            latencies.sort();
+            System.out.println(String.format(Locale.US, "%-18s %10d %12.1f %10.3f %10.3f %10.3f", name,
+                    latencies.size, latencies.size / seconds, latencies.percentile(0.5) / 1e6,
+                    latencies.percentile(0.99) / 1e6, latencies.percentile(0.999) / 1e6));
+        }
+    }
+
+    /**
+     * Growable array of latencies in nanoseconds.
+     */
+    private static final class Latencies {
+
+        long[] values = new long[1024];
+        int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(Latencies other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+
+        void sort() {
+            Arrays.sort(values, 0, size);
+        }
+
+        long percentile(double percentile) {
+            return size == 0 ? 0 : values[Math.max(0, (int) Math.ceil(percentile * size) - 1)];
+        }
+    }
+
+    private static final class CannedDispatcher extends Dispatcher {
+
+        private final MockResponse[] responses = new MockResponse[RESOURCES.length];
+
+        CannedDispatcher() throws IOException {
+            for (int i = 0; i < RESOURCES.length; ++i) {
+                byte[] body = Files.readAllBytes(Paths.get("./src/test/resources" + RESOURCES[i]));
+                responses[i] = new MockResponse()
+                        .addHeader(HttpHeaders.CONTENT_TYPE, MimeTypes.Application.JSON)
+                        .setBody(new String(body, "UTF-8"));
+            }
+        }
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) {
+            String path = request.getPath();
+            for (int i = 0; i < PATHS.length; ++i) {
+                if (path.endsWith(PATHS[i])) {
+                    return responses[i];
+                }
+            }
+            return new MockResponse().setResponseCode(HttpURLConnection.HTTP_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Server writes headers and body of a response separately, with Nagle's algorithm enabled every response would
+     * wait for a delayed ACK from a client.
+     */
+    private static final class NoDelayServerSocketFactory extends ServerSocketFactory {
+
+        @Override
+        public ServerSocket createServerSocket() throws IOException {
+            return new NoDelayServerSocket();
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port) throws IOException {
+            ServerSocket socket = createServerSocket();
+            socket.bind(new InetSocketAddress(port));
+            return socket;
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+            ServerSocket socket = createServerSocket();
+            socket.bind(new InetSocketAddress(port), backlog);
+            return socket;
+        }
+
+        @Override
+        public ServerSocket createServerSocket(int port, int backlog, InetAddress address) throws IOException {
+            ServerSocket socket = createServerSocket();
+            socket.bind(new InetSocketAddress(address, port), backlog);
+            return socket;
+        }
+    }
+
+    private static final class NoDelayServerSocket extends ServerSocket {
+
+        NoDelayServerSocket() throws IOException {
+        }
+
+        @Override
+        public Socket accept() throws IOException {
+            Socket socket = new Socket();
+            implAccept(socket);
+            socket.setTcpNoDelay(true);
+            return socket;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.time;
+
+import com.yandex.money.api.util.HttpHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing and formatting of date times with {@link Iso8601Format} and {@link HttpHeaders}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateTimeFormatBenchmark {
+
+    private static final String[] ISO_8601 = {
+            "2011-03-11T20:43:00.000+03:00", "2017-07-24T09:15:42Z", "2017-07-24T09:15:42.5-0530", "2017-07-24"
+    };
+    private static final String HTTP_DATE = "Mon, 24 Jul 2017 09:15:42 GMT";
+
+    private DateTime dateTime;
+
+    @Setup
+    public void setUp() throws ParseException {
+        dateTime = Iso8601Format.parse(ISO_8601[0]);
+    }
+
+    @Benchmark
+    public void iso8601Parse(Blackhole blackhole) throws ParseException {
+        for (String value : ISO_8601) {
+            blackhole.consume(Iso8601Format.parse(value));
+        }
+    }
+
+    @Benchmark
+    public String iso8601Format() {
+        return Iso8601Format.format(dateTime);
+    }
+
+    @Benchmark
+    public DateTime httpHeadersParse() throws ParseException {
+        return HttpHeaders.parseDateTime(HTTP_DATE);
+    }
+
+    @Benchmark
+    public String httpHeadersFormat() {
+        return HttpHeaders.formatDateTime(dateTime);
+    }
+}
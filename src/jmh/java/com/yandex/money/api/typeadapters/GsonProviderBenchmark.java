@@ -0,0 +1,133 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.typeadapters;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.yandex.money.api.methods.wallet.AccountInfo;
+import com.yandex.money.api.typeadapters.model.ModelTypeAdapterFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures throughput of {@link GsonProvider#getGson()} and of parsing through it with different numbers of threads.
+ * {@code synchronized*} benchmarks reproduce the former {@code static synchronized} provider for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GsonProviderBenchmark {
+
+    private static final String ACCOUNT_INFO = "{\"account\":\"4100123456789\",\"balance\":1000," +
+            "\"balance_details\":{\"total\":1000,\"available\":1000},\"currency\":\"643\"," +
+            "\"account_status\":\"anonymous\",\"account_type\":\"personal\"}";
+
+    private final SynchronizedProvider synchronizedProvider = new SynchronizedProvider();
+
+    @Benchmark
+    @Threads(1)
+    public Gson getGson1() {
+        return GsonProvider.getGson();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Gson getGson8() {
+        return GsonProvider.getGson();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Gson getGson64() {
+        return GsonProvider.getGson();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Gson synchronizedGetGson64() {
+        return synchronizedProvider.getGson();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public AccountInfo parse1() {
+        return GsonProvider.getGson().fromJson(ACCOUNT_INFO, AccountInfo.class);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public AccountInfo parse8() {
+        return GsonProvider.getGson().fromJson(ACCOUNT_INFO, AccountInfo.class);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public AccountInfo parse32() {
+        return GsonProvider.getGson().fromJson(ACCOUNT_INFO, AccountInfo.class);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public AccountInfo parse64() {
+        return GsonProvider.getGson().fromJson(ACCOUNT_INFO, AccountInfo.class);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public AccountInfo synchronizedParse64() {
+        return synchronizedProvider.getGson().fromJson(ACCOUNT_INFO, AccountInfo.class);
+    }
+
+    private static final class SynchronizedProvider {
+
+        private final GsonBuilder builder = new GsonBuilder()
+                .registerTypeAdapterFactory(new ModelTypeAdapterFactory());
+
+        private Gson gson = builder.create();
+        private boolean hasNewTypeAdapter = false;
+
+        synchronized Gson getGson() {
+            if (hasNewTypeAdapter) {
+                gson = builder.create();
+                hasNewTypeAdapter = false;
+            }
+            return gson;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.typeadapters.model.showcase;
+
+import com.yandex.money.api.model.showcase.Showcase;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ShowcaseTypeAdapter} on showcase documents from {@code src/test/resources/showcase}. Every document
+ * contains a form, so component type adapters are measured as well. Should be run from the project directory.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShowcaseTypeAdapterBenchmark {
+
+    @Param({"showcase-1.json", "showcase_bills.json", "showcase_bills_novalidation.json", "showcase_skype.json"})
+    public String document;
+
+    private final ShowcaseTypeAdapter adapter = ShowcaseTypeAdapter.getInstance();
+
+    private byte[] bytes;
+    private String json;
+    private Showcase showcase;
+
+    @Setup
+    public void setUp() throws IOException {
+        bytes = Files.readAllBytes(Paths.get("src", "test", "resources", "showcase", document));
+        json = new String(bytes, "UTF-8");
+        showcase = adapter.fromJson(json);
+    }
+
+    @Benchmark
+    public Showcase fromString() {
+        return adapter.fromJson(json);
+    }
+
+    @Benchmark
+    public Showcase fromStream() {
+        return adapter.fromJson(new ByteArrayInputStream(bytes));
+    }
+
+    @Benchmark
+    public String toJson() {
+        return adapter.toJson(showcase);
+    }
+}
@@ -27,6 +27,7 @@ package com.yandex.money.api.methods.payment;
 import com.google.gson.annotations.SerializedName;
 import com.yandex.money.api.model.ExternalCard;
 import com.yandex.money.api.net.FirstApiRequest;
+import com.yandex.money.api.net.PreparedParameters;
 import com.yandex.money.api.net.providers.HostsProvider;
 
 import static com.yandex.money.api.util.Common.checkNotEmpty;
@@ -118,9 +119,39 @@ public class ProcessExternalPayment extends BaseProcessPayment {
 
             super(ProcessExternalPayment.class);
             addParameter("instance_id", checkNotEmpty(instanceId, "instanceId"));
-            addParameter("request_id", checkNotEmpty(requestId, "requestId"));
             addParameter("ext_auth_success_uri", checkNotEmpty(extAuthSuccessUri, "extAuthSuccessUri"));
             addParameter("ext_auth_fail_uri", checkNotEmpty(extAuthFailUri, "extAuthFailUri"));
+            addPaymentParameters(requestId, requestToken, externalCard, csc);
+        }
+
+        private Request(PreparedParameters preparedParameters, String requestId, boolean requestToken,
+                        ExternalCard externalCard, String csc) {
+
+            super(ProcessExternalPayment.class);
+            setPreparedParameters(preparedParameters);
+            addPaymentParameters(requestId, requestToken, externalCard, csc);
+        }
+
+        /**
+         * Creates a template for requests that share application's instance id and URIs. The shared parameters are
+         * encoded once.
+         *
+         * @param instanceId        application's instance id
+         * @param extAuthSuccessUri success URI to use if payment succeeded
+         * @param extAuthFailUri    fail URI to use if payment failed
+         * @return new template instance
+         */
+        public static Template newTemplate(String instanceId, String extAuthSuccessUri, String extAuthFailUri) {
+            return new Template(new PreparedParameters.Builder()
+                    .addParameter("instance_id", checkNotEmpty(instanceId, "instanceId"))
+                    .addParameter("ext_auth_success_uri", checkNotEmpty(extAuthSuccessUri, "extAuthSuccessUri"))
+                    .addParameter("ext_auth_fail_uri", checkNotEmpty(extAuthFailUri, "extAuthFailUri"))
+                    .create());
+        }
+
+        private void addPaymentParameters(String requestId, boolean requestToken, ExternalCard externalCard,
+                                          String csc) {
+            addParameter("request_id", checkNotEmpty(requestId, "requestId"));
             addParameter("request_token", requestToken);
             if (externalCard != null) {
                 addParameter("money_source_token", externalCard.moneySourceToken);
@@ -132,6 +163,42 @@ public class ProcessExternalPayment extends BaseProcessPayment {
         protected String requestUrlBase(HostsProvider hostsProvider) {
             return hostsProvider.getMoneyApi() + "/process-external-payment";
         }
+
+        /**
+         * Template of {@link ProcessExternalPayment.Request} with prepared shared parameters. Immutable and thread
+         * safe.
+         */
+        public static final class Template {
+
+            private final PreparedParameters preparedParameters;
+
+            Template(PreparedParameters preparedParameters) {
+                this.preparedParameters = preparedParameters;
+            }
+
+            /**
+             * Creates request for paying with a new card.
+             *
+             * @param requestId    request id from {@link RequestExternalPayment}
+             * @param requestToken {@code true} if money source token is required
+             * @return new request instance
+             */
+            public Request newRequest(String requestId, boolean requestToken) {
+                return new Request(preparedParameters, requestId, requestToken, null, null);
+            }
+
+            /**
+             * Creates request for paying with a saved card.
+             *
+             * @param requestId    request id from {@link RequestExternalPayment}
+             * @param externalCard money source token of a saved card
+             * @param csc          Card Security Code for a saved card.
+             * @return new request instance
+             */
+            public Request newRequest(String requestId, ExternalCard externalCard, String csc) {
+                return new Request(preparedParameters, requestId, false, externalCard, csc);
+            }
+        }
     }
 
     public static final class Builder extends BaseProcessPayment.Builder {
@@ -26,6 +26,7 @@ package com.yandex.money.api.methods.payment;
 
 import com.yandex.money.api.methods.payment.params.PaymentParams;
 import com.yandex.money.api.net.FirstApiRequest;
+import com.yandex.money.api.net.PreparedParameters;
 import com.yandex.money.api.net.providers.HostsProvider;
 
 import java.util.Map;
@@ -62,6 +63,12 @@ public class RequestExternalPayment extends BaseRequestPayment {
             addParameters(params);
         }
 
+        private Request(PreparedParameters preparedParameters, Map<String, String> params) {
+            super(RequestExternalPayment.class);
+            setPreparedParameters(preparedParameters);
+            addParameters(params);
+        }
+
         /**
          * Creates instance of payment's request for general purposes. In other words for payments
          * to a specific pattern_id with known parameters. Take a look at subclasses of
@@ -97,10 +104,50 @@ public class RequestExternalPayment extends BaseRequestPayment {
                     paymentParams.paymentParams);
         }
 
+        /**
+         * Creates a template for requests to the same pattern_id that share some of payment parameters. The shared
+         * parameters are encoded once.
+         *
+         * @param instanceId application's instance id.
+         * @param patternId pattern_id (p2p, phone-topup or shop).
+         * @param params payment parameters shared by all requests.
+         * @return new template instance.
+         */
+        public static Template newTemplate(String instanceId, String patternId, Map<String, String> params) {
+            return new Template(new PreparedParameters.Builder()
+                    .addParameter("instance_id", checkNotEmpty(instanceId, "instanceId"))
+                    .addParameter("pattern_id", checkNotEmpty(patternId, "patternId"))
+                    .addParameters(checkNotNull(params, "params"))
+                    .create());
+        }
+
         @Override
         protected String requestUrlBase(HostsProvider hostsProvider) {
             return hostsProvider.getMoneyApi() + "/request-external-payment";
         }
+
+        /**
+         * Template of {@link RequestExternalPayment.Request} with prepared shared parameters. Immutable and thread
+         * safe.
+         */
+        public static final class Template {
+
+            private final PreparedParameters preparedParameters;
+
+            Template(PreparedParameters preparedParameters) {
+                this.preparedParameters = preparedParameters;
+            }
+
+            /**
+             * Creates new request.
+             *
+             * @param params payment parameters specific to this request. Must not contain shared parameters.
+             * @return new request instance.
+             */
+            public Request newRequest(Map<String, String> params) {
+                return new Request(preparedParameters, checkNotNull(params, "params"));
+            }
+        }
     }
 
     public static final class Builder extends BaseRequestPayment.Builder {
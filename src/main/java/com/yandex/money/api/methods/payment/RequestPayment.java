@@ -32,6 +32,7 @@ import com.yandex.money.api.model.Card;
 import com.yandex.money.api.model.Error;
 import com.yandex.money.api.model.Wallet;
 import com.yandex.money.api.net.FirstApiRequest;
+import com.yandex.money.api.net.PreparedParameters;
 import com.yandex.money.api.net.providers.HostsProvider;
 import com.yandex.money.api.util.Enums;
 
@@ -275,6 +276,12 @@ public class RequestPayment extends BaseRequestPayment {
             addParameters(paymentParameters);
         }
 
+        private Request(PreparedParameters preparedParameters, Map<String, String> paymentParameters) {
+            super(RequestPayment.class);
+            setPreparedParameters(preparedParameters);
+            addParameters(paymentParameters);
+        }
+
         /**
          * Creates instance of payment's request for general purposes. In other words for payments
          * to a specific pattern_id with known parameters. Consider to use implementations of
@@ -298,6 +305,21 @@ public class RequestPayment extends BaseRequestPayment {
             return newInstance(checkNotNull(paymentParams, "paymentParams").patternId, paymentParams.paymentParams);
         }
 
+        /**
+         * Creates a template for requests to the same pattern_id that share some of payment parameters. The shared
+         * parameters are encoded once.
+         *
+         * @param patternId pattern_id (p2p, phone-topup or shop).
+         * @param params    payment parameters shared by all requests.
+         * @return new template instance.
+         */
+        public static Template newTemplate(String patternId, Map<String, String> params) {
+            return new Template(new PreparedParameters.Builder()
+                    .addParameter("pattern_id", checkNotEmpty(patternId, "patternId"))
+                    .addParameters(checkNotNull(params, "params"))
+                    .create());
+        }
+
         @Override
         protected String requestUrlBase(HostsProvider hostsProvider) {
             return hostsProvider.getMoneyApi() + "/request-payment";
@@ -324,6 +346,28 @@ public class RequestPayment extends BaseRequestPayment {
             addParameter("test_result", testResult.code);
             return this;
         }
+
+        /**
+         * Template of {@link RequestPayment.Request} with prepared shared parameters. Immutable and thread safe.
+         */
+        public static final class Template {
+
+            private final PreparedParameters preparedParameters;
+
+            Template(PreparedParameters preparedParameters) {
+                this.preparedParameters = preparedParameters;
+            }
+
+            /**
+             * Creates new request.
+             *
+             * @param params payment parameters specific to this request. Must not contain shared parameters.
+             * @return new request instance.
+             */
+            public Request newRequest(Map<String, String> params) {
+                return new Request(preparedParameters, checkNotNull(params, "params"));
+            }
+        }
     }
 
     /**
@@ -32,6 +32,7 @@ import com.yandex.money.api.model.BalanceDetails;
 import com.yandex.money.api.model.Currency;
 import com.yandex.money.api.model.Identifiable;
 import com.yandex.money.api.net.FirstApiRequest;
+import com.yandex.money.api.net.IdempotentRequest;
 import com.yandex.money.api.net.providers.HostsProvider;
 import com.yandex.money.api.typeadapters.model.NumericCurrencyTypeAdapter;
 
@@ -216,7 +217,7 @@ public class AccountInfo implements Identifiable {
      * <p/>
      * Authorized session required.
      */
-    public static final class Request extends FirstApiRequest<AccountInfo> {
+    public static final class Request extends FirstApiRequest<AccountInfo> implements IdempotentRequest {
 
         public Request() {
             super(AccountInfo.class);
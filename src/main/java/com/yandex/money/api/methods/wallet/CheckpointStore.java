@@ -0,0 +1,52 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.methods.wallet;
+
+import java.io.IOException;
+
+/**
+ * Persists {@link SyncCheckpoint}s of {@link OperationHistorySync} per wallet.
+ */
+public interface CheckpointStore {
+
+    /**
+     * Loads checkpoint of a wallet.
+     *
+     * @param walletId wallet's id
+     * @return checkpoint or {@code null} if there is no checkpoint for the wallet
+     * @throws IOException if checkpoint can not be loaded
+     */
+    SyncCheckpoint load(String walletId) throws IOException;
+
+    /**
+     * Saves checkpoint of a wallet replacing previous one.
+     *
+     * @param walletId wallet's id
+     * @param checkpoint checkpoint to save
+     * @throws IOException if checkpoint can not be saved
+     */
+    void save(String walletId, SyncCheckpoint checkpoint) throws IOException;
+}
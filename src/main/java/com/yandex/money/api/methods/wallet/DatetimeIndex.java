@@ -0,0 +1,129 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.methods.wallet;
+
+import java.util.Arrays;
+
+/**
+ * Index of records by datetime kept in primitive arrays. Entries are sorted lazily before the first query after
+ * unordered additions.
+ */
+final class DatetimeIndex {
+
+    private long[] times = new long[16];
+    private long[] locations = new long[16];
+    private int size;
+    private boolean sorted = true;
+
+    void add(long time, long location) {
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            locations = Arrays.copyOf(locations, size * 2);
+        }
+        if (size > 0 && time < times[size - 1]) {
+            sorted = false;
+        }
+        times[size] = time;
+        locations[size++] = location;
+    }
+
+    /**
+     * Finds first entry with time not less than specified one.
+     *
+     * @param time time to search for
+     * @return index of the entry or {@link #size()} if there is no such entry
+     */
+    int lowerBound(long time) {
+        ensureSorted();
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (times[middle] < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    long location(int index) {
+        return locations[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        size = 0;
+        sorted = true;
+    }
+
+    private void ensureSorted() {
+        if (!sorted) {
+            sort(0, size - 1);
+            sorted = true;
+        }
+    }
+
+    private void sort(int low, int high) {
+        while (low < high) {
+            long pivot = times[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (times[i] < pivot) {
+                    i++;
+                }
+                while (times[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            // recurse into the smaller part to bound stack depth
+            if (j - low < high - i) {
+                sort(low, j);
+                low = i;
+            } else {
+                sort(i, high);
+                high = j;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        long time = times[i];
+        times[i] = times[j];
+        times[j] = time;
+        long location = locations[i];
+        locations[i] = locations[j];
+        locations[j] = location;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.methods.wallet;
+
+import com.google.gson.JsonParseException;
+import com.yandex.money.api.typeadapters.GsonProvider;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import static com.yandex.money.api.util.Common.checkNotNull;
+
+/**
+ * Stores checkpoints as JSON files in a directory, one file per wallet. Files are replaced atomically, so a crash
+ * during {@link #save(String, SyncCheckpoint)} leaves previous checkpoint intact.
+ */
+public final class FileCheckpointStore implements CheckpointStore {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String SUFFIX = ".json";
+
+    private final File directory;
+
+    /**
+     * Constructor.
+     *
+     * @param directory directory to store checkpoints in, it is created if it does not exist
+     */
+    public FileCheckpointStore(File directory) {
+        this.directory = checkNotNull(directory, "directory");
+    }
+
+    @Override
+    public synchronized SyncCheckpoint load(String walletId) throws IOException {
+        File file = fileOf(walletId);
+        try (Reader reader = new InputStreamReader(new FileInputStream(file), UTF_8)) {
+            return GsonProvider.getGson().fromJson(reader, SyncCheckpoint.class);
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (JsonParseException e) {
+            throw new IOException("corrupted checkpoint: " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized void save(String walletId, SyncCheckpoint checkpoint) throws IOException {
+        checkNotNull(checkpoint, "checkpoint");
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("unable to create directory: " + directory);
+        }
+
+        File file = fileOf(walletId);
+        File temp = new File(directory, file.getName() + ".tmp");
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(temp), UTF_8)) {
+            GsonProvider.getGson().toJson(checkpoint, writer);
+        }
+        try {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private File fileOf(String walletId) throws IOException {
+        return new File(directory, URLEncoder.encode(checkNotNull(walletId, "walletId"), "UTF-8") + SUFFIX);
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.methods.wallet;
+
+import java.util.Arrays;
+
+/**
+ * Multimap from 64-bit keys to locations of records kept in primitive arrays. Keys are hashes of indexed values, so
+ * callers must check candidate records for collisions. Locations of a key are iterated from the newest to the oldest.
+ */
+final class LocationIndex {
+
+    static final int NONE = -1;
+
+    private long[] keys = new long[16];
+    private int[] heads = newHeads(16);
+    private int keyCount;
+
+    private long[] locations = new long[16];
+    private int[] next = new int[16];
+    private int size;
+
+    /**
+     * Adds location of a key.
+     *
+     * @param key key
+     * @param location location of a record
+     */
+    void put(long key, long location) {
+        if (keyCount * 4 >= keys.length * 3) {
+            rehash(keys.length * 2);
+        }
+        if (size == locations.length) {
+            locations = Arrays.copyOf(locations, size * 2);
+            next = Arrays.copyOf(next, size * 2);
+        }
+
+        int slot = slotOf(keys, heads, key);
+        if (heads[slot] == NONE) {
+            keys[slot] = key;
+            keyCount++;
+        }
+        locations[size] = location;
+        next[size] = heads[slot];
+        heads[slot] = size++;
+    }
+
+    /**
+     * @param key key
+     * @return the newest entry of the key or {@link #NONE}
+     */
+    int first(long key) {
+        return heads[slotOf(keys, heads, key)];
+    }
+
+    /**
+     * @param entry current entry
+     * @return previous entry of the same key or {@link #NONE}
+     */
+    int next(int entry) {
+        return next[entry];
+    }
+
+    /**
+     * @param entry entry
+     * @return location of the entry
+     */
+    long location(int entry) {
+        return locations[entry];
+    }
+
+    void clear() {
+        keys = new long[16];
+        heads = newHeads(16);
+        keyCount = 0;
+        size = 0;
+    }
+
+    /**
+     * Computes 64-bit FNV-1a hash of a string.
+     *
+     * @param value value to hash
+     * @return hash
+     */
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); ++i) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private void rehash(int capacity) {
+        long[] newKeys = new long[capacity];
+        int[] newHeads = newHeads(capacity);
+        for (int i = 0; i < keys.length; ++i) {
+            if (heads[i] != NONE) {
+                int slot = slotOf(newKeys, newHeads, keys[i]);
+                newKeys[slot] = keys[i];
+                newHeads[slot] = heads[i];
+            }
+        }
+        keys = newKeys;
+        heads = newHeads;
+    }
+
+    private static int slotOf(long[] keys, int[] heads, long key) {
+        int mask = keys.length - 1;
+        int slot = (int) (key ^ (key >>> 32)) & mask;
+        while (heads[slot] != NONE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int[] newHeads(int capacity) {
+        int[] heads = new int[capacity];
+        Arrays.fill(heads, NONE);
+        return heads;
+    }
+}
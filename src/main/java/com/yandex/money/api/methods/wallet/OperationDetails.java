@@ -28,6 +28,7 @@ import com.google.gson.annotations.SerializedName;
 import com.yandex.money.api.model.Error;
 import com.yandex.money.api.model.Operation;
 import com.yandex.money.api.net.FirstApiRequest;
+import com.yandex.money.api.net.IdempotentRequest;
 import com.yandex.money.api.net.providers.HostsProvider;
 
 /**
@@ -112,7 +113,7 @@ public class OperationDetails extends Operation {
      * <p/>
      * Authorized session required.
      */
-    public static class Request extends FirstApiRequest<OperationDetails> {
+    public static class Request extends FirstApiRequest<OperationDetails> implements IdempotentRequest {
 
         /**
          * Constructor.
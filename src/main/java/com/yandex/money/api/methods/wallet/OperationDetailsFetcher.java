@@ -0,0 +1,251 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.methods.wallet;
+
+import com.yandex.money.api.model.OperationStatus;
+import com.yandex.money.api.net.ApiRequest;
+import com.yandex.money.api.net.clients.AsyncApiClient;
+import com.yandex.money.api.net.clients.BatchExecutor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.yandex.money.api.util.Common.checkNotNull;
+
+/**
+ * Fetches details of many operations at once. Details of operations in final state ({@link OperationStatus#SUCCESS}
+ * or {@link OperationStatus#REFUSED}) never change, so they are cached in memory and served without requests. Other
+ * operations are fetched concurrently using {@link BatchExecutor}, an operation requested again while its request is
+ * running shares the running request.
+ * <p/>
+ * Every call of {@link #fetch(Collection)} gets its own futures. Cancelling one of them affects only that caller, a
+ * shared request keeps running for others.
+ */
+public final class OperationDetailsFetcher {
+
+    private static final int DEFAULT_CACHE_SIZE = 1000;
+
+    private final BatchExecutor executor;
+    private final Map<String, OperationDetails> cache;
+
+    // waiting results by operation ids of running requests, guarded by this
+    private final Map<String, List<Result>> running = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param client client to execute requests with
+     * @param maxRequests maximum number of requests running at the same time
+     */
+    public OperationDetailsFetcher(AsyncApiClient client, int maxRequests) {
+        this(new BatchExecutor(client, maxRequests, maxRequests), DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param executor executor to run requests with
+     * @param cacheSize maximum number of cached operations
+     */
+    public OperationDetailsFetcher(BatchExecutor executor, final int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cacheSize < 0: " + cacheSize);
+        }
+        this.executor = checkNotNull(executor, "executor");
+        this.cache = new LinkedHashMap<String, OperationDetails>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, OperationDetails> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Fetches details of operations. The method does not block, each result is available as soon as its request is
+     * completed. Duplicate ids are requested once.
+     *
+     * @param operationIds ids of operations
+     * @return futures of details by operation ids in iteration order of {@code operationIds}
+     */
+    public Map<String, Future<OperationDetails>> fetch(Collection<String> operationIds) {
+        checkNotNull(operationIds, "operationIds");
+
+        Map<String, Future<OperationDetails>> results = new LinkedHashMap<>();
+        final List<String> started = new ArrayList<>();
+        List<ApiRequest<?>> requests = new ArrayList<>();
+
+        synchronized (this) {
+            for (String operationId : operationIds) {
+                if (results.containsKey(checkNotNull(operationId, "operationId"))) {
+                    continue;
+                }
+                Result result = new Result();
+                results.put(operationId, result);
+
+                OperationDetails details = cache.get(operationId);
+                if (details != null) {
+                    result.complete(details, null);
+                    continue;
+                }
+                List<Result> waiting = running.get(operationId);
+                if (waiting == null) {
+                    waiting = new ArrayList<>();
+                    running.put(operationId, waiting);
+                    started.add(operationId);
+                    requests.add(new OperationDetails.Request(operationId));
+                }
+                waiting.add(result);
+            }
+        }
+
+        if (!requests.isEmpty()) {
+            executor.execute(requests, new BatchExecutor.Listener() {
+                @Override
+                public <T> void onSuccess(int index, ApiRequest<T> request, T response) {
+                    completed(started.get(index), (OperationDetails) response, null);
+                }
+
+                @Override
+                public void onFailure(int index, ApiRequest<?> request, Exception exception) {
+                    completed(started.get(index), null, exception);
+                }
+            });
+        }
+        return results;
+    }
+
+    /**
+     * Removes all cached operations.
+     */
+    public synchronized void clear() {
+        cache.clear();
+    }
+
+    /**
+     * @return number of cached operations
+     */
+    public synchronized int getCacheSize() {
+        return cache.size();
+    }
+
+    private void completed(String operationId, OperationDetails details, Exception exception) {
+        List<Result> waiting;
+        synchronized (this) {
+            waiting = running.remove(operationId);
+            if (details != null && details.error == null && isFinal(details.status)) {
+                cache.put(operationId, details);
+            }
+        }
+        for (Result result : waiting) {
+            result.complete(details, exception);
+        }
+    }
+
+    private static boolean isFinal(OperationStatus status) {
+        return status == OperationStatus.SUCCESS || status == OperationStatus.REFUSED;
+    }
+
+    /**
+     * Future of operation details of a single caller.
+     */
+    private static final class Result implements Future<OperationDetails> {
+
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        private volatile boolean cancelled;
+        private OperationDetails details;
+        private Exception exception;
+
+        Result() {
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (!complete(null, new CancellationException("fetch is cancelled"))) {
+                return false;
+            }
+            cancelled = true;
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public boolean isDone() {
+            return latch.getCount() == 0;
+        }
+
+        @Override
+        public OperationDetails get() throws InterruptedException, ExecutionException {
+            latch.await();
+            return report();
+        }
+
+        @Override
+        public OperationDetails get(long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+
+            if (!latch.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+            return report();
+        }
+
+        boolean complete(OperationDetails details, Exception exception) {
+            if (!completed.compareAndSet(false, true)) {
+                return false;
+            }
+            this.details = details;
+            this.exception = exception;
+            latch.countDown();
+            return true;
+        }
+
+        private OperationDetails report() throws ExecutionException {
+            if (exception instanceof CancellationException) {
+                throw (CancellationException) exception;
+            } else if (exception != null) {
+                throw new ExecutionException(exception);
+            }
+            return details;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import com.google.gson.annotations.SerializedName;
 import com.yandex.money.api.model.Error;
 import com.yandex.money.api.model.Operation;
 import com.yandex.money.api.net.FirstApiRequest;
+import com.yandex.money.api.net.IdempotentRequest;
 import com.yandex.money.api.net.providers.HostsProvider;
 import com.yandex.money.api.time.DateTime;
 import com.yandex.money.api.util.Enums;
@@ -137,7 +138,7 @@ public class OperationHistory {
      * <p/>
      * Authorized session required.
      */
-    public static class Request extends FirstApiRequest<OperationHistory> {
+    public static class Request extends FirstApiRequest<OperationHistory> implements IdempotentRequest {
 
         /**
          * Use builder to create the request.
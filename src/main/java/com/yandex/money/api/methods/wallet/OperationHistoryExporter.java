@@ -0,0 +1,350 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.methods.wallet;
+
+import com.yandex.money.api.model.Operation;
+import com.yandex.money.api.net.clients.AsyncApiClient;
+import com.yandex.money.api.time.DateTime;
+import com.yandex.money.api.time.Interval;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static com.yandex.money.api.util.Common.checkNotNull;
+
+/**
+ * Exports operation history for a long period of time. The period is split into slices that are fetched concurrently,
+ * each slice following its own chain of {@link OperationHistory#nextRecord} markers. Size of subsequent slices is
+ * adjusted to observed density of operations, so every slice contains about {@link #targetSliceSize} operations.
+ * <p/>
+ * Operations of all slices are merged in {@link Operation#datetime} order (oldest first) and operations returned by
+ * more than one slice are removed using {@link Operation#operationId}.
+ */
+public final class OperationHistoryExporter {
+
+    /**
+     * Number of slices fetched at the same time.
+     */
+    public final int parallelism;
+
+    /**
+     * Desired number of operations in a slice.
+     */
+    public final int targetSliceSize;
+
+    /**
+     * Minimum duration of a slice in milliseconds.
+     */
+    public final long minSliceDurationMillis;
+
+    /**
+     * Number of records per page.
+     */
+    public final int records;
+
+    private final Set<OperationHistory.FilterType> types;
+    private final String label;
+    private final Boolean details;
+
+    OperationHistoryExporter(Builder builder) {
+        if (builder.parallelism < 1) {
+            throw new IllegalArgumentException("parallelism < 1: " + builder.parallelism);
+        }
+        if (builder.targetSliceSize < 1) {
+            throw new IllegalArgumentException("targetSliceSize < 1: " + builder.targetSliceSize);
+        }
+        if (builder.minSliceDurationMillis < 1) {
+            throw new IllegalArgumentException("minSliceDuration < 1 ms: " + builder.minSliceDurationMillis);
+        }
+        if (builder.records < 1 || builder.records > 100) {
+            throw new IllegalArgumentException("records should be in range [1, 100]: " + builder.records);
+        }
+        parallelism = builder.parallelism;
+        targetSliceSize = builder.targetSliceSize;
+        minSliceDurationMillis = builder.minSliceDurationMillis;
+        records = builder.records;
+        types = builder.types;
+        label = builder.label;
+        details = builder.details;
+    }
+
+    /**
+     * Exports operations of specified interval. The method blocks until every slice is fetched. If any slice fails the
+     * rest of slices are not started and the exception is rethrown.
+     *
+     * @param client client to execute requests with
+     * @param interval interval to export
+     * @return operations in datetime order
+     * @throws Exception if history can not be fetched
+     */
+    public List<Operation> export(final AsyncApiClient client, Interval interval) throws Exception {
+        checkNotNull(client, "client");
+        final Slicer slicer = new Slicer(checkNotNull(interval, "interval"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "OperationHistoryExporter");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        List<Future<List<Operation>>> futures = new ArrayList<>(parallelism);
+        try {
+            for (int i = 0; i < parallelism; ++i) {
+                futures.add(executor.submit(new Callable<List<Operation>>() {
+                    @Override
+                    public List<Operation> call() throws Exception {
+                        List<Operation> operations = new ArrayList<>();
+                        try {
+                            Interval slice;
+                            while ((slice = slicer.next()) != null) {
+                                int count = fetch(client, slice, operations);
+                                slicer.completed(slice, count);
+                            }
+                        } catch (Exception e) {
+                            slicer.cancel();
+                            throw e;
+                        }
+                        return operations;
+                    }
+                }));
+            }
+
+            List<Operation> operations = new ArrayList<>();
+            for (Future<List<Operation>> future : futures) {
+                operations.addAll(await(future, slicer));
+            }
+            return merge(operations);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int fetch(AsyncApiClient client, Interval slice, List<Operation> operations) throws Exception {
+        OperationHistory.Request.Builder builder = new OperationHistory.Request.Builder()
+                .setTypes(types)
+                .setLabel(label)
+                .setDetails(details)
+                .setRecords(records)
+                .setFrom(slice.from)
+                .setTill(slice.till);
+
+        int count = 0;
+        OperationHistoryIterator iterator = new OperationHistoryIterator(client, builder);
+        try {
+            while (iterator.hasNext()) {
+                operations.add(iterator.next());
+                ++count;
+            }
+        } finally {
+            iterator.close();
+        }
+        return count;
+    }
+
+    private static List<Operation> await(Future<List<Operation>> future, Slicer slicer) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        } catch (InterruptedException e) {
+            slicer.cancel();
+            throw e;
+        }
+    }
+
+    private static List<Operation> merge(List<Operation> operations) {
+        Collections.sort(operations, new Comparator<Operation>() {
+            @Override
+            public int compare(Operation o1, Operation o2) {
+                if (o1.datetime == null) {
+                    return o2.datetime == null ? 0 : 1;
+                } else if (o2.datetime == null) {
+                    return -1;
+                }
+                return o1.datetime.compareTo(o2.datetime);
+            }
+        });
+
+        Set<String> ids = new HashSet<>(operations.size());
+        List<Operation> result = new ArrayList<>(operations.size());
+        for (Operation operation : operations) {
+            if (operation.operationId == null || ids.add(operation.operationId)) {
+                result.add(operation);
+            }
+        }
+        return result;
+    }
+
+    private static long millis(DateTime dateTime) {
+        return dateTime.getDate().getTime();
+    }
+
+    /**
+     * Cuts slices off the interval one by one.
+     */
+    private final class Slicer {
+
+        private final long till;
+        private final Interval interval;
+
+        // guarded by this
+        private long position;
+        private long sliceDuration;
+        private boolean cancelled;
+
+        Slicer(Interval interval) {
+            this.interval = interval;
+            this.position = millis(interval.from);
+            this.till = millis(interval.till);
+            this.sliceDuration = Math.max(minSliceDurationMillis, (till - position) / (parallelism * 2));
+        }
+
+        synchronized Interval next() {
+            if (cancelled || position >= till) {
+                return null;
+            }
+            long end = till - position <= sliceDuration ? till : position + sliceDuration;
+            Interval slice = new Interval(DateTime.from(position, interval.from.getTimeZone()),
+                    end == till ? interval.till : DateTime.from(end, interval.from.getTimeZone()));
+            position = end;
+            return slice;
+        }
+
+        synchronized void completed(Interval slice, int count) {
+            long duration = millis(slice.till) - millis(slice.from);
+            long estimate = count == 0 ? duration * 2 : duration * targetSliceSize / count;
+            // smooth to avoid oscillation on uneven density
+            sliceDuration = Math.max(minSliceDurationMillis, (sliceDuration + estimate) / 2);
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+        }
+    }
+
+    /**
+     * Creates {@link OperationHistoryExporter}.
+     */
+    public static final class Builder {
+
+        int parallelism = 4;
+        int targetSliceSize = 500;
+        long minSliceDurationMillis = TimeUnit.MINUTES.toMillis(1);
+        int records = 100;
+        Set<OperationHistory.FilterType> types;
+        String label;
+        Boolean details;
+
+        /**
+         * @param parallelism number of slices fetched at the same time
+         * @return itself
+         */
+        public Builder setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * @param targetSliceSize desired number of operations in a slice
+         * @return itself
+         */
+        public Builder setTargetSliceSize(int targetSliceSize) {
+            this.targetSliceSize = targetSliceSize;
+            return this;
+        }
+
+        /**
+         * @param duration minimum duration of a slice
+         * @param unit time unit of the {@code duration}
+         * @return itself
+         */
+        public Builder setMinSliceDuration(long duration, TimeUnit unit) {
+            this.minSliceDurationMillis = checkNotNull(unit, "unit").toMillis(duration);
+            return this;
+        }
+
+        /**
+         * @param records number of records per page, from 1 to 100
+         * @return itself
+         */
+        public Builder setRecords(int records) {
+            this.records = records;
+            return this;
+        }
+
+        /**
+         * @param types types of operations to export, all operations are exported if not set
+         * @return itself
+         */
+        public Builder setTypes(Set<OperationHistory.FilterType> types) {
+            this.types = types;
+            return this;
+        }
+
+        /**
+         * @param label label of operations to export
+         * @return itself
+         */
+        public Builder setLabel(String label) {
+            this.label = label;
+            return this;
+        }
+
+        /**
+         * @param details {@code true} to export detailed operations
+         * @return itself
+         */
+        public Builder setDetails(Boolean details) {
+            this.details = details;
+            return this;
+        }
+
+        /**
+         * @return {@link OperationHistoryExporter} instance
+         */
+        public OperationHistoryExporter create() {
+            return new OperationHistoryExporter(this);
+        }
+    }
+}
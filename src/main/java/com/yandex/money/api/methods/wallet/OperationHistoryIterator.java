@@ -0,0 +1,140 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.methods.wallet;
+
+import com.yandex.money.api.exceptions.InvalidRequestException;
+import com.yandex.money.api.model.Operation;
+import com.yandex.money.api.net.clients.AsyncApiClient;
+
+import java.io.Closeable;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static com.yandex.money.api.util.Common.checkNotNull;
+
+/**
+ * Iterates over operations of user's history page by page following {@link OperationHistory#nextRecord} markers.
+ * While operations of a page are consumed the next page is requested in background using
+ * {@link AsyncApiClient#executeAsync},
+ * so at most two pages are held in memory: the current one and the next one.
+ * <p/>
+ * Instances of this class are not thread safe. Call {@link #close()} if iteration is stopped before the end of the
+ * history to cancel prefetching of the next page.
+ */
+public final class OperationHistoryIterator implements Closeable {
+
+    private final AsyncApiClient client;
+    private final OperationHistory.Request.Builder builder;
+
+    private Iterator<Operation> page = Collections.emptyIterator();
+    private Future<OperationHistory> nextPage;
+
+    /**
+     * Constructor. Requests the first page immediately.
+     * <p/>
+     * The {@code builder} is used to create requests for subsequent pages, so it is modified by the iterator and
+     * should not be used elsewhere. Set {@link OperationHistory.Request.Builder#setRecords(Integer)} to control page
+     * size.
+     *
+     * @param client client to execute requests with
+     * @param builder builder of requests with required filters set
+     */
+    public OperationHistoryIterator(AsyncApiClient client, OperationHistory.Request.Builder builder) {
+        this.client = checkNotNull(client, "client");
+        this.builder = checkNotNull(builder, "builder");
+        this.nextPage = client.executeAsync(builder.create(), null);
+    }
+
+    /**
+     * Checks if there are more operations. Blocks if the next page is not loaded yet.
+     *
+     * @return {@code true} if there are more operations
+     * @throws InvalidRequestException if the server responded with an error
+     * @throws Exception if a page can not be loaded
+     */
+    public boolean hasNext() throws Exception {
+        while (!page.hasNext()) {
+            if (nextPage == null) {
+                return false;
+            }
+            page = Collections.emptyIterator();
+            OperationHistory history = await(nextPage);
+            nextPage = null;
+            if (history.error != null) {
+                throw new InvalidRequestException(history.error.code);
+            }
+            if (history.nextRecord != null) {
+                nextPage = client.executeAsync(builder.setStartRecord(history.nextRecord).create(), null);
+            }
+            if (history.operations != null) {
+                page = history.operations.iterator();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets next operation. Blocks if the next page is not loaded yet.
+     *
+     * @return next operation
+     * @throws NoSuchElementException if there are no more operations
+     * @throws InvalidRequestException if the server responded with an error
+     * @throws Exception if a page can not be loaded
+     */
+    public Operation next() throws Exception {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.next();
+    }
+
+    /**
+     * Stops iteration and cancels loading of the next page if any.
+     */
+    @Override
+    public void close() {
+        if (nextPage != null) {
+            nextPage.cancel(true);
+            nextPage = null;
+        }
+        page = Collections.emptyIterator();
+    }
+
+    private static OperationHistory await(Future<OperationHistory> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+}
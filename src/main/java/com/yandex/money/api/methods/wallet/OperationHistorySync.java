@@ -0,0 +1,184 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.methods.wallet;
+
+import com.yandex.money.api.model.Operation;
+import com.yandex.money.api.model.OperationStatus;
+import com.yandex.money.api.net.clients.AsyncApiClient;
+import com.yandex.money.api.time.DateTime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.yandex.money.api.util.Common.checkNotNull;
+
+/**
+ * Synchronizes operation history of wallets incrementally. A {@link SyncCheckpoint} is persisted for each wallet, so
+ * each run requests only operations newer than the checkpoint and operations that were in progress on previous run.
+ * <p/>
+ * Changes are reported to {@link Listener} in datetime order. The checkpoint is saved after the listener has received
+ * all changes of a run, so if the listener or the process fails the changes are reported again on the next run.
+ */
+public final class OperationHistorySync {
+
+    private static final int RECORDS = 100;
+
+    private final AsyncApiClient client;
+    private final CheckpointStore store;
+
+    /**
+     * Constructor.
+     *
+     * @param client authorized client of the wallet to synchronize
+     * @param store store of checkpoints
+     */
+    public OperationHistorySync(AsyncApiClient client, CheckpointStore store) {
+        this.client = checkNotNull(client, "client");
+        this.store = checkNotNull(store, "store");
+    }
+
+    /**
+     * Synchronizes operation history of a wallet. Blocks until all changes are reported.
+     *
+     * @param walletId wallet's id, usually account number, that identifies the checkpoint
+     * @param listener listener to report changes to
+     * @return new checkpoint of the wallet
+     * @throws Exception if history can not be fetched or checkpoint can not be loaded or saved
+     */
+    public SyncCheckpoint sync(String walletId, Listener listener) throws Exception {
+        checkNotNull(walletId, "walletId");
+        checkNotNull(listener, "listener");
+
+        SyncCheckpoint checkpoint = store.load(walletId);
+        if (checkpoint == null) {
+            checkpoint = SyncCheckpoint.EMPTY;
+        }
+
+        List<Operation> changes = fetchChanges(checkpoint);
+        if (changes.isEmpty()) {
+            return checkpoint;
+        }
+
+        DateTime newest = checkpoint.newest;
+        Set<String> newestIds = new HashSet<>(checkpoint.newestIds);
+        Map<String, SyncCheckpoint.Pending> pending = new HashMap<>(checkpoint.pending);
+
+        for (Operation operation : changes) {
+            SyncCheckpoint.Pending previous = pending.get(operation.operationId);
+            if (previous == null) {
+                listener.onInserted(operation);
+            } else {
+                listener.onStatusChanged(operation, previous.status);
+            }
+
+            if (operation.datetime != null) {
+                if (newest == null || operation.datetime.isAfter(newest)) {
+                    newest = operation.datetime;
+                    newestIds.clear();
+                }
+                if (operation.datetime.compareTo(newest) == 0) {
+                    newestIds.add(operation.operationId);
+                }
+            }
+
+            if (isFinal(operation.status) || operation.datetime == null) {
+                pending.remove(operation.operationId);
+            } else {
+                pending.put(operation.operationId, new SyncCheckpoint.Pending(operation.datetime, operation.status));
+            }
+        }
+
+        checkpoint = new SyncCheckpoint(newest, newestIds, pending);
+        store.save(walletId, checkpoint);
+        return checkpoint;
+    }
+
+    private List<Operation> fetchChanges(SyncCheckpoint checkpoint) throws Exception {
+        OperationHistory.Request.Builder builder = new OperationHistory.Request.Builder()
+                .setFrom(checkpoint.getFrom())
+                .setRecords(RECORDS);
+
+        List<Operation> changes = new ArrayList<>();
+        OperationHistoryIterator iterator = new OperationHistoryIterator(client, builder);
+        try {
+            while (iterator.hasNext()) {
+                Operation operation = iterator.next();
+                SyncCheckpoint.Pending pending = checkpoint.pending.get(operation.operationId);
+                if (pending != null ? pending.status != operation.status : !checkpoint.contains(operation)) {
+                    changes.add(operation);
+                }
+            }
+        } finally {
+            iterator.close();
+        }
+
+        // history is ordered newest first
+        Collections.reverse(changes);
+        Collections.sort(changes, new Comparator<Operation>() {
+            @Override
+            public int compare(Operation o1, Operation o2) {
+                if (o1.datetime == null) {
+                    return o2.datetime == null ? 0 : 1;
+                } else if (o2.datetime == null) {
+                    return -1;
+                }
+                return o1.datetime.compareTo(o2.datetime);
+            }
+        });
+        return changes;
+    }
+
+    private static boolean isFinal(OperationStatus status) {
+        return status == OperationStatus.SUCCESS || status == OperationStatus.REFUSED;
+    }
+
+    /**
+     * Receives changes of operation history.
+     */
+    public interface Listener {
+
+        /**
+         * Called for an operation that was not seen before.
+         *
+         * @param operation new operation
+         */
+        void onInserted(Operation operation);
+
+        /**
+         * Called for an operation that was in progress on previous run and has changed its status since then.
+         *
+         * @param operation updated operation
+         * @param previousStatus status of the operation on previous run
+         */
+        void onStatusChanged(Operation operation, OperationStatus previousStatus);
+    }
+}
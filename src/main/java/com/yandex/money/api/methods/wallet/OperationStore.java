@@ -0,0 +1,466 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.methods.wallet;
+
+import com.google.gson.JsonElement;
+import com.yandex.money.api.model.Operation;
+import com.yandex.money.api.time.DateTime;
+import com.yandex.money.api.time.Interval;
+import com.yandex.money.api.util.Enums;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import static com.yandex.money.api.methods.wallet.OperationView.ANSWER_DATETIME;
+import static com.yandex.money.api.methods.wallet.OperationView.CODEPRO;
+import static com.yandex.money.api.methods.wallet.OperationView.DATETIME;
+import static com.yandex.money.api.methods.wallet.OperationView.DIRECTION;
+import static com.yandex.money.api.methods.wallet.OperationView.EXPIRES;
+import static com.yandex.money.api.methods.wallet.OperationView.FAVORITE;
+import static com.yandex.money.api.methods.wallet.OperationView.FORMAT;
+import static com.yandex.money.api.methods.wallet.OperationView.HEADER_SIZE;
+import static com.yandex.money.api.methods.wallet.OperationView.LABEL;
+import static com.yandex.money.api.methods.wallet.OperationView.NO_DATETIME;
+import static com.yandex.money.api.methods.wallet.OperationView.OFFSETS;
+import static com.yandex.money.api.methods.wallet.OperationView.OPERATION_ID;
+import static com.yandex.money.api.methods.wallet.OperationView.PATTERN_ID;
+import static com.yandex.money.api.methods.wallet.OperationView.RECIPIENT_TYPE;
+import static com.yandex.money.api.methods.wallet.OperationView.REPEATABLE;
+import static com.yandex.money.api.methods.wallet.OperationView.STATUS;
+import static com.yandex.money.api.methods.wallet.OperationView.TYPE;
+import static com.yandex.money.api.methods.wallet.OperationView.VARIABLE_FIELDS;
+import static com.yandex.money.api.methods.wallet.OperationView.ZONE_OFFSET;
+import static com.yandex.money.api.methods.wallet.OperationView.getString;
+import static com.yandex.money.api.util.Common.checkNotNull;
+
+/**
+ * Local store of operations that keeps them off heap. Operations are appended to memory-mapped segment files in a
+ * compact binary layout and are returned as {@link OperationView}s that decode fields on access.
+ * <p/>
+ * Operations can be looked up by {@link Operation#operationId}, {@link Operation#label}, {@link Operation#patternId}
+ * and range of {@link Operation#datetime}. Indexes store only hashes of values and locations of records in primitive
+ * arrays, they are rebuilt by scanning segments when the store is opened. Appending an operation with the same id
+ * supersedes the previous record, for example when status of the operation changes; disk space of superseded records
+ * is not reclaimed.
+ * <p/>
+ * Each segment starts with a magic number and a format version which are checked when the store is opened. Each record
+ * is prefixed with its length which is written after the record itself, so a record interrupted by a crash is ignored.
+ */
+public final class OperationStore implements Closeable {
+
+    private static final int DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    private static final String SEGMENT_PREFIX = "operations-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final int MAGIC = 0x594d4f53; // YMOS
+    private static final int FORMAT_VERSION = 1;
+    private static final int SEGMENT_HEADER_SIZE = 8;
+
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final LocationIndex operationIds = new LocationIndex();
+    private final LocationIndex labels = new LocationIndex();
+    private final LocationIndex patternIds = new LocationIndex();
+    private final DatetimeIndex datetimes = new DatetimeIndex();
+    private final File directory;
+    private final int segmentSize;
+
+    private boolean loaded;
+    private boolean closed;
+    private int writePosition;
+    private int count;
+
+    /**
+     * Constructor. Does not access the directory until the first call of the store.
+     *
+     * @param directory directory to store operations in, it is created if it does not exist
+     */
+    public OperationStore(File directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    OperationStore(File directory, int segmentSize) {
+        this.directory = checkNotNull(directory, "directory");
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Appends an operation. If an operation with the same id is already stored it is superseded.
+     *
+     * @param operation operation to append
+     * @throws IOException if I/O error occurred
+     */
+    public synchronized void append(Operation operation) throws IOException {
+        checkNotNull(operation, "operation");
+        checkNotNull(operation.operationId, "operationId");
+        ensureLoaded();
+
+        byte[] record = encode(operation);
+        MappedByteBuffer segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        // record length and terminating zero length
+        int required = record.length + 8;
+        if (segment == null || writePosition + required > segment.capacity()) {
+            segment = newSegment(Math.max(segmentSize, SEGMENT_HEADER_SIZE + required));
+            writePosition = SEGMENT_HEADER_SIZE;
+        }
+
+        ByteBuffer buffer = segment.duplicate();
+        buffer.position(writePosition + 4);
+        buffer.put(record);
+        segment.putInt(writePosition, record.length);
+
+        index(segments.size() - 1, writePosition + 4);
+        writePosition += 4 + record.length;
+    }
+
+    /**
+     * Appends operations.
+     *
+     * @param operations operations to append
+     * @throws IOException if I/O error occurred
+     */
+    public synchronized void appendAll(Collection<Operation> operations) throws IOException {
+        for (Operation operation : checkNotNull(operations, "operations")) {
+            append(operation);
+        }
+    }
+
+    /**
+     * Gets operation by its id.
+     *
+     * @param operationId operation's id
+     * @return view of the operation or {@code null} if it is not stored
+     * @throws IOException if I/O error occurred
+     */
+    public synchronized OperationView get(String operationId) throws IOException {
+        checkNotNull(operationId, "operationId");
+        ensureLoaded();
+        long location = find(operationId);
+        return location == LocationIndex.NONE ? null : view(location);
+    }
+
+    /**
+     * Finds operations by label.
+     *
+     * @param label label of operations
+     * @return views of operations in order they were appended
+     * @throws IOException if I/O error occurred
+     */
+    public synchronized List<OperationView> findByLabel(String label) throws IOException {
+        return findBy(labels, LABEL, checkNotNull(label, "label"));
+    }
+
+    /**
+     * Finds operations by pattern id.
+     *
+     * @param patternId pattern id of operations
+     * @return views of operations in order they were appended
+     * @throws IOException if I/O error occurred
+     */
+    public synchronized List<OperationView> findByPatternId(String patternId) throws IOException {
+        return findBy(patternIds, PATTERN_ID, checkNotNull(patternId, "patternId"));
+    }
+
+    /**
+     * Finds operations within interval.
+     *
+     * @param interval interval of operations' datetime
+     * @return views of operations in datetime order
+     * @throws IOException if I/O error occurred
+     */
+    public synchronized List<OperationView> findByDatetime(Interval interval) throws IOException {
+        checkNotNull(interval, "interval");
+        ensureLoaded();
+
+        long till = interval.till.getDate().getTime();
+        List<OperationView> result = new ArrayList<>();
+        for (int i = datetimes.lowerBound(interval.from.getDate().getTime()); i < datetimes.size(); ++i) {
+            long location = datetimes.location(i);
+            OperationView view = view(location);
+            if (view.getDatetimeMillis() >= till) {
+                break;
+            }
+            if (isLatest(location)) {
+                result.add(view);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return number of stored operations, superseded records are not counted
+     * @throws IOException if I/O error occurred
+     */
+    public synchronized int size() throws IOException {
+        ensureLoaded();
+        return count;
+    }
+
+    /**
+     * Flushes stored operations to disk and releases segments. The store and views returned by it can not be used
+     * after the store is closed.
+     */
+    @Override
+    public synchronized void close() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        segments.clear();
+        operationIds.clear();
+        labels.clear();
+        patternIds.clear();
+        datetimes.clear();
+        closed = true;
+    }
+
+    private List<OperationView> findBy(LocationIndex index, int field, String value) throws IOException {
+        ensureLoaded();
+        List<OperationView> result = new ArrayList<>();
+        for (int entry = index.first(LocationIndex.hash(value)); entry != LocationIndex.NONE;
+             entry = index.next(entry)) {
+            long location = index.location(entry);
+            if (value.equals(getString(segmentOf(location), offsetOf(location), field)) && isLatest(location)) {
+                result.add(view(location));
+            }
+        }
+        // index iterates from the newest entry
+        Collections.reverse(result);
+        return result;
+    }
+
+    private long find(String operationId) {
+        for (int entry = operationIds.first(LocationIndex.hash(operationId)); entry != LocationIndex.NONE;
+             entry = operationIds.next(entry)) {
+            long location = operationIds.location(entry);
+            if (operationId.equals(getString(segmentOf(location), offsetOf(location), OPERATION_ID))) {
+                return location;
+            }
+        }
+        return LocationIndex.NONE;
+    }
+
+    private boolean isLatest(long location) {
+        return find(getString(segmentOf(location), offsetOf(location), OPERATION_ID)) == location;
+    }
+
+    private void index(int segmentIndex, int offset) {
+        long location = (long) segmentIndex << 32 | offset;
+        ByteBuffer segment = segments.get(segmentIndex);
+
+        String operationId = getString(segment, offset, OPERATION_ID);
+        if (find(operationId) == LocationIndex.NONE) {
+            count++;
+        }
+        operationIds.put(LocationIndex.hash(operationId), location);
+
+        String label = getString(segment, offset, LABEL);
+        if (label != null) {
+            labels.put(LocationIndex.hash(label), location);
+        }
+        String patternId = getString(segment, offset, PATTERN_ID);
+        if (patternId != null) {
+            patternIds.put(LocationIndex.hash(patternId), location);
+        }
+        long datetime = segment.getLong(offset + DATETIME);
+        if (datetime != NO_DATETIME) {
+            datetimes.add(datetime, location);
+        }
+    }
+
+    private OperationView view(long location) {
+        return new OperationView(segmentOf(location), offsetOf(location));
+    }
+
+    private ByteBuffer segmentOf(long location) {
+        return segments.get((int) (location >>> 32));
+    }
+
+    private static int offsetOf(long location) {
+        return (int) location;
+    }
+
+    private void ensureLoaded() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("store is closed");
+        }
+        if (loaded) {
+            return;
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("unable to create directory " + directory);
+        }
+
+        File[] files = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }
+        });
+        if (files == null) {
+            throw new IOException("unable to list directory " + directory);
+        }
+        Arrays.sort(files);
+
+        for (File file : files) {
+            MappedByteBuffer segment = map(file, file.length());
+            checkHeader(file, segment);
+            segments.add(segment);
+            writePosition = scan(segments.size() - 1);
+        }
+        loaded = true;
+    }
+
+    private int scan(int segmentIndex) {
+        MappedByteBuffer segment = segments.get(segmentIndex);
+        int position = SEGMENT_HEADER_SIZE;
+        while (position + 4 <= segment.capacity()) {
+            int length = segment.getInt(position);
+            if (length <= 0 || position + 4 + length > segment.capacity()) {
+                break;
+            }
+            index(segmentIndex, position + 4);
+            position += 4 + length;
+        }
+        return position;
+    }
+
+    private MappedByteBuffer newSegment(int size) throws IOException {
+        String name = String.format(Locale.US, "%s%06d%s", SEGMENT_PREFIX, segments.size(), SEGMENT_SUFFIX);
+        MappedByteBuffer segment = map(new File(directory, name), size);
+        segment.putInt(0, MAGIC);
+        segment.putInt(4, FORMAT_VERSION);
+        segments.add(segment);
+        return segment;
+    }
+
+    private static void checkHeader(File file, MappedByteBuffer segment) throws IOException {
+        if (segment.capacity() < SEGMENT_HEADER_SIZE || segment.getInt(0) != MAGIC) {
+            throw new IOException("not a segment of operation store: " + file);
+        }
+        int version = segment.getInt(4);
+        if (version != FORMAT_VERSION) {
+            throw new IOException("unsupported format version " + version + " of segment " + file);
+        }
+    }
+
+    private static MappedByteBuffer map(File file, long size) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    private static byte[] encode(Operation operation) {
+        byte[][] fields = new byte[VARIABLE_FIELDS][];
+        fields[OPERATION_ID] = bytes(operation.operationId);
+        fields[PATTERN_ID] = bytes(operation.patternId);
+        fields[OperationView.TITLE] = bytes(operation.title);
+        fields[OperationView.SENDER] = bytes(operation.sender);
+        fields[OperationView.RECIPIENT] = bytes(operation.recipient);
+        fields[OperationView.MESSAGE] = bytes(operation.message);
+        fields[OperationView.COMMENT] = bytes(operation.comment);
+        fields[OperationView.PROTECTION_CODE] = bytes(operation.protectionCode);
+        fields[LABEL] = bytes(operation.label);
+        fields[OperationView.DETAILS] = bytes(operation.details);
+        fields[OperationView.AMOUNT] = bytes(operation.amount);
+        fields[OperationView.AMOUNT_DUE] = bytes(operation.amountDue);
+        fields[OperationView.FEE] = bytes(operation.fee);
+        JsonElement extras = OperationView.toExtras(operation);
+        fields[OperationView.EXTRAS] = extras == null ? null : bytes(extras.toString());
+        fields[STATUS] = code(operation.status);
+        fields[DIRECTION] = code(operation.direction);
+        fields[TYPE] = code(operation.type);
+        fields[RECIPIENT_TYPE] = code(operation.recipientType);
+        fields[FORMAT] = code(operation.showcaseFormat);
+
+        int size = HEADER_SIZE;
+        for (byte[] field : fields) {
+            size += 4 + (field == null ? 0 : field.length);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        putDateTime(buffer, DATETIME, operation.datetime);
+        putDateTime(buffer, EXPIRES, operation.expires);
+        putDateTime(buffer, ANSWER_DATETIME, operation.answerDatetime);
+        buffer.put(CODEPRO, bool(operation.codepro));
+        buffer.put(REPEATABLE, bool(operation.repeatable));
+        buffer.put(FAVORITE, bool(operation.favorite));
+
+        buffer.position(HEADER_SIZE);
+        for (int i = 0; i < fields.length; ++i) {
+            buffer.putInt(OFFSETS + i * 4, buffer.position());
+            if (fields[i] == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(fields[i].length);
+                buffer.put(fields[i]);
+            }
+        }
+        return buffer.array();
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(UTF_8);
+    }
+
+    private static byte[] bytes(BigDecimal value) {
+        return value == null ? null : bytes(value.toString());
+    }
+
+    private static void putDateTime(ByteBuffer buffer, int field, DateTime dateTime) {
+        if (dateTime == null) {
+            buffer.putLong(field, NO_DATETIME);
+        } else {
+            long millis = dateTime.getDate().getTime();
+            buffer.putLong(field, millis);
+            buffer.putShort(ZONE_OFFSET + field / 4, (short) (dateTime.getTimeZone().getOffset(millis) / 60000));
+        }
+    }
+
+    private static byte[] code(Enums.WithCode<?> value) {
+        return value == null ? null : bytes(value.getCode());
+    }
+
+    private static byte bool(Boolean value) {
+        return (byte) (value == null ? 0 : value ? 2 : 1);
+    }
+}
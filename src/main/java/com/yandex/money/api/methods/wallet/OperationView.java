@@ -0,0 +1,336 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.methods.wallet;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import com.yandex.money.api.model.DigitalGoods;
+import com.yandex.money.api.model.Operation;
+import com.yandex.money.api.model.OperationStatus;
+import com.yandex.money.api.model.PayeeIdentifierType;
+import com.yandex.money.api.model.showcase.ShowcaseReference;
+import com.yandex.money.api.time.DateTime;
+import com.yandex.money.api.typeadapters.GsonProvider;
+import com.yandex.money.api.util.Enums;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Flyweight view of an operation stored in {@link OperationStore}. The view holds only a reference to the record, every
+ * field is decoded from the memory-mapped file when accessed. Use {@link #toOperation()} to get a regular
+ * {@link Operation}.
+ * <p/>
+ * Views must not be used after the store is closed.
+ */
+public final class OperationView {
+
+    // record layout: fixed fields followed by offsets of variable fields and variable fields themselves
+    static final int DATETIME = 0;
+    static final int EXPIRES = 8;
+    static final int ANSWER_DATETIME = 16;
+    static final int CODEPRO = 24;
+    static final int REPEATABLE = 25;
+    static final int FAVORITE = 26;
+    // time zone offsets of datetime fields in minutes
+    static final int ZONE_OFFSET = 27;
+    static final int OFFSETS = 33;
+
+    static final int OPERATION_ID = 0;
+    static final int PATTERN_ID = 1;
+    static final int TITLE = 2;
+    static final int SENDER = 3;
+    static final int RECIPIENT = 4;
+    static final int MESSAGE = 5;
+    static final int COMMENT = 6;
+    static final int PROTECTION_CODE = 7;
+    static final int LABEL = 8;
+    static final int DETAILS = 9;
+    static final int AMOUNT = 10;
+    static final int AMOUNT_DUE = 11;
+    static final int FEE = 12;
+    static final int EXTRAS = 13;
+    // enums are stored as their API codes, ordinals of public enums are not stable between versions
+    static final int STATUS = 14;
+    static final int DIRECTION = 15;
+    static final int TYPE = 16;
+    static final int RECIPIENT_TYPE = 17;
+    static final int FORMAT = 18;
+    static final int VARIABLE_FIELDS = 19;
+
+    static final int HEADER_SIZE = OFFSETS + VARIABLE_FIELDS * 4;
+    static final long NO_DATETIME = Long.MIN_VALUE;
+
+    static final String EXTRA_PAYMENT_PARAMETERS = "payment_parameters";
+    static final String EXTRA_DIGITAL_GOODS = "digital_goods";
+    static final String EXTRA_CATEGORIES = "categories";
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final ByteBuffer segment;
+    private final int offset;
+
+    /**
+     * Constructor.
+     *
+     * @param segment segment containing the record
+     * @param offset offset of record's body in the segment
+     */
+    OperationView(ByteBuffer segment, int offset) {
+        this.segment = segment;
+        this.offset = offset;
+    }
+
+    public String getOperationId() {
+        return getString(segment, offset, OPERATION_ID);
+    }
+
+    public OperationStatus getStatus() {
+        return getEnum(OperationStatus.values(), STATUS);
+    }
+
+    public String getPatternId() {
+        return getString(segment, offset, PATTERN_ID);
+    }
+
+    public Operation.Direction getDirection() {
+        return getEnum(Operation.Direction.values(), DIRECTION);
+    }
+
+    public BigDecimal getAmount() {
+        return getDecimal(AMOUNT);
+    }
+
+    public BigDecimal getAmountDue() {
+        return getDecimal(AMOUNT_DUE);
+    }
+
+    public BigDecimal getFee() {
+        return getDecimal(FEE);
+    }
+
+    /**
+     * @return datetime in milliseconds since the epoch or {@link Long#MIN_VALUE} if operation has no datetime
+     */
+    public long getDatetimeMillis() {
+        return segment.getLong(offset + DATETIME);
+    }
+
+    public DateTime getDatetime() {
+        return getDateTime(DATETIME);
+    }
+
+    public String getTitle() {
+        return getString(segment, offset, TITLE);
+    }
+
+    public String getSender() {
+        return getString(segment, offset, SENDER);
+    }
+
+    public String getRecipient() {
+        return getString(segment, offset, RECIPIENT);
+    }
+
+    public PayeeIdentifierType getRecipientType() {
+        return getEnum(PayeeIdentifierType.values(), RECIPIENT_TYPE);
+    }
+
+    public String getMessage() {
+        return getString(segment, offset, MESSAGE);
+    }
+
+    public String getComment() {
+        return getString(segment, offset, COMMENT);
+    }
+
+    public Boolean getCodepro() {
+        return getBoolean(CODEPRO);
+    }
+
+    public String getProtectionCode() {
+        return getString(segment, offset, PROTECTION_CODE);
+    }
+
+    public DateTime getExpires() {
+        return getDateTime(EXPIRES);
+    }
+
+    public DateTime getAnswerDatetime() {
+        return getDateTime(ANSWER_DATETIME);
+    }
+
+    public String getLabel() {
+        return getString(segment, offset, LABEL);
+    }
+
+    public String getDetails() {
+        return getString(segment, offset, DETAILS);
+    }
+
+    public Boolean getRepeatable() {
+        return getBoolean(REPEATABLE);
+    }
+
+    public Boolean getFavorite() {
+        return getBoolean(FAVORITE);
+    }
+
+    public Operation.Type getType() {
+        return getEnum(Operation.Type.values(), TYPE);
+    }
+
+    public ShowcaseReference.Format getFormat() {
+        return getEnum(ShowcaseReference.Format.values(), FORMAT);
+    }
+
+    /**
+     * Decodes all fields of the operation.
+     *
+     * @return operation
+     */
+    public Operation toOperation() {
+        Operation.Builder builder = new Operation.Builder()
+                .setOperationId(getOperationId())
+                .setStatus(getStatus())
+                .setPatternId(getPatternId())
+                .setDirection(getDirection())
+                .setAmount(getAmount())
+                .setAmountDue(getAmountDue())
+                .setFee(getFee())
+                .setDatetime(getDatetime())
+                .setTitle(getTitle())
+                .setSender(getSender())
+                .setRecipient(getRecipient())
+                .setRecipientType(getRecipientType())
+                .setMessage(getMessage())
+                .setComment(getComment())
+                .setCodepro(getCodepro())
+                .setProtectionCode(getProtectionCode())
+                .setExpires(getExpires())
+                .setAnswerDatetime(getAnswerDatetime())
+                .setLabel(getLabel())
+                .setDetails(getDetails())
+                .setRepeatable(getRepeatable())
+                .setFavorite(getFavorite())
+                .setType(getType())
+                .setFormat(getFormat())
+                .setPaymentParameters(null)
+                .setCategories(null);
+
+        String extras = getString(segment, offset, EXTRAS);
+        if (extras != null) {
+            JsonObject object = new JsonParser().parse(extras).getAsJsonObject();
+            builder.setPaymentParameters(GsonProvider.getGson().<Map<String, String>>fromJson(
+                    object.get(EXTRA_PAYMENT_PARAMETERS), new TypeToken<Map<String, String>>() {}.getType()));
+            builder.setDigitalGoods(GsonProvider.getGson().fromJson(object.get(EXTRA_DIGITAL_GOODS),
+                    DigitalGoods.class));
+            builder.setCategories(GsonProvider.getGson().<List<Integer>>fromJson(object.get(EXTRA_CATEGORIES),
+                    new TypeToken<List<Integer>>() {}.getType()));
+        }
+        return builder.create();
+    }
+
+    @Override
+    public String toString() {
+        return "OperationView{" +
+                "operationId='" + getOperationId() + '\'' +
+                ", datetime=" + getDatetime() +
+                '}';
+    }
+
+    /**
+     * Decodes string field of a record.
+     *
+     * @param segment segment containing the record
+     * @param offset offset of record's body
+     * @param field index of variable field
+     * @return decoded value
+     */
+    static String getString(ByteBuffer segment, int offset, int field) {
+        int position = offset + segment.getInt(offset + OFFSETS + field * 4);
+        int length = segment.getInt(position);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer buffer = segment.duplicate();
+        buffer.position(position + 4);
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    static JsonElement toExtras(Operation operation) {
+        if (operation.paymentParameters == null && operation.digitalGoods == null && operation.categories == null) {
+            return null;
+        }
+        JsonObject object = new JsonObject();
+        object.add(EXTRA_PAYMENT_PARAMETERS, GsonProvider.getGson().toJsonTree(operation.paymentParameters));
+        object.add(EXTRA_DIGITAL_GOODS, GsonProvider.getGson().toJsonTree(operation.digitalGoods));
+        object.add(EXTRA_CATEGORIES, GsonProvider.getGson().toJsonTree(operation.categories));
+        return object;
+    }
+
+    private BigDecimal getDecimal(int field) {
+        String value = getString(segment, offset, field);
+        return value == null ? null : new BigDecimal(value);
+    }
+
+    private DateTime getDateTime(int field) {
+        long millis = segment.getLong(offset + field);
+        if (millis == NO_DATETIME) {
+            return null;
+        }
+        int minutes = segment.getShort(offset + ZONE_OFFSET + field / 4);
+        return DateTime.from(millis, minutes == 0 ? TimeZone.getTimeZone("GMT") :
+                TimeZone.getTimeZone(String.format(Locale.US, "GMT%c%02d:%02d", minutes < 0 ? '-' : '+',
+                        Math.abs(minutes) / 60, Math.abs(minutes) % 60)));
+    }
+
+    private Boolean getBoolean(int field) {
+        byte value = segment.get(offset + field);
+        return value == 0 ? null : value == 2;
+    }
+
+    private <E extends Enum<E> & Enums.WithCode<E>> E getEnum(E[] values, int field) {
+        String code = getString(segment, offset, field);
+        if (code != null) {
+            for (E value : values) {
+                if (code.equals(value.getCode())) {
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.methods.wallet;
+
+import com.google.gson.annotations.SerializedName;
+import com.yandex.money.api.model.Operation;
+import com.yandex.money.api.model.OperationStatus;
+import com.yandex.money.api.time.DateTime;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static com.yandex.money.api.util.Common.checkNotNull;
+
+/**
+ * Position of {@link OperationHistorySync} in wallet's history. Contains datetime of the newest synchronized operation,
+ * ids of operations synchronized at that datetime and operations that were in progress when last seen.
+ */
+public final class SyncCheckpoint {
+
+    /**
+     * Empty checkpoint: nothing is synchronized yet.
+     */
+    public static final SyncCheckpoint EMPTY = new SyncCheckpoint(null, Collections.<String>emptySet(),
+            Collections.<String, Pending>emptyMap());
+
+    /**
+     * Datetime of the newest synchronized operation, {@code null} if nothing is synchronized.
+     */
+    @SerializedName("newest")
+    public final DateTime newest;
+
+    /**
+     * Ids of operations synchronized at {@link #newest}.
+     */
+    @SerializedName("newest_ids")
+    public final Set<String> newestIds;
+
+    /**
+     * Operations in progress by their ids.
+     */
+    @SerializedName("pending")
+    public final Map<String, Pending> pending;
+
+    /**
+     * Constructor.
+     *
+     * @param newest datetime of the newest synchronized operation
+     * @param newestIds ids of operations synchronized at {@code newest}
+     * @param pending operations in progress
+     */
+    public SyncCheckpoint(DateTime newest, Set<String> newestIds, Map<String, Pending> pending) {
+        this.newest = newest;
+        this.newestIds = Collections.unmodifiableSet(new HashSet<>(checkNotNull(newestIds, "newestIds")));
+        this.pending = Collections.unmodifiableMap(new HashMap<>(checkNotNull(pending, "pending")));
+    }
+
+    /**
+     * Gets the earliest datetime operations should be requested from to get changes since this checkpoint.
+     *
+     * @return datetime or {@code null} if whole history should be requested
+     */
+    public DateTime getFrom() {
+        DateTime from = newest;
+        for (Pending operation : pending.values()) {
+            if (from == null || operation.datetime.isBefore(from)) {
+                from = operation.datetime;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * Checks if operation is synchronized with this checkpoint.
+     *
+     * @param operation operation to check
+     * @return {@code true} if operation was seen before
+     */
+    public boolean contains(Operation operation) {
+        if (pending.containsKey(operation.operationId)) {
+            return true;
+        }
+        if (newest == null || operation.datetime == null) {
+            return false;
+        }
+        return operation.datetime.isBefore(newest) ||
+                operation.datetime.compareTo(newest) == 0 && newestIds.contains(operation.operationId);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        SyncCheckpoint that = (SyncCheckpoint) o;
+
+        if (newest != null ? !newest.equals(that.newest) : that.newest != null) return false;
+        if (!newestIds.equals(that.newestIds)) return false;
+        return pending.equals(that.pending);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = newest != null ? newest.hashCode() : 0;
+        result = 31 * result + newestIds.hashCode();
+        result = 31 * result + pending.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "SyncCheckpoint{" +
+                "newest=" + newest +
+                ", newestIds=" + newestIds +
+                ", pending=" + pending +
+                '}';
+    }
+
+    /**
+     * Operation in progress.
+     */
+    public static final class Pending {
+
+        @SerializedName("datetime")
+        public final DateTime datetime;
+        @SerializedName("status")
+        public final OperationStatus status;
+
+        public Pending(DateTime datetime, OperationStatus status) {
+            this.datetime = checkNotNull(datetime, "datetime");
+            this.status = status;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            Pending that = (Pending) o;
+
+            return datetime.equals(that.datetime) && status == that.status;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = datetime.hashCode();
+            result = 31 * result + (status != null ? status.hashCode() : 0);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "Pending{" +
+                    "datetime=" + datetime +
+                    ", status=" + status +
+                    '}';
+        }
+    }
+}
@@ -182,7 +182,19 @@ public final class Showcase {
          * @param patternId payment pattern ID.
          */
         public Request(String patternId) {
+            this(patternId, (DateTime) null);
+        }
+
+        /**
+         * Constructor of a conditional request. If showcase was not modified since {@code lastModified} then
+         * returned {@link ShowcaseContext} has {@link ShowcaseContext.State#NOT_MODIFIED} state.
+         *
+         * @param patternId payment pattern ID.
+         * @param lastModified value of {@link ShowcaseContext#getLastModified()} of cached showcase
+         */
+        public Request(String patternId, DateTime lastModified) {
             this(patternId, null, null);
+            addHeader(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
         }
 
         /**
@@ -191,7 +203,18 @@ public final class Showcase {
          * @param scid showcase identifier.
          */
         public Request(long scid) {
-            this(String.valueOf(scid), null, null);
+            this(scid, null);
+        }
+
+        /**
+         * Constructor of a conditional request. If showcase was not modified since {@code lastModified} then
+         * returned {@link ShowcaseContext} has {@link ShowcaseContext.State#NOT_MODIFIED} state.
+         *
+         * @param scid showcase identifier.
+         * @param lastModified value of {@link ShowcaseContext#getLastModified()} of cached showcase
+         */
+        public Request(long scid, DateTime lastModified) {
+            this(String.valueOf(scid), lastModified);
         }
 
         /**
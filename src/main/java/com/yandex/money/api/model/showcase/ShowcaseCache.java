@@ -0,0 +1,278 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.model.showcase;
+
+import com.yandex.money.api.exceptions.ResourceNotFoundException;
+import com.yandex.money.api.net.clients.ApiClient;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.yandex.money.api.util.Common.checkNotNull;
+
+/**
+ * Stale-while-revalidate cache of showcases. A cached showcase is returned immediately, and if it was fetched or
+ * revalidated more than refresh interval ago it is revalidated in background with a conditional request. Only the
+ * first request of a showcase waits for the network.
+ * <p/>
+ * The cache can be backed by {@link ShowcaseDiskCache}. Showcases missing in memory are looked up on disk and
+ * revalidated on first access, so after a restart they are not fetched again unless they were changed.
+ * <p/>
+ * Every call returns a new {@link ShowcaseContext} with its own copy of {@link Showcase}, so callers can fill in the
+ * form and submit it without affecting each other.
+ */
+public final class ShowcaseCache {
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private final ApiClient client;
+    private final long refreshIntervalNanos;
+    private final ShowcaseDiskCache diskCache;
+    private final Executor executor;
+
+    /**
+     * Constructor. Refresh interval is 1 minute.
+     *
+     * @param client API client to use
+     */
+    public ShowcaseCache(ApiClient client) {
+        this(client, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param client API client to use
+     * @param refreshInterval minimum time between revalidations of a showcase
+     * @param unit time unit of the {@code refreshInterval}
+     */
+    public ShowcaseCache(ApiClient client, long refreshInterval, TimeUnit unit) {
+        this(client, refreshInterval, unit, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param client API client to use
+     * @param refreshInterval minimum time between revalidations of a showcase
+     * @param unit time unit of the {@code refreshInterval}
+     * @param diskCache persistent store of showcases, may be {@code null}
+     */
+    public ShowcaseCache(ApiClient client, long refreshInterval, TimeUnit unit, ShowcaseDiskCache diskCache) {
+        this(client, refreshInterval, unit, diskCache, RefreshExecutorHolder.INSTANCE);
+    }
+
+    ShowcaseCache(ApiClient client, long refreshInterval, TimeUnit unit, ShowcaseDiskCache diskCache,
+                  Executor executor) {
+        this.client = checkNotNull(client, "client");
+        this.refreshIntervalNanos = checkNotNull(unit, "unit").toNanos(refreshInterval);
+        this.diskCache = diskCache;
+        this.executor = checkNotNull(executor, "executor");
+    }
+
+    /**
+     * Gets showcase.
+     *
+     * @param scid showcase identifier
+     * @return showcase context
+     * @throws Exception if showcase is not cached and can not be fetched
+     */
+    public ShowcaseContext get(long scid) throws Exception {
+        return get(String.valueOf(scid));
+    }
+
+    /**
+     * Gets showcase.
+     *
+     * @param patternId payment pattern ID
+     * @return showcase context
+     * @throws Exception if showcase is not cached and can not be fetched
+     */
+    public ShowcaseContext get(String patternId) throws Exception {
+        checkNotNull(patternId, "patternId");
+        Entry entry = entries.get(patternId);
+        if (entry == null) {
+            entry = loadFromDisk(patternId);
+        }
+        if (entry == null) {
+            ShowcaseContext context = client.execute(new Showcase.Request(patternId));
+            store(patternId, null, new Entry(ShowcaseSnapshot.of(context)));
+            return context;
+        }
+        if (entry.validatedAt == null || System.nanoTime() - entry.validatedAt >= refreshIntervalNanos) {
+            scheduleRefresh(patternId, entry);
+        }
+        return entry.snapshot.newContext();
+    }
+
+    /**
+     * Removes showcase from the cache.
+     *
+     * @param patternId payment pattern ID
+     */
+    public void invalidate(String patternId) {
+        entries.remove(patternId);
+        removeFromDisk(patternId);
+    }
+
+    /**
+     * Removes all showcases from the memory cache. Showcases stored on disk are kept.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    private Entry loadFromDisk(String patternId) {
+        if (diskCache == null) {
+            return null;
+        }
+        try {
+            ShowcaseSnapshot snapshot = diskCache.get(patternId);
+            if (snapshot == null) {
+                return null;
+            }
+            Entry entry = new Entry(snapshot, null);
+            Entry current = entries.putIfAbsent(patternId, entry);
+            return current == null ? entry : current;
+        } catch (IOException | RuntimeException e) {
+            // corrupted or unreadable store is treated as a miss
+            return null;
+        }
+    }
+
+    private void store(String patternId, Entry previous, Entry entry) {
+        if (previous == null) {
+            entries.put(patternId, entry);
+        } else if (!entries.replace(patternId, previous, entry)) {
+            return;
+        }
+        if (diskCache != null) {
+            try {
+                diskCache.put(patternId, entry.snapshot);
+            } catch (IOException e) {
+                // disk cache is best-effort
+            }
+        }
+    }
+
+    private void removeFromDisk(String patternId) {
+        if (diskCache != null) {
+            try {
+                diskCache.remove(patternId);
+            } catch (IOException e) {
+                // disk cache is best-effort
+            }
+        }
+    }
+
+    private void scheduleRefresh(final String patternId, final Entry entry) {
+        if (!refreshing.add(patternId)) {
+            return;
+        }
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        refresh(patternId, entry);
+                    } finally {
+                        refreshing.remove(patternId);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.remove(patternId);
+            throw e;
+        }
+    }
+
+    private void refresh(String patternId, Entry entry) {
+        try {
+            ShowcaseContext context = client.execute(new Showcase.Request(patternId, entry.snapshot.lastModified));
+            if (context.getState() == ShowcaseContext.State.NOT_MODIFIED) {
+                entries.replace(patternId, entry, new Entry(entry.snapshot, System.nanoTime()));
+            } else {
+                store(patternId, entry, new Entry(ShowcaseSnapshot.of(context)));
+            }
+        } catch (ResourceNotFoundException e) {
+            if (entries.remove(patternId, entry)) {
+                removeFromDisk(patternId);
+            }
+        } catch (Exception e) {
+            // keep serving stale showcase, it will be revalidated on the next request
+        }
+    }
+
+    private static final class Entry {
+
+        final ShowcaseSnapshot snapshot;
+        /**
+         * Time of last validation, {@code null} if the showcase was loaded from disk and not validated yet.
+         */
+        final Long validatedAt;
+
+        Entry(ShowcaseSnapshot snapshot) {
+            this(snapshot, System.nanoTime());
+        }
+
+        Entry(ShowcaseSnapshot snapshot, Long validatedAt) {
+            this.snapshot = snapshot;
+            this.validatedAt = validatedAt;
+        }
+    }
+
+    private static final class RefreshExecutorHolder {
+
+        static final Executor INSTANCE = createExecutor();
+
+        private static Executor createExecutor() {
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "ShowcaseCache-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.model.showcase;
+
+import com.google.gson.JsonParser;
+import com.yandex.money.api.time.DateTime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static com.yandex.money.api.util.Common.checkNotNull;
+
+/**
+ * Persistent store of showcases that survives restarts. Use it with {@link ShowcaseCache} to avoid fetching and
+ * parsing of all showcases after a restart: showcases loaded from disk are served immediately and revalidated with
+ * conditional requests.
+ * <p/>
+ * Showcases are stored as deflated JSON in append-only memory-mapped segment files. Each record is prefixed with its
+ * length which is written after the record itself, so a record interrupted by a crash is ignored. Segments are scanned
+ * and the index of showcases is built lazily on first access. Newer records of a showcase supersede older ones, disk
+ * space of superseded records is not reclaimed, so the directory should be cleared if showcases change often.
+ */
+public final class ShowcaseDiskCache implements Closeable {
+
+    private static final int DEFAULT_SEGMENT_SIZE = 4 * 1024 * 1024;
+    private static final String SEGMENT_PREFIX = "showcases-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final byte RECORD_SNAPSHOT = 1;
+    private static final byte RECORD_REMOVED = 2;
+
+    private final Map<String, Location> index = new HashMap<>();
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final File directory;
+    private final int segmentSize;
+
+    private boolean loaded;
+    private boolean closed;
+    private int writePosition;
+
+    /**
+     * Constructor. Does not access the directory until the first call of the cache.
+     *
+     * @param directory directory to store showcases in, it is created if it does not exist
+     */
+    public ShowcaseDiskCache(File directory) {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    ShowcaseDiskCache(File directory, int segmentSize) {
+        this.directory = checkNotNull(directory, "directory");
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Gets stored showcase.
+     *
+     * @param key scid or pattern id of showcase
+     * @return showcase or {@code null} if it is not stored
+     * @throws IOException if I/O error occurred
+     */
+    synchronized ShowcaseSnapshot get(String key) throws IOException {
+        ensureLoaded();
+        Location location = index.get(key);
+        if (location == null) {
+            return null;
+        }
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(readRecord(location)));
+        input.readByte();
+        input.readUTF();
+        DateTime lastModified = DateTime.from(input.readLong());
+        String submitUrl = input.readBoolean() ? input.readUTF() : null;
+        byte[] json = new byte[input.readInt()];
+        byte[] deflated = new byte[input.readInt()];
+        input.readFully(deflated);
+        inflate(deflated, json);
+        return new ShowcaseSnapshot(new JsonParser().parse(new String(json, UTF_8)), submitUrl, lastModified);
+    }
+
+    /**
+     * Stores showcase.
+     *
+     * @param key scid or pattern id of showcase
+     * @param snapshot showcase
+     * @throws IOException if I/O error occurred
+     */
+    synchronized void put(String key, ShowcaseSnapshot snapshot) throws IOException {
+        byte[] json = snapshot.showcase.toString().getBytes(UTF_8);
+        byte[] deflated = deflate(json);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(deflated.length + 256);
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(RECORD_SNAPSHOT);
+        output.writeUTF(key);
+        output.writeLong(snapshot.lastModified.getDate().getTime());
+        output.writeBoolean(snapshot.submitUrl != null);
+        if (snapshot.submitUrl != null) {
+            output.writeUTF(snapshot.submitUrl);
+        }
+        output.writeInt(json.length);
+        output.writeInt(deflated.length);
+        output.write(deflated);
+        append(key, bytes.toByteArray());
+    }
+
+    /**
+     * Removes showcase.
+     *
+     * @param key scid or pattern id of showcase
+     * @throws IOException if I/O error occurred
+     */
+    synchronized void remove(String key) throws IOException {
+        ensureLoaded();
+        if (!index.containsKey(key)) {
+            return;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(RECORD_REMOVED);
+        output.writeUTF(key);
+        append(key, bytes.toByteArray());
+    }
+
+    /**
+     * Flushes stored showcases to disk and releases segments. The cache can not be used after it is closed.
+     */
+    @Override
+    public synchronized void close() {
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+        segments.clear();
+        index.clear();
+        closed = true;
+    }
+
+    private void append(String key, byte[] record) throws IOException {
+        ensureLoaded();
+        MappedByteBuffer segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        // record length and terminating zero length
+        int required = record.length + 8;
+        if (segment == null || writePosition + required > segment.capacity()) {
+            segment = newSegment(Math.max(segmentSize, required));
+            writePosition = 0;
+        }
+
+        ByteBuffer buffer = segment.duplicate();
+        buffer.position(writePosition + 4);
+        buffer.put(record);
+        segment.putInt(writePosition, record.length);
+
+        if (record[0] == RECORD_REMOVED) {
+            index.remove(key);
+        } else {
+            index.put(key, new Location(segments.size() - 1, writePosition));
+        }
+        writePosition += 4 + record.length;
+    }
+
+    private byte[] readRecord(Location location) {
+        ByteBuffer buffer = segments.get(location.segment).duplicate();
+        int length = buffer.getInt(location.offset);
+        byte[] record = new byte[length];
+        buffer.position(location.offset + 4);
+        buffer.get(record);
+        return record;
+    }
+
+    private void ensureLoaded() throws IOException {
+        if (closed) {
+            throw new IllegalStateException("cache is closed");
+        }
+        if (loaded) {
+            return;
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("unable to create directory " + directory);
+        }
+
+        File[] files = directory.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }
+        });
+        if (files == null) {
+            throw new IOException("unable to list directory " + directory);
+        }
+        Arrays.sort(files);
+
+        for (File file : files) {
+            segments.add(map(file, file.length()));
+            writePosition = scan(segments.size() - 1);
+        }
+        loaded = true;
+    }
+
+    private int scan(int segmentIndex) throws IOException {
+        MappedByteBuffer segment = segments.get(segmentIndex);
+        int position = 0;
+        while (position + 4 <= segment.capacity()) {
+            int length = segment.getInt(position);
+            if (length <= 0 || position + 4 + length > segment.capacity()) {
+                break;
+            }
+
+            Location location = new Location(segmentIndex, position);
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(readRecord(location)));
+            byte type = input.readByte();
+            String key = input.readUTF();
+            if (type == RECORD_REMOVED) {
+                index.remove(key);
+            } else {
+                index.put(key, location);
+            }
+            position += 4 + length;
+        }
+        return position;
+    }
+
+    private MappedByteBuffer newSegment(int size) throws IOException {
+        String name = String.format(Locale.US, "%s%06d%s", SEGMENT_PREFIX, segments.size(), SEGMENT_SUFFIX);
+        MappedByteBuffer segment = map(new File(directory, name), size);
+        segments.add(segment);
+        return segment;
+    }
+
+    private static MappedByteBuffer map(File file, long size) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(data.length / 4 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                output.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static void inflate(byte[] data, byte[] result) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            int length = inflater.inflate(result);
+            if (length != result.length || !inflater.finished()) {
+                throw new IOException("corrupted showcase record");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("corrupted showcase record", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static final class Location {
+
+        final int segment;
+        final int offset;
+
+        Location(int segment, int offset) {
+            this.segment = segment;
+            this.offset = offset;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.model.showcase;
+
+import com.google.gson.JsonElement;
+import com.yandex.money.api.time.DateTime;
+import com.yandex.money.api.typeadapters.model.showcase.ShowcaseTypeAdapter;
+
+import java.util.Collections;
+import java.util.Stack;
+
+import static com.yandex.money.api.util.Common.checkNotNull;
+
+/**
+ * Immutable snapshot of the first step of a showcase. Used by showcase caches.
+ */
+final class ShowcaseSnapshot {
+
+    final JsonElement showcase;
+    final String submitUrl;
+    final DateTime lastModified;
+
+    ShowcaseSnapshot(JsonElement showcase, String submitUrl, DateTime lastModified) {
+        this.showcase = checkNotNull(showcase, "showcase");
+        this.submitUrl = submitUrl;
+        this.lastModified = checkNotNull(lastModified, "lastModified");
+    }
+
+    /**
+     * Creates snapshot of current step of a context.
+     *
+     * @param context showcase context
+     * @return snapshot
+     */
+    static ShowcaseSnapshot of(ShowcaseContext context) {
+        ShowcaseContext.Step step = context.getCurrentStep();
+        return new ShowcaseSnapshot(ShowcaseTypeAdapter.getInstance().toJsonTree(step.showcase), step.submitUrl,
+                context.getLastModified());
+    }
+
+    /**
+     * @return new context with its own copy of showcase
+     */
+    ShowcaseContext newContext() {
+        Showcase copy = ShowcaseTypeAdapter.getInstance().fromJson(showcase);
+        return new ShowcaseContext(new Stack<ShowcaseContext.Step>(), lastModified,
+                new ShowcaseContext.Step(copy, submitUrl), Collections.<String, String>emptyMap(),
+                ShowcaseContext.State.HAS_NEXT_STEP);
+    }
+}
@@ -32,29 +32,36 @@ import com.yandex.money.api.typeadapters.JsonUtils;
 import com.yandex.money.api.util.HttpHeaders;
 import com.yandex.money.api.util.MimeTypes;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+import static com.yandex.money.api.util.Common.checkNotNull;
+
 /**
  * Base implementation of {@link ApiRequest}. It is preferable to extend your requests from this class or its
  * descendants rather than create your own implementation of {@link ApiRequest}.
  *
  * @author Slava Yasevich (vyasevich@yamoney.ru)
  */
-public abstract class BaseApiRequest<T> implements ApiRequest<T> {
+public abstract class BaseApiRequest<T> implements ApiRequest<T>, StreamableBody {
 
     private transient final Map<String, String> headers = new HashMap<>();
     private transient final Map<String, String> parameters = new HashMap<>();
     private transient final ParametersBuffer buffer = new ParametersBuffer();
 
+    private transient PreparedParameters preparedParameters = PreparedParameters.EMPTY;
     private transient byte[] body;
+    private transient JsonElement json;
 
     @Override
     public final String requestUrl(HostsProvider hostsProvider) {
         String url = requestUrlBase(hostsProvider);
-        return getMethod() == Method.GET ? url + buffer.setParameters(parameters).prepareGet() : url;
+        return getMethod() == Method.GET ? url + prepareBuffer().prepareGet() : url;
     }
 
     @Override
@@ -64,13 +71,48 @@ public abstract class BaseApiRequest<T> implements ApiRequest<T> {
 
     @Override
     public final Map<String, String> getParameters() {
-        return Collections.unmodifiableMap(parameters);
+        if (preparedParameters.isEmpty()) {
+            return Collections.unmodifiableMap(parameters);
+        }
+        Map<String, String> result = new LinkedHashMap<>(preparedParameters.getParameters());
+        result.putAll(parameters);
+        return Collections.unmodifiableMap(result);
     }
 
     @Override
     public final byte[] getBody() {
         prepareBody();
-        return body == null ? buffer.setParameters(parameters).prepareBytes() : body;
+        if (json != null) {
+            return JsonUtils.getBytes(json);
+        }
+        return body == null ? prepareBuffer().prepareBytes() : body;
+    }
+
+    @Override
+    public final long getBodyLength() {
+        prepareBody();
+        if (json != null) {
+            CountingOutputStream stream = new CountingOutputStream();
+            try {
+                JsonUtils.writeTo(json, stream);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            return stream.count;
+        }
+        return body == null ? prepareBuffer().contentLength() : body.length;
+    }
+
+    @Override
+    public final void writeBody(OutputStream stream) throws IOException {
+        prepareBody();
+        if (json != null) {
+            JsonUtils.writeTo(json, stream);
+        } else if (body != null) {
+            stream.write(body);
+        } else {
+            prepareBuffer().writeTo(stream);
+        }
     }
 
     @Override
@@ -124,6 +166,9 @@ public abstract class BaseApiRequest<T> implements ApiRequest<T> {
      * @param value value
      */
     protected final void addParameter(String key, String value) {
+        if (preparedParameters.contains(key)) {
+            throw new IllegalArgumentException("parameter '" + key + "' is already prepared");
+        }
         parameters.put(key, value);
     }
 
@@ -193,7 +238,25 @@ public abstract class BaseApiRequest<T> implements ApiRequest<T> {
      * @param parameters parameters to add
      */
     protected final void addParameters(Map<String, String> parameters) {
-        this.parameters.putAll(parameters);
+        for (Map.Entry<String, String> entry : parameters.entrySet()) {
+            addParameter(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Sets parameters that were encoded in advance. They are written to a request as is before other parameters. Keys
+     * of prepared parameters must not be added to this request with {@code addParameter*} methods.
+     *
+     * @param preparedParameters prepared parameters
+     */
+    protected final void setPreparedParameters(PreparedParameters preparedParameters) {
+        checkNotNull(preparedParameters, "preparedParameters");
+        for (String key : parameters.keySet()) {
+            if (preparedParameters.contains(key)) {
+                throw new IllegalArgumentException("parameter '" + key + "' is already added");
+            }
+        }
+        this.preparedParameters = preparedParameters;
     }
 
     /**
@@ -204,23 +267,48 @@ public abstract class BaseApiRequest<T> implements ApiRequest<T> {
     @SuppressWarnings("WeakerAccess")
     protected final void setBody(byte[] body) {
         this.body = body;
+        this.json = null;
     }
 
     /**
-     * Sets a JSON body. Will override any added parameters if not {code null}.
+     * Sets a JSON body. Will override any added parameters if not {code null}. The element is serialized each time
+     * the body is written, so it must not be modified afterwards.
      *
      * @param json JSON body
      * @see #setBody(byte[])
      */
     protected final void setBody(JsonElement json) {
-        setBody(JsonUtils.getBytes(json));
+        this.json = checkNotNull(json, "json");
+        this.body = null;
     }
 
     /**
-     * Allows you to lazily prepare request body before {@link #getBody()} method returns. You can use
-     * {@link #setBody(byte[])} or any of {@code addParameter*} methods here.
+     * Allows you to lazily prepare request body before {@link #getBody()} or {@link #writeBody(OutputStream)} methods
+     * return. You can use {@link #setBody(byte[])} or any of {@code addParameter*} methods here.
      */
     @SuppressWarnings("WeakerAccess")
     protected void prepareBody() {
     }
+
+    private ParametersBuffer prepareBuffer() {
+        return buffer.setParameters(parameters).setPreparedParameters(preparedParameters);
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        long count;
+
+        CountingOutputStream() {
+        }
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
 }
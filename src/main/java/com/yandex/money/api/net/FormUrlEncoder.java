@@ -0,0 +1,258 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.yandex.money.api.util.Common.checkNotNull;
+
+/**
+ * Encodes strings to {@code application/x-www-form-urlencoded} format using UTF-8 charset. Produces the same output as
+ * {@link java.net.URLEncoder#encode(String, String)} but writes escaped bytes directly to a stream or a builder without
+ * creating intermediate strings and byte arrays.
+ * <p/>
+ * Strings that contain only characters not requiring escaping are written as is. Encoded forms of parameter keys are
+ * cached, because keys are usually constants.
+ */
+public final class FormUrlEncoder {
+
+    private static final int MAX_CACHED_KEYS = 512;
+
+    private static final boolean[] SAFE = new boolean[128];
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+    private static final ConcurrentMap<String, byte[]> KEYS = new ConcurrentHashMap<>();
+
+    static {
+        for (char c = 'a'; c <= 'z'; ++c) {
+            SAFE[c] = true;
+        }
+        for (char c = 'A'; c <= 'Z'; ++c) {
+            SAFE[c] = true;
+        }
+        for (char c = '0'; c <= '9'; ++c) {
+            SAFE[c] = true;
+        }
+        SAFE['.'] = true;
+        SAFE['-'] = true;
+        SAFE['*'] = true;
+        SAFE['_'] = true;
+    }
+
+    private FormUrlEncoder() {
+    }
+
+    /**
+     * Checks if a value can be used in a form without escaping.
+     *
+     * @param value value to check
+     * @return {@code true} if value does not require escaping
+     */
+    public static boolean isSafe(String value) {
+        for (int i = 0, length = value.length(); i < length; ++i) {
+            char c = value.charAt(i);
+            if (c >= 128 || !SAFE[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Calculates length of an encoded value.
+     *
+     * @param value value to encode
+     * @return length of encoded value in bytes (and chars)
+     */
+    public static int encodedLength(String value) {
+        int result = 0;
+        for (int i = 0, length = value.length(); i < length; ++i) {
+            char c = value.charAt(i);
+            if (c < 128) {
+                result += SAFE[c] || c == ' ' ? 1 : 3;
+            } else if (c < 0x800) {
+                result += 6;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                result += 12;
+                ++i;
+            } else if (Character.isSurrogate(c)) {
+                result += 3; // malformed surrogate is replaced with '?'
+            } else {
+                result += 9;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Encodes a value to a builder.
+     *
+     * @param value value to encode
+     * @param builder builder to append encoded value to
+     * @return the builder
+     */
+    public static StringBuilder encode(String value, StringBuilder builder) {
+        checkNotNull(builder, "builder");
+        if (isSafe(value)) {
+            return builder.append(value);
+        }
+        for (int i = 0, length = value.length(); i < length; ++i) {
+            char c = value.charAt(i);
+            if (c < 128) {
+                if (SAFE[c]) {
+                    builder.append(c);
+                } else if (c == ' ') {
+                    builder.append('+');
+                } else {
+                    appendEscaped(c, builder);
+                }
+            } else {
+                int codePoint = codePointAt(value, i);
+                if (Character.isSupplementaryCodePoint(codePoint)) {
+                    ++i;
+                }
+                if (codePoint < 128) {
+                    appendEscaped(codePoint, builder);
+                } else if (codePoint < 0x800) {
+                    appendEscaped(0xC0 | (codePoint >> 6), builder);
+                    appendEscaped(0x80 | (codePoint & 0x3F), builder);
+                } else if (codePoint < 0x10000) {
+                    appendEscaped(0xE0 | (codePoint >> 12), builder);
+                    appendEscaped(0x80 | ((codePoint >> 6) & 0x3F), builder);
+                    appendEscaped(0x80 | (codePoint & 0x3F), builder);
+                } else {
+                    appendEscaped(0xF0 | (codePoint >> 18), builder);
+                    appendEscaped(0x80 | ((codePoint >> 12) & 0x3F), builder);
+                    appendEscaped(0x80 | ((codePoint >> 6) & 0x3F), builder);
+                    appendEscaped(0x80 | (codePoint & 0x3F), builder);
+                }
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * Encodes a value to a stream.
+     *
+     * @param value value to encode
+     * @param stream stream to write encoded value to
+     * @throws IOException if stream fails to write
+     */
+    public static void encode(String value, OutputStream stream) throws IOException {
+        checkNotNull(stream, "stream");
+        for (int i = 0, length = value.length(); i < length; ++i) {
+            char c = value.charAt(i);
+            if (c < 128) {
+                if (SAFE[c]) {
+                    stream.write(c);
+                } else if (c == ' ') {
+                    stream.write('+');
+                } else {
+                    writeEscaped(c, stream);
+                }
+            } else {
+                int codePoint = codePointAt(value, i);
+                if (Character.isSupplementaryCodePoint(codePoint)) {
+                    ++i;
+                }
+                if (codePoint < 128) {
+                    writeEscaped(codePoint, stream);
+                } else if (codePoint < 0x800) {
+                    writeEscaped(0xC0 | (codePoint >> 6), stream);
+                    writeEscaped(0x80 | (codePoint & 0x3F), stream);
+                } else if (codePoint < 0x10000) {
+                    writeEscaped(0xE0 | (codePoint >> 12), stream);
+                    writeEscaped(0x80 | ((codePoint >> 6) & 0x3F), stream);
+                    writeEscaped(0x80 | (codePoint & 0x3F), stream);
+                } else {
+                    writeEscaped(0xF0 | (codePoint >> 18), stream);
+                    writeEscaped(0x80 | ((codePoint >> 12) & 0x3F), stream);
+                    writeEscaped(0x80 | ((codePoint >> 6) & 0x3F), stream);
+                    writeEscaped(0x80 | (codePoint & 0x3F), stream);
+                }
+            }
+        }
+    }
+
+    /**
+     * Encodes a value to a byte array. Use it to precompute encoded forms of constant values.
+     *
+     * @param value value to encode
+     * @return encoded value
+     */
+    public static byte[] encodeToBytes(String value) {
+        StringBuilder builder = encode(value, new StringBuilder(encodedLength(value)));
+        byte[] bytes = new byte[builder.length()];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = (byte) builder.charAt(i);
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes encoded key to a stream. Encoded forms of keys are cached.
+     *
+     * @param key key to encode
+     * @param stream stream to write encoded key to
+     * @throws IOException if stream fails to write
+     */
+    public static void encodeKey(String key, OutputStream stream) throws IOException {
+        byte[] bytes = KEYS.get(key);
+        if (bytes == null) {
+            bytes = encodeToBytes(key);
+            if (KEYS.size() < MAX_CACHED_KEYS) {
+                KEYS.putIfAbsent(key, bytes);
+            }
+        }
+        stream.write(bytes);
+    }
+
+    private static int codePointAt(String value, int index) {
+        char c = value.charAt(index);
+        if (Character.isHighSurrogate(c) && index + 1 < value.length()) {
+            char next = value.charAt(index + 1);
+            if (Character.isLowSurrogate(next)) {
+                return Character.toCodePoint(c, next);
+            }
+        }
+        // malformed surrogates are replaced with '?' like String.getBytes does
+        return Character.isSurrogate(c) ? '?' : c;
+    }
+
+    private static void appendEscaped(int b, StringBuilder builder) {
+        builder.append('%')
+                .append(HEX[(b >> 4) & 0x0F])
+                .append(HEX[b & 0x0F]);
+    }
+
+    private static void writeEscaped(int b, OutputStream stream) throws IOException {
+        stream.write('%');
+        stream.write(HEX[(b >> 4) & 0x0F]);
+        stream.write(HEX[b & 0x0F]);
+    }
+}
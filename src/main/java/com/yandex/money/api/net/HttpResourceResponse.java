@@ -74,6 +74,21 @@ public final class HttpResourceResponse<T> {
         return resourceState == HttpResourceResponse.ResourceState.DOCUMENT;
     }
 
+    /**
+     * Applies response to a conditional request made for this document. If the document was modified returns
+     * {@code response} as is, otherwise returns this document with updated expiration time.
+     *
+     * @param response response to a conditional request
+     * @return actual response with document
+     */
+    public HttpResourceResponse<T> revalidate(HttpResourceResponse<T> response) {
+        checkNotNull(response, "response");
+        if (response.hasDocument() || !hasDocument()) {
+            return response;
+        }
+        return new HttpResourceResponse<>(resourceState, contentType, lastModified, response.expires, document);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
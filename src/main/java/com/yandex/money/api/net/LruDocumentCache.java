@@ -0,0 +1,79 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.yandex.money.api.util.Common.checkNotNull;
+
+/**
+ * In-memory implementation of {@link DocumentCache} that evicts least recently used documents when number of documents
+ * exceeds its capacity.
+ */
+public final class LruDocumentCache implements DocumentCache {
+
+    private final Map<String, HttpResourceResponse<?>> responses;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize maximum number of documents to keep
+     */
+    public LruDocumentCache(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize < 1: " + maxSize);
+        }
+        responses = new LinkedHashMap<String, HttpResourceResponse<?>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, HttpResourceResponse<?>> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    @Override
+    public synchronized HttpResourceResponse<?> get(String key) {
+        return responses.get(key);
+    }
+
+    @Override
+    public synchronized void put(String key, HttpResourceResponse<?> response) {
+        responses.put(checkNotNull(key, "key"), checkNotNull(response, "response"));
+    }
+
+    @Override
+    public synchronized void remove(String key) {
+        responses.remove(key);
+    }
+
+    /**
+     * @return number of cached documents
+     */
+    public synchronized int size() {
+        return responses.size();
+    }
+}
@@ -28,9 +28,7 @@ import com.yandex.money.api.util.Strings;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
-import java.nio.charset.Charset;
+import java.io.OutputStream;
 import java.util.Collections;
 import java.util.Map;
 
@@ -44,10 +42,8 @@ import static com.yandex.money.api.util.Common.checkNotNull;
  */
 public final class ParametersBuffer {
 
-    private static final String UTF8_NAME = "UTF-8";
-    static final Charset UTF8_CHARSET = Charset.forName(UTF8_NAME);
-
     private Map<String, String> params = Collections.emptyMap();
+    private PreparedParameters prepared;
 
     /**
      * Encodes string value to UTF-8 byte array.
@@ -56,11 +52,7 @@ public final class ParametersBuffer {
      * @return UTF-8 byte array
      */
     public static byte[] encodeUtf8(String value) {
-        try {
-            return encode(value).getBytes(UTF8_CHARSET);
-        } catch (UnsupportedEncodingException e) {
-            throw new RuntimeException(e);
-        }
+        return FormUrlEncoder.encodeToBytes(value);
     }
 
     /**
@@ -74,6 +66,17 @@ public final class ParametersBuffer {
         return this;
     }
 
+    /**
+     * Sets prepared parameters. They precede other parameters and are not encoded again.
+     *
+     * @param prepared prepared parameters (not null)
+     * @return itself
+     */
+    public ParametersBuffer setPreparedParameters(PreparedParameters prepared) {
+        this.prepared = checkNotNull(prepared, "prepared");
+        return this;
+    }
+
     /**
      * Prepares part of url for get request.
      * <p>
@@ -89,7 +92,10 @@ public final class ParametersBuffer {
      */
     public String prepareGet() {
         GetBuffer buffer = new GetBuffer();
-        iterate(buffer);
+        if (hasPrepared()) {
+            prepared.appendTo(buffer.builder.append('?'));
+        }
+        iterateUnchecked(buffer);
         return buffer.toString();
     }
 
@@ -107,16 +113,61 @@ public final class ParametersBuffer {
      * @return byte array of parameters
      */
     public byte[] prepareBytes() {
-        PostBuffer buffer = new PostBuffer();
-        iterate(buffer);
-        return buffer.getBytes();
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try {
+            iterate(newPostBuffer(stream));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return stream.toByteArray();
     }
 
-    static String encode(String value) throws UnsupportedEncodingException {
-        return URLEncoder.encode(value, UTF8_CHARSET.name());
+    /**
+     * Writes parameters to a stream in the same form as {@link #prepareBytes()} does, but without creating an
+     * intermediate byte array for the whole body.
+     *
+     * @param stream stream to write parameters to
+     * @throws IOException if stream fails to write
+     */
+    public void writeTo(OutputStream stream) throws IOException {
+        iterate(newPostBuffer(checkNotNull(stream, "stream")));
     }
 
-    private void iterate(Buffer buffer) {
+    /**
+     * Calculates length in bytes of parameters written by {@link #writeTo(OutputStream)} or returned by
+     * {@link #prepareBytes()}.
+     *
+     * @return length of parameters in bytes
+     */
+    public long contentLength() {
+        LengthBuffer buffer = new LengthBuffer();
+        buffer.length = hasPrepared() ? prepared.length() : 0;
+        iterateUnchecked(buffer);
+        return buffer.length;
+    }
+
+    private void iterateUnchecked(Buffer buffer) {
+        try {
+            iterate(buffer);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private boolean hasPrepared() {
+        return prepared != null && !prepared.isEmpty();
+    }
+
+    private PostBuffer newPostBuffer(OutputStream stream) throws IOException {
+        PostBuffer buffer = new PostBuffer(stream);
+        if (hasPrepared()) {
+            prepared.writeTo(stream);
+            buffer.first = false;
+        }
+        return buffer;
+    }
+
+    private void iterate(Buffer buffer) throws IOException {
         for (Map.Entry<String, String> param : params.entrySet()) {
             String key = param.getKey();
             if (Strings.isNullOrEmpty(key)) {
@@ -133,7 +184,7 @@ public final class ParametersBuffer {
     }
 
     private interface Buffer {
-        void nextParameter(String key, String value);
+        void nextParameter(String key, String value) throws IOException;
     }
 
     private static final class GetBuffer implements Buffer {
@@ -145,14 +196,8 @@ public final class ParametersBuffer {
 
         @Override
         public void nextParameter(String key, String value) {
-            try {
-                builder.append(builder.length() == 0 ? '?' : '&')
-                        .append(encode(key))
-                        .append('=')
-                        .append(encode(value));
-            } catch (UnsupportedEncodingException e) {
-                throw new RuntimeException(e);
-            }
+            FormUrlEncoder.encode(key, builder.append(builder.length() == 0 ? '?' : '&')).append('=');
+            FormUrlEncoder.encode(value, builder);
         }
 
         @Override
@@ -163,30 +208,40 @@ public final class ParametersBuffer {
 
     private static final class PostBuffer implements Buffer {
 
-        private static final byte[] AMPERSAND = "&".getBytes(UTF8_CHARSET);
-        private static final byte[] EQUALS_SIGN = "=".getBytes(UTF8_CHARSET);
+        private final OutputStream stream;
 
-        private final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        boolean first = true;
 
-        PostBuffer() {
+        PostBuffer(OutputStream stream) {
+            this.stream = stream;
         }
 
         @Override
-        public void nextParameter(String key, String value) {
-            try {
-                if (stream.size() > 0) {
-                    stream.write(AMPERSAND);
-                }
-                stream.write(encodeUtf8(key));
-                stream.write(EQUALS_SIGN);
-                stream.write(encodeUtf8(value));
-            } catch (IOException e) {
-                throw new RuntimeException(e);
+        public void nextParameter(String key, String value) throws IOException {
+            if (first) {
+                first = false;
+            } else {
+                stream.write('&');
             }
+            FormUrlEncoder.encodeKey(key, stream);
+            stream.write('=');
+            FormUrlEncoder.encode(value, stream);
+        }
+    }
+
+    private static final class LengthBuffer implements Buffer {
+
+        long length;
+
+        LengthBuffer() {
         }
 
-        byte[] getBytes() {
-            return stream.toByteArray();
+        @Override
+        public void nextParameter(String key, String value) {
+            if (length > 0) {
+                length++;
+            }
+            length += FormUrlEncoder.encodedLength(key) + 1 + FormUrlEncoder.encodedLength(value);
         }
     }
 }
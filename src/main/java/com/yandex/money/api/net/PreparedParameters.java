@@ -0,0 +1,154 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net;
+
+import com.yandex.money.api.util.Strings;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.yandex.money.api.util.Common.checkNotNull;
+
+/**
+ * Parameters that are shared by many requests. They are encoded once when created and then written as is to each
+ * request that uses them, so only parameters that vary from request to request are encoded per call.
+ * <p/>
+ * Instances are immutable and can be shared between threads.
+ *
+ * @see BaseApiRequest#setPreparedParameters(PreparedParameters)
+ */
+public final class PreparedParameters {
+
+    /**
+     * Empty prepared parameters.
+     */
+    public static final PreparedParameters EMPTY = new Builder().create();
+
+    private final Map<String, String> parameters;
+    private final byte[] bytes;
+    private final String query;
+
+    PreparedParameters(Builder builder) {
+        parameters = Collections.unmodifiableMap(new LinkedHashMap<>(builder.parameters));
+        bytes = new ParametersBuffer().setParameters(parameters).prepareBytes();
+        query = new String(bytes, Charset.forName("US-ASCII")); // encoded parameters are ASCII only
+    }
+
+    /**
+     * Gets parameters as key-value pairs.
+     *
+     * @return parameters
+     */
+    public Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Checks if parameter with specified key is prepared.
+     *
+     * @param key key
+     * @return {@code true} if parameter is prepared
+     */
+    public boolean contains(String key) {
+        return parameters.containsKey(key);
+    }
+
+    /**
+     * Checks if there are no encoded parameters.
+     *
+     * @return {@code true} if empty
+     */
+    public boolean isEmpty() {
+        return bytes.length == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "PreparedParameters{" +
+                "parameters=" + parameters +
+                '}';
+    }
+
+    int length() {
+        return bytes.length;
+    }
+
+    void writeTo(OutputStream stream) throws IOException {
+        stream.write(bytes);
+    }
+
+    void appendTo(StringBuilder builder) {
+        builder.append(query);
+    }
+
+    /**
+     * Builder for {@link PreparedParameters}.
+     */
+    public static final class Builder {
+
+        final Map<String, String> parameters = new LinkedHashMap<>();
+
+        /**
+         * Adds parameter. Parameters with empty keys or values are ignored.
+         *
+         * @param key key
+         * @param value value
+         * @return itself
+         */
+        public Builder addParameter(String key, String value) {
+            if (!Strings.isNullOrEmpty(key) && !Strings.isNullOrEmpty(value)) {
+                parameters.put(key, value);
+            }
+            return this;
+        }
+
+        /**
+         * Adds collection of parameters.
+         *
+         * @param parameters parameters to add
+         * @return itself
+         */
+        public Builder addParameters(Map<String, String> parameters) {
+            for (Map.Entry<String, String> entry : checkNotNull(parameters, "parameters").entrySet()) {
+                addParameter(entry.getKey(), entry.getValue());
+            }
+            return this;
+        }
+
+        /**
+         * Creates prepared parameters.
+         *
+         * @return prepared parameters
+         */
+        public PreparedParameters create() {
+            return new PreparedParameters(this);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Request body that can be written directly to a stream. HTTP clients should prefer this interface over
+ * {@link ApiRequest#getBody()} if a request implements it to avoid materialisation of the whole body in memory.
+ */
+public interface StreamableBody {
+
+    /**
+     * Gets length of a body in bytes.
+     *
+     * @return length of a body or {@code -1} if unknown
+     */
+    long getBodyLength();
+
+    /**
+     * Writes a body to a stream. Can be called several times (e.g. on retries) and must produce the same content each
+     * time. Implementations must not close the stream.
+     *
+     * @param stream stream to write to
+     * @throws IOException if stream fails to write
+     */
+    void writeBody(OutputStream stream) throws IOException;
+}
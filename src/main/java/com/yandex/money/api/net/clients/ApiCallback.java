@@ -0,0 +1,53 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net.clients;
+
+import com.yandex.money.api.net.ApiRequest;
+
+/**
+ * Receives the result of an {@link ApiRequest} executed with
+ * {@link AsyncApiClient#executeAsync(ApiRequest, ApiCallback)}. Only one of the methods is called for each request.
+ *
+ * @param <T> response document type
+ */
+public interface ApiCallback<T> {
+
+    /**
+     * Called when the response has been parsed successfully.
+     *
+     * @param response response document
+     */
+    void onSuccess(T response);
+
+    /**
+     * Called when the request has failed. It may be a network error, an exception thrown by
+     * {@link ApiRequest#parse(com.yandex.money.api.net.HttpClientResponse)} or
+     * {@link java.util.concurrent.CancellationException} if the request was cancelled.
+     *
+     * @param exception cause of the failure
+     */
+    void onFailure(Exception exception);
+}
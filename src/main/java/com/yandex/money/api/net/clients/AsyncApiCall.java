@@ -0,0 +1,165 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net.clients;
+
+import com.yandex.money.api.net.ApiRequest;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.yandex.money.api.util.Common.checkNotNull;
+
+/**
+ * {@link Future} of an {@link ApiRequest} enqueued to OkHttp's dispatcher. The response is parsed on the dispatcher
+ * thread, so the calling thread is never blocked unless it calls one of the {@code get} methods.
+ *
+ * @param <T> response document type
+ */
+final class AsyncApiCall<T> implements Future<T>, Callback {
+
+    private final CountDownLatch latch = new CountDownLatch(1);
+    private final AtomicBoolean completed = new AtomicBoolean();
+
+    private final Call call;
+    private final ApiRequest<T> request;
+    private final ApiCallback<T> callback;
+    private final boolean debugMode;
+
+    private volatile boolean cancelled;
+    private T result;
+    private Exception exception;
+
+    AsyncApiCall(Call call, ApiRequest<T> request, ApiCallback<T> callback, boolean debugMode) {
+        this.call = checkNotNull(call, "call");
+        this.request = checkNotNull(request, "request");
+        this.callback = callback;
+        this.debugMode = debugMode;
+    }
+
+    /**
+     * Schedules the call to be executed.
+     */
+    void enqueue() {
+        call.enqueue(this);
+    }
+
+    @Override
+    public void onFailure(Call call, IOException e) {
+        fail(e);
+    }
+
+    @Override
+    public void onResponse(Call call, Response response) {
+        T value;
+        try {
+            value = request.parse(new OkHttpClientResponse(response, debugMode));
+        } catch (Exception e) {
+            fail(e);
+            return;
+        } finally {
+            response.close();
+        }
+        succeed(value);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        CancellationException e = new CancellationException("call is cancelled");
+        if (!complete(null, e)) {
+            return false;
+        }
+        cancelled = true;
+        call.cancel();
+        if (callback != null) {
+            callback.onFailure(e);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public boolean isDone() {
+        return latch.getCount() == 0;
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        latch.await();
+        return report();
+    }
+
+    @Override
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!latch.await(timeout, unit)) {
+            throw new TimeoutException();
+        }
+        return report();
+    }
+
+    private void succeed(T value) {
+        if (complete(value, null) && callback != null) {
+            callback.onSuccess(value);
+        }
+    }
+
+    private void fail(Exception e) {
+        if (complete(null, e) && callback != null) {
+            callback.onFailure(e);
+        }
+    }
+
+    private boolean complete(T result, Exception exception) {
+        if (!completed.compareAndSet(false, true)) {
+            return false;
+        }
+        this.result = result;
+        this.exception = exception;
+        latch.countDown();
+        return true;
+    }
+
+    private T report() throws ExecutionException {
+        if (exception instanceof CancellationException) {
+            throw (CancellationException) exception;
+        } else if (exception != null) {
+            throw new ExecutionException(exception);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net.clients;
+
+import com.yandex.money.api.net.ApiRequest;
+
+import java.util.concurrent.Future;
+
+/**
+ * {@link ApiClient} that is able to execute requests without blocking the calling thread. It is a separate interface,
+ * so existing implementations of {@link ApiClient} are not affected.
+ */
+public interface AsyncApiClient extends ApiClient {
+
+    /**
+     * Executes {@link ApiRequest} asynchronously. This method does not block: the request is sent and its response is
+     * parsed on a background thread. The result is delivered to {@code callback} (if provided) and can also be obtained
+     * from the returned {@link Future}. Any exception is wrapped in
+     * {@link java.util.concurrent.ExecutionException}.
+     *
+     * @param request request to execute
+     * @param callback callback to notify when the request is completed, may be {@code null}
+     * @param <T> response document type
+     * @return future of a response document
+     */
+    <T> Future<T> executeAsync(ApiRequest<T> request, ApiCallback<T> callback);
+}
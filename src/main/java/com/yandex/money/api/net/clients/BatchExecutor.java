@@ -0,0 +1,374 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net.clients;
+
+import com.yandex.money.api.net.ApiRequest;
+import okhttp3.HttpUrl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.yandex.money.api.util.Common.checkNotNull;
+
+/**
+ * Executes batches of heterogeneous {@link ApiRequest}s using
+ * {@link AsyncApiClient#executeAsync(ApiRequest, ApiCallback)}. The number of requests running at the same time is
+ * limited both globally and per host. Limits are shared by all batches executed by the same instance, so one executor
+ * can be used to drive the whole application.
+ * <p/>
+ * Results are reported to {@link Listener} as soon as each request completes. A failure of one request does not affect
+ * other requests of the batch.
+ * <p/>
+ * Note that OkHttp's dispatcher has its own limits, so limits of this executor should not exceed limits of the
+ * {@link okhttp3.Dispatcher} used by the client.
+ */
+public final class BatchExecutor {
+
+    private final AsyncApiClient client;
+    private final int maxRequests;
+    private final int maxRequestsPerHost;
+
+    // guarded by this
+    private final Deque<Item<?>> pending = new ArrayDeque<>();
+    private final Map<String, Integer> runningPerHost = new HashMap<>();
+    private int running;
+
+    /**
+     * Constructor.
+     *
+     * @param client client to execute requests with
+     * @param maxRequests maximum number of requests running at the same time
+     * @param maxRequestsPerHost maximum number of requests to a single host running at the same time
+     */
+    public BatchExecutor(AsyncApiClient client, int maxRequests, int maxRequestsPerHost) {
+        if (maxRequests < 1) {
+            throw new IllegalArgumentException("maxRequests < 1: " + maxRequests);
+        }
+        if (maxRequestsPerHost < 1) {
+            throw new IllegalArgumentException("maxRequestsPerHost < 1: " + maxRequestsPerHost);
+        }
+        this.client = checkNotNull(client, "client");
+        this.maxRequests = maxRequests;
+        this.maxRequestsPerHost = maxRequestsPerHost;
+    }
+
+    /**
+     * Executes a batch of requests. Requests are started in iteration order of the collection as soon as limits allow
+     * it. The method does not block.
+     *
+     * @param requests requests to execute
+     * @param listener listener to notify about completion of each request, called on a background thread
+     * @return batch handle
+     */
+    public Batch execute(Collection<? extends ApiRequest<?>> requests, Listener listener) {
+        checkNotNull(requests, "requests");
+        checkNotNull(listener, "listener");
+
+        Batch batch = new Batch(requests.size());
+        List<Item<?>> items = new ArrayList<>(requests.size());
+        int index = 0;
+        for (ApiRequest<?> request : requests) {
+            items.add(createItem(batch, index++, checkNotNull(request, "request"), listener));
+        }
+
+        synchronized (this) {
+            pending.addAll(items);
+        }
+        promote();
+        return batch;
+    }
+
+    /**
+     * @return number of requests that are currently running
+     */
+    public synchronized int getRunningCount() {
+        return running;
+    }
+
+    /**
+     * @return number of requests that are waiting to be started
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    private <T> Item<T> createItem(Batch batch, int index, ApiRequest<T> request, Listener listener) {
+        return new Item<>(batch, index, request, hostOf(request), listener);
+    }
+
+    private String hostOf(ApiRequest<?> request) {
+        String url = request.requestUrl(client.getHostsProvider());
+        HttpUrl httpUrl = HttpUrl.parse(url);
+        return httpUrl == null ? url : httpUrl.host();
+    }
+
+    private void promote() {
+        List<Item<?>> ready = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Item<?>> iterator = pending.iterator();
+            while (iterator.hasNext() && running < maxRequests) {
+                Item<?> item = iterator.next();
+                int hostCount = runningCount(item.host);
+                if (hostCount < maxRequestsPerHost) {
+                    iterator.remove();
+                    running++;
+                    runningPerHost.put(item.host, hostCount + 1);
+                    ready.add(item);
+                }
+            }
+        }
+        for (Item<?> item : ready) {
+            item.start();
+        }
+    }
+
+    private void finished(Item<?> item) {
+        synchronized (this) {
+            running--;
+            int hostCount = runningCount(item.host) - 1;
+            if (hostCount == 0) {
+                runningPerHost.remove(item.host);
+            } else {
+                runningPerHost.put(item.host, hostCount);
+            }
+        }
+        promote();
+    }
+
+    private List<Item<?>> removePending(Batch batch) {
+        List<Item<?>> removed = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Item<?>> iterator = pending.iterator();
+            while (iterator.hasNext()) {
+                Item<?> item = iterator.next();
+                if (item.batch == batch) {
+                    iterator.remove();
+                    removed.add(item);
+                }
+            }
+        }
+        return removed;
+    }
+
+    private int runningCount(String host) {
+        Integer count = runningPerHost.get(host);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Receives results of a batch. Methods are called once for each request of the batch.
+     */
+    public interface Listener {
+
+        /**
+         * Called when a request is completed successfully.
+         *
+         * @param index index of the request in the batch
+         * @param request the request
+         * @param response response document
+         * @param <T> response document type
+         */
+        <T> void onSuccess(int index, ApiRequest<T> request, T response);
+
+        /**
+         * Called when a request has failed or was cancelled.
+         *
+         * @param index index of the request in the batch
+         * @param request the request
+         * @param exception cause of the failure
+         */
+        void onFailure(int index, ApiRequest<?> request, Exception exception);
+    }
+
+    /**
+     * Handle of executing batch.
+     */
+    public final class Batch {
+
+        private final CountDownLatch latch;
+        private final List<Item<?>> started = new ArrayList<>();
+
+        private boolean cancelled;
+
+        Batch(int size) {
+            latch = new CountDownLatch(size);
+        }
+
+        /**
+         * Waits until every request of the batch is completed.
+         *
+         * @throws InterruptedException if current thread was interrupted
+         */
+        public void await() throws InterruptedException {
+            latch.await();
+        }
+
+        /**
+         * Waits until every request of the batch is completed or specified time elapses.
+         *
+         * @param timeout maximum time to wait
+         * @param unit time unit of the {@code timeout}
+         * @return {@code true} if the batch is completed
+         * @throws InterruptedException if current thread was interrupted
+         */
+        public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+            return latch.await(timeout, unit);
+        }
+
+        /**
+         * @return {@code true} if every request of the batch is completed
+         */
+        public boolean isDone() {
+            return latch.getCount() == 0;
+        }
+
+        /**
+         * @return number of requests that are not completed yet
+         */
+        public int getRemainingCount() {
+            return (int) latch.getCount();
+        }
+
+        /**
+         * Cancels the batch. Pending requests are not started and running requests are cancelled. Each of them is
+         * reported to the listener with {@link CancellationException}.
+         */
+        public void cancel() {
+            List<Item<?>> running;
+            synchronized (this) {
+                cancelled = true;
+                running = new ArrayList<>(started);
+            }
+            for (Item<?> item : removePending(this)) {
+                item.reject(new CancellationException("batch is cancelled"));
+            }
+            for (Item<?> item : running) {
+                item.cancel();
+            }
+        }
+
+        synchronized boolean isCancelled() {
+            return cancelled;
+        }
+
+        synchronized boolean onStarted(Item<?> item) {
+            if (!cancelled) {
+                started.add(item);
+            }
+            return !cancelled;
+        }
+
+        synchronized void onCompleted(Item<?> item) {
+            started.remove(item);
+        }
+    }
+
+    private final class Item<T> implements ApiCallback<T> {
+
+        final Batch batch;
+        final int index;
+        final ApiRequest<T> request;
+        final String host;
+        final Listener listener;
+
+        private volatile Future<T> future;
+
+        Item(Batch batch, int index, ApiRequest<T> request, String host, Listener listener) {
+            this.batch = batch;
+            this.index = index;
+            this.request = request;
+            this.host = host;
+            this.listener = listener;
+        }
+
+        @Override
+        public void onSuccess(T response) {
+            try {
+                listener.onSuccess(index, request, response);
+            } finally {
+                complete(true);
+            }
+        }
+
+        @Override
+        public void onFailure(Exception exception) {
+            onFailure(exception, true);
+        }
+
+        void reject(Exception exception) {
+            onFailure(exception, false);
+        }
+
+        void start() {
+            if (!batch.onStarted(this)) {
+                onFailure(new CancellationException("batch is cancelled"), true);
+                return;
+            }
+            try {
+                future = client.executeAsync(request, this);
+            } catch (RuntimeException e) {
+                onFailure(e, true);
+                return;
+            }
+            if (batch.isCancelled()) {
+                cancel();
+            }
+        }
+
+        void cancel() {
+            Future<T> future = this.future;
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+
+        private void onFailure(Exception exception, boolean started) {
+            try {
+                listener.onFailure(index, request, exception);
+            } finally {
+                complete(started);
+            }
+        }
+
+        private void complete(boolean started) {
+            if (started) {
+                batch.onCompleted(this);
+                finished(this);
+            }
+            batch.latch.countDown();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net.clients;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker of a single endpoint. Closed state is checked without locking, outcomes of calls are recorded in a
+ * count-based sliding window.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final CircuitBreakerConfig config;
+    private final long slowCallDurationNanos;
+    private final boolean[] failures;
+    private final boolean[] slowCalls;
+
+    private volatile State state = State.CLOSED;
+
+    private int index;
+    private int callCount;
+    private int failureCount;
+    private int slowCallCount;
+    private long openUntil;
+    private int permittedCalls;
+
+    CircuitBreaker(CircuitBreakerConfig config) {
+        this.config = config;
+        this.slowCallDurationNanos = TimeUnit.MILLISECONDS.toNanos(config.slowCallDurationMillis);
+        this.failures = new boolean[config.windowSize];
+        this.slowCalls = new boolean[config.windowSize];
+    }
+
+    /**
+     * @return current state
+     */
+    State getState() {
+        return state;
+    }
+
+    /**
+     * Checks if a call is permitted. Every permitted call must be followed by either
+     * {@link #onResult(long, boolean)} or {@link #release()}.
+     *
+     * @return {@code true} if a call is permitted
+     */
+    boolean tryAcquire() {
+        return state == State.CLOSED || tryAcquireSlow();
+    }
+
+    /**
+     * Records outcome of a call.
+     *
+     * @param durationNanos duration of a call
+     * @param failure {@code true} if call failed
+     */
+    synchronized void onResult(long durationNanos, boolean failure) {
+        switch (state) {
+            case CLOSED:
+                record(failure, durationNanos >= slowCallDurationNanos);
+                if (callCount >= config.minimumCalls && isThresholdReached()) {
+                    open();
+                }
+                break;
+            case HALF_OPEN:
+                record(failure, durationNanos >= slowCallDurationNanos);
+                if (callCount >= Math.min(config.halfOpenCalls, failures.length)) {
+                    if (isThresholdReached()) {
+                        open();
+                    } else {
+                        close();
+                    }
+                }
+                break;
+            default:
+                // call was permitted before the circuit has opened
+                break;
+        }
+    }
+
+    /**
+     * Returns permitted call that has neither succeeded nor failed, for instance it was canceled.
+     */
+    synchronized void release() {
+        if (state == State.HALF_OPEN && permittedCalls > callCount) {
+            permittedCalls--;
+        }
+    }
+
+    private synchronized boolean tryAcquireSlow() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openUntil < 0) {
+                    return false;
+                }
+                reset();
+                state = State.HALF_OPEN;
+                return tryAcquireHalfOpen();
+            default:
+                return tryAcquireHalfOpen();
+        }
+    }
+
+    private boolean tryAcquireHalfOpen() {
+        if (permittedCalls < config.halfOpenCalls) {
+            permittedCalls++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isThresholdReached() {
+        return failureCount >= config.failureRateThreshold * callCount ||
+                slowCallCount >= config.slowCallRateThreshold * callCount;
+    }
+
+    private void record(boolean failure, boolean slowCall) {
+        if (callCount == failures.length) {
+            if (failures[index]) {
+                failureCount--;
+            }
+            if (slowCalls[index]) {
+                slowCallCount--;
+            }
+        } else {
+            callCount++;
+        }
+        failures[index] = failure;
+        slowCalls[index] = slowCall;
+        if (failure) {
+            failureCount++;
+        }
+        if (slowCall) {
+            slowCallCount++;
+        }
+        index = (index + 1) % failures.length;
+    }
+
+    private void open() {
+        openUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.openDurationMillis);
+        state = State.OPEN;
+    }
+
+    private void close() {
+        reset();
+        state = State.CLOSED;
+    }
+
+    private void reset() {
+        index = 0;
+        callCount = 0;
+        failureCount = 0;
+        slowCallCount = 0;
+        permittedCalls = 0;
+    }
+}
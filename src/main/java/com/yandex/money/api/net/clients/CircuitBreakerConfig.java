@@ -0,0 +1,215 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net.clients;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of circuit breakers used by {@link DefaultApiClient}. Each endpoint of
+ * {@link com.yandex.money.api.net.providers.HostsProvider} has its own circuit breaker. To create an instance of this
+ * class use {@link CircuitBreakerConfig.Builder}.
+ * <p/>
+ * Circuit breaker records outcomes of the last {@link #windowSize} calls. When at least {@link #minimumCalls} are
+ * recorded and either failure rate or slow call rate reaches its threshold the circuit opens and all calls fail
+ * immediately with {@link com.yandex.money.api.exceptions.CircuitBreakerOpenException}. After
+ * {@link #openDurationMillis} the circuit becomes half-open and lets {@link #halfOpenCalls} calls through: if they
+ * succeed the circuit closes, otherwise it opens again.
+ */
+public final class CircuitBreakerConfig {
+
+    /**
+     * Default configuration.
+     */
+    public static final CircuitBreakerConfig DEFAULT = new Builder().create();
+
+    /**
+     * Number of calls in sliding window.
+     */
+    public final int windowSize;
+
+    /**
+     * Minimum number of calls in sliding window required to open the circuit.
+     */
+    public final int minimumCalls;
+
+    /**
+     * Failure rate that opens the circuit.
+     */
+    public final double failureRateThreshold;
+
+    /**
+     * Slow call rate that opens the circuit.
+     */
+    public final double slowCallRateThreshold;
+
+    /**
+     * Duration of a call in milliseconds that makes it slow.
+     */
+    public final long slowCallDurationMillis;
+
+    /**
+     * Time in milliseconds to keep the circuit open.
+     */
+    public final long openDurationMillis;
+
+    /**
+     * Number of calls permitted in half-open state.
+     */
+    public final int halfOpenCalls;
+
+    CircuitBreakerConfig(Builder builder) {
+        if (builder.windowSize < 1) {
+            throw new IllegalArgumentException("windowSize < 1: " + builder.windowSize);
+        }
+        if (builder.minimumCalls < 1 || builder.minimumCalls > builder.windowSize) {
+            throw new IllegalArgumentException("minimumCalls is out of range [1, " + builder.windowSize + "]: " +
+                    builder.minimumCalls);
+        }
+        checkRate("failureRateThreshold", builder.failureRateThreshold);
+        checkRate("slowCallRateThreshold", builder.slowCallRateThreshold);
+        if (builder.slowCallDurationMillis <= 0) {
+            throw new IllegalArgumentException("slowCallDuration <= 0: " + builder.slowCallDurationMillis);
+        }
+        if (builder.openDurationMillis <= 0) {
+            throw new IllegalArgumentException("openDuration <= 0: " + builder.openDurationMillis);
+        }
+        if (builder.halfOpenCalls < 1) {
+            throw new IllegalArgumentException("halfOpenCalls < 1: " + builder.halfOpenCalls);
+        }
+        windowSize = builder.windowSize;
+        minimumCalls = builder.minimumCalls;
+        failureRateThreshold = builder.failureRateThreshold;
+        slowCallRateThreshold = builder.slowCallRateThreshold;
+        slowCallDurationMillis = builder.slowCallDurationMillis;
+        openDurationMillis = builder.openDurationMillis;
+        halfOpenCalls = builder.halfOpenCalls;
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreakerConfig{" +
+                "windowSize=" + windowSize +
+                ", minimumCalls=" + minimumCalls +
+                ", failureRateThreshold=" + failureRateThreshold +
+                ", slowCallRateThreshold=" + slowCallRateThreshold +
+                ", slowCallDurationMillis=" + slowCallDurationMillis +
+                ", openDurationMillis=" + openDurationMillis +
+                ", halfOpenCalls=" + halfOpenCalls +
+                '}';
+    }
+
+    private static void checkRate(String name, double rate) {
+        if (rate <= 0 || rate > 1) {
+            throw new IllegalArgumentException(name + " is out of range (0, 1]: " + rate);
+        }
+    }
+
+    /**
+     * Builder for {@link CircuitBreakerConfig}.
+     */
+    public static final class Builder {
+
+        int windowSize = 100;
+        int minimumCalls = 20;
+        double failureRateThreshold = 0.5;
+        double slowCallRateThreshold = 0.8;
+        long slowCallDurationMillis = TimeUnit.SECONDS.toMillis(10);
+        long openDurationMillis = TimeUnit.SECONDS.toMillis(30);
+        int halfOpenCalls = 5;
+
+        /**
+         * Sets size of sliding window and minimum number of calls required to open the circuit. Default values are 100
+         * and 20.
+         *
+         * @param windowSize number of calls in sliding window
+         * @param minimumCalls minimum number of calls
+         * @return itself
+         */
+        public Builder setWindow(int windowSize, int minimumCalls) {
+            this.windowSize = windowSize;
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        /**
+         * Sets failure rate that opens the circuit. Default value is 0.5.
+         *
+         * @param failureRateThreshold failure rate in range (0, 1]
+         * @return itself
+         */
+        public Builder setFailureRateThreshold(double failureRateThreshold) {
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        /**
+         * Sets slow call rate that opens the circuit and duration that makes a call slow. Default values are 0.8 and
+         * 10 seconds.
+         *
+         * @param slowCallRateThreshold slow call rate in range (0, 1]
+         * @param duration duration of a slow call
+         * @param unit time unit of the {@code duration}
+         * @return itself
+         */
+        public Builder setSlowCallRateThreshold(double slowCallRateThreshold, long duration, TimeUnit unit) {
+            this.slowCallRateThreshold = slowCallRateThreshold;
+            this.slowCallDurationMillis = unit.toMillis(duration);
+            return this;
+        }
+
+        /**
+         * Sets time to keep the circuit open. Default value is 30 seconds.
+         *
+         * @param duration duration
+         * @param unit time unit of the {@code duration}
+         * @return itself
+         */
+        public Builder setOpenDuration(long duration, TimeUnit unit) {
+            this.openDurationMillis = unit.toMillis(duration);
+            return this;
+        }
+
+        /**
+         * Sets number of calls permitted in half-open state. Default value is 5.
+         *
+         * @param halfOpenCalls number of calls
+         * @return itself
+         */
+        public Builder setHalfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = halfOpenCalls;
+            return this;
+        }
+
+        /**
+         * Creates instance of {@link CircuitBreakerConfig}.
+         *
+         * @return configuration
+         */
+        public CircuitBreakerConfig create() {
+            return new CircuitBreakerConfig(this);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net.clients;
+
+import com.yandex.money.api.exceptions.CircuitBreakerOpenException;
+import com.yandex.money.api.exceptions.RateLimitExceededException;
+import com.yandex.money.api.net.providers.HostsProvider;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.yandex.money.api.util.Common.checkNotNull;
+
+/**
+ * Applies circuit breakers to requests. Requests are assigned to endpoints of {@link HostsProvider} by the longest
+ * matching URL prefix, requests to other URLs are assigned to their hosts.
+ */
+final class CircuitBreakerInterceptor implements Interceptor {
+
+    private final ConcurrentMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final HostsProvider hostsProvider;
+    private final CircuitBreakerConfig config;
+
+    CircuitBreakerInterceptor(HostsProvider hostsProvider, CircuitBreakerConfig config) {
+        this.hostsProvider = checkNotNull(hostsProvider, "hostsProvider");
+        this.config = checkNotNull(config, "config");
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String endpoint = getEndpoint(request.url());
+        CircuitBreaker circuitBreaker = getCircuitBreaker(endpoint);
+        if (!circuitBreaker.tryAcquire()) {
+            throw new CircuitBreakerOpenException(endpoint);
+        }
+
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (RateLimitExceededException e) {
+            circuitBreaker.release();
+            throw e;
+        } catch (IOException e) {
+            if ("Canceled".equals(e.getMessage())) {
+                circuitBreaker.release();
+            } else {
+                circuitBreaker.onResult(System.nanoTime() - start, true);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            circuitBreaker.release();
+            throw e;
+        }
+        circuitBreaker.onResult(System.nanoTime() - start, response.code() >= HttpURLConnection.HTTP_INTERNAL_ERROR);
+        return response;
+    }
+
+    private CircuitBreaker getCircuitBreaker(String endpoint) {
+        CircuitBreaker circuitBreaker = circuitBreakers.get(endpoint);
+        if (circuitBreaker == null) {
+            CircuitBreaker newCircuitBreaker = new CircuitBreaker(config);
+            circuitBreaker = circuitBreakers.putIfAbsent(endpoint, newCircuitBreaker);
+            if (circuitBreaker == null) {
+                circuitBreaker = newCircuitBreaker;
+            }
+        }
+        return circuitBreaker;
+    }
+
+    private String getEndpoint(HttpUrl url) {
+        String value = url.toString();
+        String endpoint = longestPrefix(value, null, hostsProvider.getPaymentApi());
+        endpoint = longestPrefix(value, endpoint, hostsProvider.getMoneyApi());
+        endpoint = longestPrefix(value, endpoint, hostsProvider.getMoney());
+        endpoint = longestPrefix(value, endpoint, hostsProvider.getMobileMoney());
+        return endpoint == null ? url.scheme() + "://" + url.host() + ":" + url.port() : endpoint;
+    }
+
+    private static String longestPrefix(String url, String current, String candidate) {
+        boolean matches = candidate != null && url.startsWith(candidate) &&
+                (current == null || candidate.length() > current.length());
+        return matches ? candidate : current;
+    }
+}
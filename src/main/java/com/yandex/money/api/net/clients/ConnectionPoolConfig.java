@@ -0,0 +1,157 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net.clients;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration of OkHttp's connection pool and dispatcher used by {@link DefaultApiClient}. To create an instance of
+ * this class use {@link ConnectionPoolConfig.Builder}.
+ * <p/>
+ * Limits of requests are applied by the dispatcher, so they govern asynchronous calls only. Synchronous calls are
+ * limited by the number of calling threads; size {@link #maxIdleConnections} to that number to reuse connections.
+ */
+public final class ConnectionPoolConfig {
+
+    /**
+     * Default configuration. Matches previous defaults of this library and OkHttp's dispatcher.
+     */
+    public static final ConnectionPoolConfig DEFAULT = new Builder().create();
+
+    /**
+     * Maximum number of idle connections to keep in the pool.
+     */
+    public final int maxIdleConnections;
+
+    /**
+     * Time to keep idle connection alive in milliseconds.
+     */
+    public final long keepAliveDurationMillis;
+
+    /**
+     * Maximum number of requests to execute concurrently.
+     */
+    public final int maxRequests;
+
+    /**
+     * Maximum number of requests for each host to execute concurrently.
+     */
+    public final int maxRequestsPerHost;
+
+    ConnectionPoolConfig(Builder builder) {
+        if (builder.maxIdleConnections < 0) {
+            throw new IllegalArgumentException("maxIdleConnections < 0: " + builder.maxIdleConnections);
+        }
+        if (builder.keepAliveDurationMillis <= 0) {
+            throw new IllegalArgumentException("keepAliveDuration <= 0: " + builder.keepAliveDurationMillis);
+        }
+        if (builder.maxRequests < 1) {
+            throw new IllegalArgumentException("maxRequests < 1: " + builder.maxRequests);
+        }
+        if (builder.maxRequestsPerHost < 1) {
+            throw new IllegalArgumentException("maxRequestsPerHost < 1: " + builder.maxRequestsPerHost);
+        }
+        maxIdleConnections = builder.maxIdleConnections;
+        keepAliveDurationMillis = builder.keepAliveDurationMillis;
+        maxRequests = builder.maxRequests;
+        maxRequestsPerHost = builder.maxRequestsPerHost;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolConfig{" +
+                "maxIdleConnections=" + maxIdleConnections +
+                ", keepAliveDurationMillis=" + keepAliveDurationMillis +
+                ", maxRequests=" + maxRequests +
+                ", maxRequestsPerHost=" + maxRequestsPerHost +
+                '}';
+    }
+
+    /**
+     * Builder for {@link ConnectionPoolConfig}.
+     */
+    public static final class Builder {
+
+        int maxIdleConnections = 4;
+        long keepAliveDurationMillis = TimeUnit.MINUTES.toMillis(10);
+        int maxRequests = 64;
+        int maxRequestsPerHost = 5;
+
+        /**
+         * Sets maximum number of idle connections. Default value is 4.
+         *
+         * @param maxIdleConnections maximum number of idle connections
+         * @return itself
+         */
+        public Builder setMaxIdleConnections(int maxIdleConnections) {
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        /**
+         * Sets time to keep idle connection alive. Default value is 10 minutes.
+         *
+         * @param duration duration
+         * @param unit time unit of the {@code duration}
+         * @return itself
+         */
+        public Builder setKeepAliveDuration(long duration, TimeUnit unit) {
+            this.keepAliveDurationMillis = unit.toMillis(duration);
+            return this;
+        }
+
+        /**
+         * Sets maximum number of requests to execute concurrently. Default value is 64.
+         *
+         * @param maxRequests maximum number of requests
+         * @return itself
+         */
+        public Builder setMaxRequests(int maxRequests) {
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * Sets maximum number of requests for each host to execute concurrently. Default value is 5.
+         *
+         * @param maxRequestsPerHost maximum number of requests per host
+         * @return itself
+         */
+        public Builder setMaxRequestsPerHost(int maxRequestsPerHost) {
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * Creates instance of {@link ConnectionPoolConfig}.
+         *
+         * @return configuration
+         */
+        public ConnectionPoolConfig create() {
+            return new ConnectionPoolConfig(this);
+        }
+    }
+}
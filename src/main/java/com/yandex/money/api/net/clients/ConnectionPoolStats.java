@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net.clients;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+
+import static com.yandex.money.api.util.Common.checkNotNull;
+
+/**
+ * Snapshot of connection pool and dispatcher utilisation of an HTTP client.
+ */
+public final class ConnectionPoolStats {
+
+    /**
+     * Total number of connections in the pool.
+     */
+    public final int connectionCount;
+
+    /**
+     * Number of idle connections in the pool.
+     */
+    public final int idleConnectionCount;
+
+    /**
+     * Number of requests that are currently executing.
+     */
+    public final int runningCallsCount;
+
+    /**
+     * Number of asynchronous requests waiting to be executed.
+     */
+    public final int queuedCallsCount;
+
+    /**
+     * Current limit of requests to execute concurrently.
+     */
+    public final int maxRequests;
+
+    /**
+     * Current limit of requests for each host to execute concurrently.
+     */
+    public final int maxRequestsPerHost;
+
+    ConnectionPoolStats(ConnectionPool connectionPool, Dispatcher dispatcher) {
+        checkNotNull(connectionPool, "connectionPool");
+        checkNotNull(dispatcher, "dispatcher");
+        connectionCount = connectionPool.connectionCount();
+        idleConnectionCount = connectionPool.idleConnectionCount();
+        runningCallsCount = dispatcher.runningCallsCount();
+        queuedCallsCount = dispatcher.queuedCallsCount();
+        maxRequests = dispatcher.getMaxRequests();
+        maxRequestsPerHost = dispatcher.getMaxRequestsPerHost();
+    }
+
+    /**
+     * @return number of connections in use
+     */
+    public int getActiveConnectionCount() {
+        return connectionCount - idleConnectionCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolStats{" +
+                "connectionCount=" + connectionCount +
+                ", idleConnectionCount=" + idleConnectionCount +
+                ", runningCallsCount=" + runningCallsCount +
+                ", queuedCallsCount=" + queuedCallsCount +
+                ", maxRequests=" + maxRequests +
+                ", maxRequestsPerHost=" + maxRequestsPerHost +
+                '}';
+    }
+}
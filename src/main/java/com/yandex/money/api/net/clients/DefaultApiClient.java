@@ -28,9 +28,14 @@ import com.yandex.money.api.authorization.AuthorizationData;
 import com.yandex.money.api.authorization.AuthorizationParameters;
 import com.yandex.money.api.net.ApiRequest;
 import com.yandex.money.api.net.DefaultUserAgent;
+import com.yandex.money.api.net.DocumentApiRequest;
+import com.yandex.money.api.net.DocumentCache;
+import com.yandex.money.api.net.HttpResourceResponse;
+import com.yandex.money.api.net.StreamableBody;
 import com.yandex.money.api.net.UserAgent;
 import com.yandex.money.api.net.providers.DefaultApiV1HostsProvider;
 import com.yandex.money.api.net.providers.HostsProvider;
+import com.yandex.money.api.time.DateTime;
 import com.yandex.money.api.util.HttpHeaders;
 import com.yandex.money.api.util.Language;
 import com.yandex.money.api.util.Strings;
@@ -42,18 +47,20 @@ import okhttp3.RequestBody;
 import okhttp3.Response;
 
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
 
 import static com.yandex.money.api.util.Common.checkNotNull;
 
 /**
- * Default implementation of {@link ApiClient} interface. This implementation is suitable in most cases. To create an
- * instance of this class use {@link DefaultApiClient.Builder}.
+ * Default implementation of {@link AsyncApiClient} interface. This implementation is suitable in most cases. To create
+ * an instance of this class use {@link DefaultApiClient.Builder}.
  *
  * @author Slava Yasevich (vyasevich@yamoney.ru)
  */
-public class DefaultApiClient implements ApiClient {
+public class DefaultApiClient implements AsyncApiClient {
 
-    private final CacheControl cacheControl = new CacheControl.Builder().noCache().build();
+    private static final CacheControl CACHE_CONTROL = new CacheControl.Builder().noCache().build();
 
     private final String clientId;
     private final HostsProvider hostsProvider;
@@ -61,8 +68,11 @@ public class DefaultApiClient implements ApiClient {
     private final Language language;
     private final boolean debugMode;
     private final OkHttpClient httpClient;
+    private final SingleFlight singleFlight;
+    private final DocumentCache documentCache;
+    private final boolean tokenFixed;
 
-    private String accessToken;
+    private volatile String accessToken;
 
     /**
      * Constructor.
@@ -77,9 +87,34 @@ public class DefaultApiClient implements ApiClient {
         debugMode = builder.debugMode;
 
         if (builder.httpClient == null) {
-            builder.httpClient = HttpClientFactory.newOkHttpClient(debugMode);
+            builder.httpClient = HttpClientFactory.newOkHttpClient(debugMode, builder.connectionPoolConfig);
         }
-        httpClient = builder.httpClient;
+        httpClient = applyInterceptors(builder.httpClient, builder);
+        singleFlight = builder.requestCoalescing ? new SingleFlight() : null;
+        documentCache = builder.documentCache;
+        tokenFixed = false;
+    }
+
+    /**
+     * Constructor of a view of {@code parent} client bound to specified access token. The view shares all the
+     * configuration and the HTTP client of its parent.
+     *
+     * @param parent parent client
+     * @param accessToken access token to use, may be {@code null}
+     * @see #withAccessToken(String)
+     */
+    protected DefaultApiClient(DefaultApiClient parent, String accessToken) {
+        checkNotNull(parent, "parent");
+        clientId = parent.clientId;
+        hostsProvider = parent.hostsProvider;
+        userAgent = parent.userAgent;
+        language = parent.language;
+        debugMode = parent.debugMode;
+        httpClient = parent.httpClient;
+        singleFlight = parent.singleFlight;
+        documentCache = parent.documentCache;
+        tokenFixed = true;
+        this.accessToken = accessToken;
     }
 
     @Override
@@ -102,10 +137,28 @@ public class DefaultApiClient implements ApiClient {
         return userAgent;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * If request coalescing is enabled concurrent identical GET requests share one HTTP exchange and one parsed
+     * response, see {@link Builder#setRequestCoalescing(boolean)}. If document cache is set documents of
+     * {@link DocumentApiRequest} are cached, see {@link Builder#setDocumentCache(DocumentCache)}.
+     */
+    @SuppressWarnings("unchecked")
     @Override
     public <T> T execute(ApiRequest<T> request) throws Exception {
-        Response response = httpClient.newCall(prepareRequest(request)).execute();
-        return request.parse(new OkHttpClientResponse(response, debugMode));
+        if (documentCache != null && request instanceof DocumentApiRequest) {
+            return (T) executeCached((DocumentApiRequest<?>) request);
+        }
+        return execute(prepareRequest(request), request);
+    }
+
+    @Override
+    public <T> Future<T> executeAsync(ApiRequest<T> request, ApiCallback<T> callback) {
+        AsyncApiCall<T> call = new AsyncApiCall<>(httpClient.newCall(prepareRequest(request)), request, callback,
+                debugMode);
+        call.enqueue();
+        return call;
     }
 
     @Override
@@ -114,8 +167,16 @@ public class DefaultApiClient implements ApiClient {
         return new AuthorizationDataImpl(getHostsProvider().getMoney(), parameters.build());
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws UnsupportedOperationException if this client is created by {@link #withAccessToken(String)}
+     */
     @Override
     public final void setAccessToken(String accessToken) {
+        if (tokenFixed) {
+            throw new UnsupportedOperationException("access token of a client view can not be changed");
+        }
         this.accessToken = accessToken;
     }
 
@@ -124,6 +185,28 @@ public class DefaultApiClient implements ApiClient {
         return !Strings.isNullOrEmpty(accessToken);
     }
 
+    /**
+     * Creates immutable view of this client that uses specified access token. The view shares HTTP client (and so its
+     * connection pool and dispatcher), hosts provider, user agent and other settings with this client, so it is cheap
+     * to create and safe to use from multiple threads. Use it instead of {@link #setAccessToken(String)} when one
+     * client serves several users at once.
+     *
+     * @param accessToken access token to use, may be {@code null}
+     * @return view of this client
+     */
+    public DefaultApiClient withAccessToken(String accessToken) {
+        return new DefaultApiClient(this, accessToken);
+    }
+
+    /**
+     * Gets current utilisation of connection pool and dispatcher of the HTTP client.
+     *
+     * @return connection pool stats
+     */
+    public ConnectionPoolStats getConnectionPoolStats() {
+        return new ConnectionPoolStats(httpClient.connectionPool(), httpClient.dispatcher());
+    }
+
     /**
      * @return {@code true} if debug mode is enabled
      */
@@ -131,16 +214,87 @@ public class DefaultApiClient implements ApiClient {
         return debugMode;
     }
 
+    private static OkHttpClient applyInterceptors(OkHttpClient httpClient, Builder builder) {
+        if (builder.retryPolicy == null && builder.circuitBreakerConfig == null && builder.rateLimiter == null) {
+            return httpClient;
+        }
+
+        OkHttpClient.Builder httpClientBuilder = httpClient.newBuilder();
+        if (builder.retryPolicy != null) {
+            httpClientBuilder.addInterceptor(new RetryInterceptor(builder.retryPolicy));
+        }
+        if (builder.circuitBreakerConfig != null) {
+            httpClientBuilder.addInterceptor(new CircuitBreakerInterceptor(builder.hostsProvider,
+                    builder.circuitBreakerConfig));
+        }
+        if (builder.rateLimiter != null) {
+            httpClientBuilder.addInterceptor(new RateLimitInterceptor(builder.clientId, builder.rateLimiter,
+                    builder.blockOnRateLimit));
+        }
+        return httpClientBuilder.build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> HttpResourceResponse<T> executeCached(DocumentApiRequest<T> request) throws Exception {
+        Request httpRequest = prepareRequest(request);
+        if (httpRequest.header(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            // request is already conditional, so its caller keeps the document
+            return execute(httpRequest, request);
+        }
+
+        String key = request.getClass().getName() + '\n' + httpRequest.url() + '\n' +
+                httpRequest.header(HttpHeaders.ACCEPT_LANGUAGE) + '\n' + httpRequest.header(HttpHeaders.AUTHORIZATION);
+        HttpResourceResponse<T> cached = (HttpResourceResponse<T>) documentCache.get(key);
+        if (cached != null) {
+            if (cached.expires != null && cached.expires.isAfter(DateTime.now())) {
+                return cached;
+            }
+            httpRequest = httpRequest.newBuilder()
+                    .header(HttpHeaders.IF_MODIFIED_SINCE, HttpHeaders.formatDateTime(cached.lastModified))
+                    .build();
+        }
+
+        HttpResourceResponse<T> response = execute(httpRequest, request);
+        if (cached != null) {
+            response = cached.revalidate(response);
+        }
+        if (response.hasDocument()) {
+            documentCache.put(key, response);
+        }
+        return response;
+    }
+
+    private <T> T execute(final Request httpRequest, final ApiRequest<T> request) throws Exception {
+        if (singleFlight == null || request.getMethod() != ApiRequest.Method.GET) {
+            return call(httpRequest, request);
+        }
+
+        String key = request.getClass().getName() + '\n' + httpRequest.url() + '\n' + httpRequest.headers();
+        return singleFlight.execute(key, new Callable<T>() {
+            @Override
+            public T call() throws Exception {
+                return DefaultApiClient.this.call(httpRequest, request);
+            }
+        });
+    }
+
+    private <T> T call(Request httpRequest, ApiRequest<T> request) throws Exception {
+        Response response = httpClient.newCall(httpRequest).execute();
+        return request.parse(new OkHttpClientResponse(response, debugMode));
+    }
+
     private Request prepareRequest(ApiRequest<?> request) {
         checkNotNull(request, "request");
 
         Request.Builder builder = new Request.Builder()
-                .cacheControl(cacheControl)
+                .cacheControl(CACHE_CONTROL)
+                .tag(request)
                 .url(request.requestUrl(getHostsProvider()))
                 .addHeader(HttpHeaders.USER_AGENT, getUserAgent().getName())
                 .addHeader(HttpHeaders.ACCEPT_LANGUAGE, getLanguage().iso6391Code);
 
-        if (isAuthorized()) {
+        String accessToken = this.accessToken;
+        if (!Strings.isNullOrEmpty(accessToken)) {
             builder.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken);
         }
 
@@ -153,7 +307,10 @@ public class DefaultApiClient implements ApiClient {
 
         ApiRequest.Method method = request.getMethod();
         if (method != ApiRequest.Method.GET) {
-            RequestBody body = RequestBody.create(MediaType.parse(request.getContentType()), request.getBody());
+            MediaType contentType = MediaType.parse(request.getContentType());
+            RequestBody body = request instanceof StreamableBody ?
+                    new StreamingRequestBody(contentType, (StreamableBody) request) :
+                    RequestBody.create(contentType, request.getBody());
             switch (method) {
                 case POST:
                     builder.post(body);
@@ -178,6 +335,13 @@ public class DefaultApiClient implements ApiClient {
         HostsProvider hostsProvider = new DefaultApiV1HostsProvider(false);
         Language language = Language.getDefault();
         OkHttpClient httpClient;
+        ConnectionPoolConfig connectionPoolConfig = ConnectionPoolConfig.DEFAULT;
+        RetryPolicy retryPolicy;
+        CircuitBreakerConfig circuitBreakerConfig;
+        RateLimiter rateLimiter;
+        boolean blockOnRateLimit;
+        boolean requestCoalescing;
+        DocumentCache documentCache;
 
         /**
          * Sets debug mode. Enables logging. Default value is {@code false}.
@@ -245,6 +409,87 @@ public class DefaultApiClient implements ApiClient {
             return this;
         }
 
+        /**
+         * Sets connection pool and dispatcher configuration. Default value is {@link ConnectionPoolConfig#DEFAULT}.
+         * Ignored if HTTP client is set with {@link #setHttpClient(OkHttpClient)}.
+         *
+         * @param connectionPoolConfig connection pool configuration
+         * @return itself
+         */
+        public final Builder setConnectionPoolConfig(ConnectionPoolConfig connectionPoolConfig) {
+            this.connectionPoolConfig = connectionPoolConfig;
+            return this;
+        }
+
+        /**
+         * Sets retry policy. Only idempotent requests are retried, retries are rate limited as well if rate limiter is
+         * set. By default requests are not retried.
+         *
+         * @param retryPolicy retry policy, may be {@code null}
+         * @return itself
+         */
+        public final Builder setRetryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Sets configuration of circuit breakers. Each endpoint of hosts provider gets its own circuit breaker, requests
+         * to an endpoint with open circuit fail immediately with
+         * {@link com.yandex.money.api.exceptions.CircuitBreakerOpenException}. By default circuit breakers are not
+         * used.
+         *
+         * @param circuitBreakerConfig circuit breaker configuration, may be {@code null}
+         * @return itself
+         */
+        public final Builder setCircuitBreakerConfig(CircuitBreakerConfig circuitBreakerConfig) {
+            this.circuitBreakerConfig = circuitBreakerConfig;
+            return this;
+        }
+
+        /**
+         * Sets client-side rate limiter. It is applied to every request of the client including requests of views
+         * created with {@link DefaultApiClient#withAccessToken(String)}. By default requests are not limited.
+         *
+         * @param rateLimiter rate limiter to use, may be {@code null}
+         * @param blocking {@code true} to wait until a permit is available, {@code false} to fail immediately with
+         *                 {@link com.yandex.money.api.exceptions.RateLimitExceededException}
+         * @return itself
+         */
+        public final Builder setRateLimiter(RateLimiter rateLimiter, boolean blocking) {
+            this.rateLimiter = rateLimiter;
+            this.blockOnRateLimit = blocking;
+            return this;
+        }
+
+        /**
+         * Enables coalescing of GET requests executed with {@link DefaultApiClient#execute(ApiRequest)}. Concurrent
+         * requests with the same URL and headers (including access token) share one HTTP exchange, and all callers
+         * get the same instance of parsed response or the same exception, so responses must not be modified. Default
+         * value is {@code false}.
+         *
+         * @param requestCoalescing {@code true} to enable coalescing
+         * @return itself
+         */
+        public final Builder setRequestCoalescing(boolean requestCoalescing) {
+            this.requestCoalescing = requestCoalescing;
+            return this;
+        }
+
+        /**
+         * Sets cache for documents of {@link DocumentApiRequest}. Cached documents are returned without network calls
+         * until they expire, expired documents are revalidated with conditional requests. Requests that already have
+         * {@code If-Modified-Since} header are not cached. By default documents are not cached.
+         *
+         * @param documentCache document cache, may be {@code null}
+         * @return itself
+         * @see com.yandex.money.api.net.LruDocumentCache
+         */
+        public final Builder setDocumentCache(DocumentCache documentCache) {
+            this.documentCache = documentCache;
+            return this;
+        }
+
         /**
          * Creates instance of {@link DefaultApiClient}.
          *
@@ -25,6 +25,7 @@
 package com.yandex.money.api.net.clients;
 
 import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
 
 import javax.net.ssl.SSLContext;
@@ -49,7 +50,18 @@ public final class HttpClientFactory {
      * @return new HTTP client
      */
     public static OkHttpClient newOkHttpClient(boolean enableLogging) {
-        OkHttpClient.Builder builder = createDefaultOkHttpClientBuilder();
+        return newOkHttpClient(enableLogging, ConnectionPoolConfig.DEFAULT);
+    }
+
+    /**
+     * Creates new {@link OkHttpClient} instance with specified connection pool configuration.
+     *
+     * @param enableLogging {@code true} if logging is required
+     * @param config connection pool and dispatcher configuration
+     * @return new HTTP client
+     */
+    public static OkHttpClient newOkHttpClient(boolean enableLogging, ConnectionPoolConfig config) {
+        OkHttpClient.Builder builder = createDefaultOkHttpClientBuilder(config);
         if (enableLogging) {
             applyLogging(builder);
         }
@@ -62,11 +74,32 @@ public final class HttpClientFactory {
      * @return instance of {@link OkHttpClient.Builder}
      */
     public static OkHttpClient.Builder createDefaultOkHttpClientBuilder() {
+        return createDefaultOkHttpClientBuilder(ConnectionPoolConfig.DEFAULT);
+    }
+
+    /**
+     * Creates {@link OkHttpClient.Builder} initialized with default parameters and specified connection pool
+     * configuration.
+     *
+     * @param config connection pool and dispatcher configuration
+     * @return instance of {@link OkHttpClient.Builder}
+     */
+    public static OkHttpClient.Builder createDefaultOkHttpClientBuilder(ConnectionPoolConfig config) {
+        checkNotNull(config, "config");
+
+        ConnectionPool connectionPool = new ConnectionPool(config.maxIdleConnections,
+                config.keepAliveDurationMillis, TimeUnit.MILLISECONDS);
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(config.maxRequests);
+        dispatcher.setMaxRequestsPerHost(config.maxRequestsPerHost);
+
         final long timeout = 30;
         return new OkHttpClient.Builder()
                 .readTimeout(timeout, TimeUnit.SECONDS)
                 .connectTimeout(timeout, TimeUnit.SECONDS)
-                .connectionPool(new ConnectionPool(4, 10L, TimeUnit.MINUTES))
+                .connectionPool(connectionPool)
+                .dispatcher(dispatcher)
                 .followSslRedirects(false)
                 .followRedirects(false);
     }
@@ -0,0 +1,88 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net.clients;
+
+import com.yandex.money.api.exceptions.RateLimitExceededException;
+import com.yandex.money.api.util.HttpHeaders;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+
+import static com.yandex.money.api.util.Common.checkNotNull;
+
+/**
+ * Applies {@link RateLimiter} to requests of an HTTP client.
+ */
+final class RateLimitInterceptor implements Interceptor {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final String clientId;
+    private final RateLimiter rateLimiter;
+    private final boolean blocking;
+
+    /**
+     * Constructor.
+     *
+     * @param clientId client id
+     * @param rateLimiter rate limiter to use
+     * @param blocking {@code true} to wait for a permit, {@code false} to fail immediately with
+     *                 {@link RateLimitExceededException}
+     */
+    RateLimitInterceptor(String clientId, RateLimiter rateLimiter, boolean blocking) {
+        this.clientId = clientId;
+        this.rateLimiter = checkNotNull(rateLimiter, "rateLimiter");
+        this.blocking = blocking;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        String accessToken = getAccessToken(request);
+        String path = request.url().encodedPath();
+
+        if (blocking) {
+            try {
+                rateLimiter.acquire(clientId, accessToken, path);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while waiting for rate limiter");
+            }
+        } else if (!rateLimiter.tryAcquire(clientId, accessToken, path)) {
+            throw new RateLimitExceededException(path);
+        }
+        return chain.proceed(request);
+    }
+
+    private static String getAccessToken(Request request) {
+        String authorization = request.header(HttpHeaders.AUTHORIZATION);
+        return authorization != null && authorization.startsWith(BEARER_PREFIX) ?
+                authorization.substring(BEARER_PREFIX.length()) : null;
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net.clients;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client-side rate limiter. Keeps separate token buckets for each client id, access token and endpoint path, a request
+ * is allowed only if all of its buckets have a permit. Buckets are lock-free and stored in concurrent maps, so the
+ * limiter does not become a contention point. To create an instance of this class use {@link RateLimiter.Builder}.
+ * <p/>
+ * Each limit keeps at most {@value #MAX_BUCKETS} buckets. When there is no room for a new key, buckets that are full
+ * again are removed, at most once a second. If that is not enough, a batch of arbitrary buckets is evicted and their
+ * keys start over with full buckets.
+ *
+ * @see DefaultApiClient.Builder#setRateLimiter(RateLimiter, boolean)
+ */
+public final class RateLimiter {
+
+    static final int MAX_BUCKETS = 65536;
+
+    private static final int EVICTION_BATCH = MAX_BUCKETS / 16;
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Buckets clientIdBuckets;
+    private final Buckets accessTokenBuckets;
+    private final Buckets endpointBuckets;
+
+    RateLimiter(Builder builder) {
+        clientIdBuckets = Buckets.create(builder.clientIdRate, builder.clientIdBurst);
+        accessTokenBuckets = Buckets.create(builder.accessTokenRate, builder.accessTokenBurst);
+        endpointBuckets = Buckets.create(builder.endpointRate, builder.endpointBurst);
+    }
+
+    /**
+     * Acquires a permit for a request if it is available immediately.
+     *
+     * @param clientId client id, may be {@code null}
+     * @param accessToken access token, may be {@code null}
+     * @param path endpoint path, may be {@code null}
+     * @return {@code true} if the permit is acquired
+     */
+    public boolean tryAcquire(String clientId, String accessToken, String path) {
+        TokenBucket clientIdBucket = bucket(clientIdBuckets, clientId);
+        if (clientIdBucket != null && !clientIdBucket.tryAcquire()) {
+            return false;
+        }
+        TokenBucket accessTokenBucket = bucket(accessTokenBuckets, accessToken);
+        if (accessTokenBucket != null && !accessTokenBucket.tryAcquire()) {
+            release(clientIdBucket);
+            return false;
+        }
+        TokenBucket endpointBucket = bucket(endpointBuckets, path);
+        if (endpointBucket != null && !endpointBucket.tryAcquire()) {
+            release(clientIdBucket);
+            release(accessTokenBucket);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Acquires a permit for a request waiting until it is available.
+     *
+     * @param clientId client id, may be {@code null}
+     * @param accessToken access token, may be {@code null}
+     * @param path endpoint path, may be {@code null}
+     * @throws InterruptedException if current thread was interrupted while waiting
+     */
+    public void acquire(String clientId, String accessToken, String path) throws InterruptedException {
+        long waitNanos = Math.max(reserve(bucket(clientIdBuckets, clientId)),
+                Math.max(reserve(bucket(accessTokenBuckets, accessToken)),
+                        reserve(bucket(endpointBuckets, path))));
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * @return number of buckets of all limits
+     */
+    int bucketCount() {
+        return size(clientIdBuckets) + size(accessTokenBuckets) + size(endpointBuckets);
+    }
+
+    private static int size(Buckets buckets) {
+        return buckets == null ? 0 : buckets.buckets.size();
+    }
+
+    private static TokenBucket bucket(Buckets buckets, String key) {
+        return buckets == null || key == null ? null : buckets.getOrCreate(key);
+    }
+
+    private static long reserve(TokenBucket bucket) {
+        return bucket == null ? 0L : bucket.reserve();
+    }
+
+    private static void release(TokenBucket bucket) {
+        if (bucket != null) {
+            bucket.release();
+        }
+    }
+
+    private static final class Buckets {
+
+        final ConcurrentMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+        final double rate;
+        final int burst;
+
+        Buckets(double rate, int burst) {
+            this.rate = rate;
+            this.burst = burst;
+        }
+
+        static Buckets create(double rate, int burst) {
+            return rate > 0 ? new Buckets(rate, burst) : null;
+        }
+
+        TokenBucket getOrCreate(String key) {
+            TokenBucket bucket = buckets.get(key);
+            if (bucket == null) {
+                if (buckets.size() >= MAX_BUCKETS) {
+                    makeRoom();
+                }
+                TokenBucket newBucket = new TokenBucket(rate, burst);
+                bucket = buckets.putIfAbsent(key, newBucket);
+                if (bucket == null) {
+                    bucket = newBucket;
+                }
+            }
+            return bucket;
+        }
+
+        private void makeRoom() {
+            long now = System.nanoTime();
+            long next = nextSweep.get();
+            if (now - next >= 0 && nextSweep.compareAndSet(next, now + SWEEP_INTERVAL_NANOS)) {
+                removeFullBuckets();
+            }
+
+            Iterator<TokenBucket> iterator = buckets.values().iterator();
+            while (buckets.size() > MAX_BUCKETS - EVICTION_BATCH && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+
+        private void removeFullBuckets() {
+            Iterator<TokenBucket> iterator = buckets.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isFull()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Builder for {@link RateLimiter}. Limits that are not set are not applied.
+     */
+    public static final class Builder {
+
+        double clientIdRate;
+        int clientIdBurst;
+        double accessTokenRate;
+        int accessTokenBurst;
+        double endpointRate;
+        int endpointBurst;
+
+        /**
+         * Sets limit for each client id.
+         *
+         * @param permitsPerSecond number of requests per second
+         * @param burst number of requests that can be executed at once
+         * @return itself
+         */
+        public Builder setClientIdLimit(double permitsPerSecond, int burst) {
+            checkLimit(permitsPerSecond, burst);
+            this.clientIdRate = permitsPerSecond;
+            this.clientIdBurst = burst;
+            return this;
+        }
+
+        /**
+         * Sets limit for each access token.
+         *
+         * @param permitsPerSecond number of requests per second
+         * @param burst number of requests that can be executed at once
+         * @return itself
+         */
+        public Builder setAccessTokenLimit(double permitsPerSecond, int burst) {
+            checkLimit(permitsPerSecond, burst);
+            this.accessTokenRate = permitsPerSecond;
+            this.accessTokenBurst = burst;
+            return this;
+        }
+
+        /**
+         * Sets limit for each endpoint path.
+         *
+         * @param permitsPerSecond number of requests per second
+         * @param burst number of requests that can be executed at once
+         * @return itself
+         */
+        public Builder setEndpointLimit(double permitsPerSecond, int burst) {
+            checkLimit(permitsPerSecond, burst);
+            this.endpointRate = permitsPerSecond;
+            this.endpointBurst = burst;
+            return this;
+        }
+
+        /**
+         * Creates instance of {@link RateLimiter}.
+         *
+         * @return rate limiter
+         */
+        public RateLimiter create() {
+            return new RateLimiter(this);
+        }
+
+        private static void checkLimit(double permitsPerSecond, int burst) {
+            if (permitsPerSecond <= 0) {
+                throw new IllegalArgumentException("permitsPerSecond <= 0: " + permitsPerSecond);
+            }
+            if (burst < 1) {
+                throw new IllegalArgumentException("burst < 1: " + burst);
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net.clients;
+
+import com.yandex.money.api.exceptions.CircuitBreakerOpenException;
+import com.yandex.money.api.exceptions.RateLimitExceededException;
+import com.yandex.money.api.net.IdempotentRequest;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.yandex.money.api.util.Common.checkNotNull;
+
+/**
+ * Retries idempotent requests according to {@link RetryPolicy}.
+ */
+final class RetryInterceptor implements Interceptor {
+
+    private static final int HTTP_BAD_GATEWAY = 502;
+
+    private final RetryPolicy policy;
+    private final RetryBudget budget;
+
+    RetryInterceptor(RetryPolicy policy) {
+        this.policy = checkNotNull(policy, "policy");
+        this.budget = new RetryBudget(policy.budgetRatio, policy.budgetReserve);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!isIdempotent(request)) {
+            return chain.proceed(request);
+        }
+
+        budget.deposit();
+        long delayMillis = policy.baseDelayMillis;
+        for (int retry = 0; ; ++retry) {
+            try {
+                Response response = chain.proceed(request);
+                if (!isRetryable(response) || !canRetry(retry)) {
+                    return response;
+                }
+                response.close();
+            } catch (IOException e) {
+                if (!isRetryable(e) || !canRetry(retry)) {
+                    throw e;
+                }
+            }
+
+            delayMillis = nextDelay(delayMillis);
+            try {
+                TimeUnit.MILLISECONDS.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while waiting for retry");
+            }
+        }
+    }
+
+    private boolean canRetry(int retry) {
+        return retry < policy.maxRetries && budget.tryWithdraw();
+    }
+
+    private long nextDelay(long previousDelayMillis) {
+        long base = policy.baseDelayMillis;
+        long bound = Math.max(base, previousDelayMillis) * 3;
+        long delay = bound > base ? ThreadLocalRandom.current().nextLong(base, bound) : base;
+        return Math.min(policy.maxDelayMillis, delay);
+    }
+
+    private static boolean isIdempotent(Request request) {
+        return "GET".equals(request.method()) || request.tag() instanceof IdempotentRequest;
+    }
+
+    private static boolean isRetryable(Response response) {
+        switch (response.code()) {
+            case HttpURLConnection.HTTP_INTERNAL_ERROR:
+            case HTTP_BAD_GATEWAY:
+            case HttpURLConnection.HTTP_UNAVAILABLE:
+            case HttpURLConnection.HTTP_GATEWAY_TIMEOUT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isRetryable(IOException exception) {
+        if (exception instanceof RateLimitExceededException || exception instanceof CircuitBreakerOpenException) {
+            return false;
+        }
+        if (exception instanceof InterruptedIOException) {
+            return exception instanceof SocketTimeoutException;
+        }
+        // OkHttp reports canceled calls this way
+        return !"Canceled".equals(exception.getMessage());
+    }
+
+    /**
+     * Allows a fraction of a retry for every request. The balance is stored in thousandths of a retry.
+     */
+    private static final class RetryBudget {
+
+        private static final long SCALE = 1000L;
+
+        private final AtomicLong balance;
+        private final long deposit;
+        private final long capacity;
+
+        RetryBudget(double ratio, int reserve) {
+            deposit = (long) (ratio * SCALE);
+            capacity = Math.max(reserve, 1) * SCALE;
+            balance = new AtomicLong(reserve * SCALE);
+        }
+
+        void deposit() {
+            while (true) {
+                long current = balance.get();
+                long next = Math.min(capacity, current + deposit);
+                if (next == current || balance.compareAndSet(current, next)) {
+                    return;
+                }
+            }
+        }
+
+        boolean tryWithdraw() {
+            while (true) {
+                long current = balance.get();
+                if (current < SCALE) {
+                    return false;
+                }
+                if (balance.compareAndSet(current, current - SCALE)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net.clients;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retry policy of {@link DefaultApiClient}. Only idempotent requests are retried: requests with
+ * {@link com.yandex.money.api.net.ApiRequest.Method#GET} method and requests implementing
+ * {@link com.yandex.money.api.net.IdempotentRequest}. A request is retried on I/O errors and on HTTP status codes
+ * 500, 502, 503 and 504.
+ * <p/>
+ * Delays between attempts are chosen with decorrelated jitter: each delay is a random value between
+ * {@link #baseDelayMillis} and three times the previous delay, but not greater than {@link #maxDelayMillis}. Retries
+ * are also limited by a retry budget: every request adds {@link #budgetRatio} of a retry to the budget and every retry
+ * takes one, so when the server is down retries add at most {@link #budgetRatio} of extra traffic. To create an
+ * instance of this class use {@link RetryPolicy.Builder}.
+ */
+public final class RetryPolicy {
+
+    /**
+     * Default policy.
+     */
+    public static final RetryPolicy DEFAULT = new Builder().create();
+
+    /**
+     * Maximum number of retries of a single request.
+     */
+    public final int maxRetries;
+
+    /**
+     * Minimum delay between attempts in milliseconds.
+     */
+    public final long baseDelayMillis;
+
+    /**
+     * Maximum delay between attempts in milliseconds.
+     */
+    public final long maxDelayMillis;
+
+    /**
+     * Ratio of retries to requests.
+     */
+    public final double budgetRatio;
+
+    /**
+     * Number of retries that are allowed regardless of the ratio. Also the maximum number of retries that the budget
+     * can accumulate.
+     */
+    public final int budgetReserve;
+
+    RetryPolicy(Builder builder) {
+        if (builder.maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries < 0: " + builder.maxRetries);
+        }
+        if (builder.baseDelayMillis < 0) {
+            throw new IllegalArgumentException("baseDelay < 0: " + builder.baseDelayMillis);
+        }
+        if (builder.maxDelayMillis < builder.baseDelayMillis) {
+            throw new IllegalArgumentException("maxDelay < baseDelay: " + builder.maxDelayMillis);
+        }
+        if (builder.budgetRatio < 0) {
+            throw new IllegalArgumentException("budgetRatio < 0: " + builder.budgetRatio);
+        }
+        if (builder.budgetReserve < 0) {
+            throw new IllegalArgumentException("budgetReserve < 0: " + builder.budgetReserve);
+        }
+        maxRetries = builder.maxRetries;
+        baseDelayMillis = builder.baseDelayMillis;
+        maxDelayMillis = builder.maxDelayMillis;
+        budgetRatio = builder.budgetRatio;
+        budgetReserve = builder.budgetReserve;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryPolicy{" +
+                "maxRetries=" + maxRetries +
+                ", baseDelayMillis=" + baseDelayMillis +
+                ", maxDelayMillis=" + maxDelayMillis +
+                ", budgetRatio=" + budgetRatio +
+                ", budgetReserve=" + budgetReserve +
+                '}';
+    }
+
+    /**
+     * Builder for {@link RetryPolicy}.
+     */
+    public static final class Builder {
+
+        int maxRetries = 3;
+        long baseDelayMillis = 100;
+        long maxDelayMillis = TimeUnit.SECONDS.toMillis(10);
+        double budgetRatio = 0.1;
+        int budgetReserve = 10;
+
+        /**
+         * Sets maximum number of retries of a single request. Default value is 3.
+         *
+         * @param maxRetries maximum number of retries
+         * @return itself
+         */
+        public Builder setMaxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Sets minimum delay between attempts. Default value is 100 milliseconds.
+         *
+         * @param delay delay
+         * @param unit time unit of the {@code delay}
+         * @return itself
+         */
+        public Builder setBaseDelay(long delay, TimeUnit unit) {
+            this.baseDelayMillis = unit.toMillis(delay);
+            return this;
+        }
+
+        /**
+         * Sets maximum delay between attempts. Default value is 10 seconds.
+         *
+         * @param delay delay
+         * @param unit time unit of the {@code delay}
+         * @return itself
+         */
+        public Builder setMaxDelay(long delay, TimeUnit unit) {
+            this.maxDelayMillis = unit.toMillis(delay);
+            return this;
+        }
+
+        /**
+         * Sets retry budget. Default values are 0.1 (10% of traffic) and 10 retries.
+         *
+         * @param ratio ratio of retries to requests
+         * @param reserve number of retries that are allowed regardless of the ratio
+         * @return itself
+         */
+        public Builder setBudget(double ratio, int reserve) {
+            this.budgetRatio = ratio;
+            this.budgetReserve = reserve;
+            return this;
+        }
+
+        /**
+         * Creates instance of {@link RetryPolicy}.
+         *
+         * @return retry policy
+         */
+        public RetryPolicy create() {
+            return new RetryPolicy(this);
+        }
+    }
+}
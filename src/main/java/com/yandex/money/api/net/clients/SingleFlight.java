@@ -0,0 +1,87 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net.clients;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Coalesces concurrent identical calls: while a call for a key is in flight, other calls for the same key wait for it
+ * and get the same result or the same exception instead of being executed.
+ */
+final class SingleFlight {
+
+    private final ConcurrentMap<String, Flight> flights = new ConcurrentHashMap<>();
+
+    /**
+     * Executes a call or joins a call for the same key that is in flight.
+     *
+     * @param key key of a call
+     * @param callable call to execute
+     * @param <T> type of result
+     * @return result of a call
+     * @throws Exception if call failed
+     */
+    @SuppressWarnings("unchecked")
+    <T> T execute(String key, Callable<T> callable) throws Exception {
+        Flight flight = new Flight();
+        Flight current = flights.putIfAbsent(key, flight);
+        if (current != null) {
+            return (T) current.await();
+        }
+
+        try {
+            flight.result = callable.call();
+        } catch (Exception e) {
+            flight.exception = e;
+        } catch (Error e) {
+            flight.exception = new IllegalStateException("coalesced call failed", e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+            flight.latch.countDown();
+        }
+        return (T) flight.await();
+    }
+
+    private static final class Flight {
+
+        final CountDownLatch latch = new CountDownLatch(1);
+
+        Object result;
+        Exception exception;
+
+        Object await() throws Exception {
+            latch.await();
+            if (exception != null) {
+                throw exception;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net.clients;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. Implemented as generic cell rate algorithm: the only state is theoretical arrival time of the
+ * next permit, so acquiring a permit is a single CAS.
+ */
+final class TokenBucket {
+
+    private final AtomicLong theoreticalArrivalTime;
+    private final long intervalNanos;
+    private final long capacityNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param permitsPerSecond rate of permits
+     * @param burst maximum number of permits that can be acquired at once
+     */
+    TokenBucket(double permitsPerSecond, int burst) {
+        intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        capacityNanos = intervalNanos * burst;
+        theoreticalArrivalTime = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Acquires a permit if it is available immediately.
+     *
+     * @return {@code true} if permit is acquired
+     */
+    boolean tryAcquire() {
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrivalTime.get();
+            long newTat = Math.max(tat, now) + intervalNanos;
+            if (newTat - now > capacityNanos) {
+                return false;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, newTat)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Reserves a permit.
+     *
+     * @return time in nanoseconds to wait until the permit is available
+     */
+    long reserve() {
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrivalTime.get();
+            long newTat = Math.max(tat, now) + intervalNanos;
+            if (theoreticalArrivalTime.compareAndSet(tat, newTat)) {
+                return Math.max(0L, newTat - now - capacityNanos);
+            }
+        }
+    }
+
+    /**
+     * Returns previously acquired permit.
+     */
+    void release() {
+        theoreticalArrivalTime.addAndGet(-intervalNanos);
+    }
+
+    /**
+     * @return {@code true} if bucket is full, so it is in the same state as a newly created one
+     */
+    boolean isFull() {
+        return theoreticalArrivalTime.get() <= System.nanoTime();
+    }
+}
@@ -24,34 +24,29 @@
 
 package com.yandex.money.api.typeadapters;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
-import com.google.gson.JsonPrimitive;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import com.yandex.money.api.time.DateTime;
 import com.yandex.money.api.time.Iso8601Format;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 import java.text.ParseException;
 
-final class DateTimeTypeAdapter implements JsonSerializer<DateTime>, JsonDeserializer<DateTime> {
+final class DateTimeTypeAdapter extends TypeAdapter<DateTime> {
 
     @Override
-    public DateTime deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
-            throws JsonParseException {
+    public void write(JsonWriter out, DateTime value) throws IOException {
+        out.value(Iso8601Format.format(value));
+    }
 
+    @Override
+    public DateTime read(JsonReader in) throws IOException {
         try {
-            return Iso8601Format.parse(json.getAsString());
+            return Iso8601Format.parse(in.nextString());
         } catch (ParseException e) {
             throw new JsonParseException(e);
         }
     }
-
-    @Override
-    public JsonElement serialize(DateTime src, Type typeOfSrc, JsonSerializationContext context) {
-        return new JsonPrimitive(Iso8601Format.format(src));
-    }
 }
@@ -28,45 +28,70 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.yandex.money.api.time.DateTime;
 import com.yandex.money.api.time.YearMonth;
+import com.yandex.money.api.typeadapters.model.ModelTypeAdapterFactory;
 
 import java.lang.reflect.Type;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Provides a single GSON instance to serialize / deserialize any object within this SDK.
+ * <p/>
+ * The instance is immutable and published through a volatile reference, so {@link #getGson()} does not lock. It is
+ * rebuilt lazily after a new type adapter has been registered.
  */
 public final class GsonProvider {
 
+    private static final Object LOCK = new Object();
     private static final GsonBuilder BUILDER = new GsonBuilder();
+    private static final Map<Type, Object> TYPE_ADAPTERS = new HashMap<>();
+
     static {
-        BUILDER.registerTypeAdapter(DateTime.class, new DateTimeTypeAdapter());
+        BUILDER.registerTypeAdapter(DateTime.class, new DateTimeTypeAdapter().nullSafe());
+        // generated adapters go first, so hand-written ones registered after them take precedence
+        BUILDER.registerTypeAdapterFactory(new GeneratedTypeAdapterFactory());
+        BUILDER.registerTypeAdapterFactory(new ModelTypeAdapterFactory());
         BUILDER.registerTypeAdapter(YearMonth.class, new YearMonthTypeAdapter());
     }
 
-    private static Gson gson = BUILDER.create();
-    private static boolean hasNewTypeAdapter = false;
+    private static volatile Gson gson;
 
     /**
      * Gets actual instance of GSON. If necessary rebuilds it to add new type adapters.
      *
      * @return instance of GSON
      */
-    public static synchronized Gson getGson() {
-        if (hasNewTypeAdapter) {
-            gson = BUILDER.create();
-            hasNewTypeAdapter = false;
-        }
-        return gson;
+    public static Gson getGson() {
+        Gson result = gson;
+        return result == null ? rebuild() : result;
     }
 
     /**
-     * Registers type adapter to use with GSON instance.
+     * Registers type adapter to use with GSON instance. Registration of the same type adapter for the same type more
+     * than once has no effect.
      *
      * @param type type for which the type adapter is registered
      * @param typeAdapter type adapter
      */
     @SuppressWarnings("WeakerAccess")
-    public static synchronized void registerTypeAdapter(Type type, Object typeAdapter) {
-        BUILDER.registerTypeAdapter(type, typeAdapter);
-        hasNewTypeAdapter = true;
+    public static void registerTypeAdapter(Type type, Object typeAdapter) {
+        synchronized (LOCK) {
+            if (TYPE_ADAPTERS.get(type) != typeAdapter) {
+                BUILDER.registerTypeAdapter(type, typeAdapter);
+                TYPE_ADAPTERS.put(type, typeAdapter);
+                gson = null;
+            }
+        }
+    }
+
+    private static Gson rebuild() {
+        synchronized (LOCK) {
+            Gson result = gson;
+            if (result == null) {
+                result = BUILDER.create();
+                gson = result;
+            }
+            return result;
+        }
     }
 }
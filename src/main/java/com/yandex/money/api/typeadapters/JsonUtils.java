@@ -34,6 +34,7 @@ import com.yandex.money.api.time.Iso8601Format;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.math.BigDecimal;
 import java.nio.charset.Charset;
@@ -228,16 +229,36 @@ public final class JsonUtils {
      */
     public static byte[] getBytes(JsonElement element) {
         ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        JsonWriter writer = new JsonWriter(new OutputStreamWriter(stream, Charset.forName("UTF-8")));
-        GsonProvider.getGson().toJson(checkNotNull(element, "element"), writer);
         try {
-            writer.close();
+            writeTo(element, stream);
         } catch (IOException e) {
             throw new JsonIOException(e);
         }
         return stream.toByteArray();
     }
 
+    /**
+     * Writes JSON element to a stream using UTF-8 charset. The stream is flushed but not closed.
+     *
+     * @param element JSON element
+     * @param stream stream to write to
+     * @throws IOException if stream fails to write
+     */
+    public static void writeTo(JsonElement element, OutputStream stream) throws IOException {
+        checkNotNull(element, "element");
+        JsonWriter writer = new JsonWriter(new OutputStreamWriter(checkNotNull(stream, "stream"),
+                Charset.forName("UTF-8")));
+        try {
+            GsonProvider.getGson().toJson(element, writer);
+        } catch (JsonIOException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+        writer.flush();
+    }
+
     private static JsonPrimitive getPrimitiveChecked(JsonObject object, String memberName) {
         JsonElement element = checkObject(object).get(checkMemberName(memberName));
         return element == null || element.isJsonNull() ? null : element.getAsJsonPrimitive();
@@ -0,0 +1,119 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.typeadapters.model;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.yandex.money.api.methods.wallet.AccountInfo;
+import com.yandex.money.api.model.AccountStatus;
+import com.yandex.money.api.model.AccountType;
+import com.yandex.money.api.model.BalanceDetails;
+import com.yandex.money.api.model.Currency;
+
+import java.io.IOException;
+
+import static com.yandex.money.api.typeadapters.model.JsonStreams.nextBigDecimal;
+import static com.yandex.money.api.typeadapters.model.JsonStreams.nextString;
+
+/**
+ * Streaming type adapter for {@link AccountInfo}.
+ */
+final class AccountInfoTypeAdapter extends TypeAdapter<AccountInfo> {
+
+    private final ReflectiveModelFactory<AccountInfo> reflectiveFactory =
+            new ReflectiveModelFactory<>(AccountInfo.class, AccountInfo.Builder.class);
+    private final TypeAdapter<Currency> currencyAdapter = new NumericCurrencyTypeAdapter().nullSafe();
+    private final TypeAdapter<AccountStatus> accountStatusAdapter;
+    private final TypeAdapter<AccountType> accountTypeAdapter;
+    private final TypeAdapter<BalanceDetails> balanceDetailsAdapter;
+
+    AccountInfoTypeAdapter(Gson gson) {
+        accountStatusAdapter = gson.getAdapter(AccountStatus.class);
+        accountTypeAdapter = gson.getAdapter(AccountType.class);
+        balanceDetailsAdapter = gson.getAdapter(BalanceDetails.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, AccountInfo value) throws IOException {
+        out.beginObject();
+        out.name("account").value(value.account);
+        out.name("balance").value(value.balance);
+        out.name("currency");
+        currencyAdapter.write(out, value.currency);
+        out.name("account_status");
+        accountStatusAdapter.write(out, value.accountStatus);
+        out.name("account_type");
+        accountTypeAdapter.write(out, value.accountType);
+        out.name("balance_details");
+        balanceDetailsAdapter.write(out, value.balanceDetails);
+        out.endObject();
+    }
+
+    @Override
+    public AccountInfo read(JsonReader in) throws IOException {
+        AccountInfo.Builder builder = new AccountInfo.Builder();
+        // absent fields stay empty as they do with reflective deserialization
+        builder.setBalance(null)
+                .setCurrency(null)
+                .setAccountStatus(null)
+                .setAccountType(null)
+                .setBalanceDetails(null);
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "account":
+                    builder.setAccount(nextString(in));
+                    break;
+                case "balance":
+                    builder.setBalance(nextBigDecimal(in));
+                    break;
+                case "currency":
+                    builder.setCurrency(currencyAdapter.read(in));
+                    break;
+                case "account_status":
+                    builder.setAccountStatus(accountStatusAdapter.read(in));
+                    break;
+                case "account_type":
+                    builder.setAccountType(accountTypeAdapter.read(in));
+                    break;
+                case "balance_details":
+                    builder.setBalanceDetails(balanceDetailsAdapter.read(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        try {
+            return builder.create();
+        } catch (RuntimeException e) {
+            // required fields are absent
+            return reflectiveFactory.create(builder);
+        }
+    }
+}
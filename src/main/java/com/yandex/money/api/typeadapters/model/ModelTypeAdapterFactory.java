@@ -0,0 +1,68 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.typeadapters.model;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.yandex.money.api.methods.payment.ProcessPayment;
+import com.yandex.money.api.methods.payment.RequestPayment;
+import com.yandex.money.api.methods.wallet.AccountInfo;
+import com.yandex.money.api.methods.wallet.OperationDetails;
+import com.yandex.money.api.methods.wallet.OperationHistory;
+import com.yandex.money.api.model.Operation;
+
+/**
+ * Creates streaming type adapters for frequently parsed responses. These adapters read and write JSON directly
+ * using {@link com.google.gson.stream.JsonReader} and {@link com.google.gson.stream.JsonWriter} without
+ * reflection and produce the same JSON as reflective serialization does.
+ */
+public final class ModelTypeAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        TypeAdapter<?> typeAdapter;
+        if (rawType == Operation.class) {
+            typeAdapter = new OperationTypeAdapter(gson);
+        } else if (rawType == OperationDetails.class) {
+            typeAdapter = new OperationDetailsTypeAdapter(gson);
+        } else if (rawType == OperationHistory.class) {
+            typeAdapter = new OperationHistoryTypeAdapter(gson);
+        } else if (rawType == AccountInfo.class) {
+            typeAdapter = new AccountInfoTypeAdapter(gson);
+        } else if (rawType == RequestPayment.class) {
+            typeAdapter = new RequestPaymentTypeAdapter(gson);
+        } else if (rawType == ProcessPayment.class) {
+            typeAdapter = new ProcessPaymentTypeAdapter(gson);
+        } else {
+            return null;
+        }
+        return (TypeAdapter<T>) typeAdapter.nullSafe();
+    }
+}
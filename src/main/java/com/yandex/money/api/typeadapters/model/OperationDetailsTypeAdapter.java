@@ -0,0 +1,74 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.typeadapters.model;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.yandex.money.api.methods.wallet.OperationDetails;
+import com.yandex.money.api.model.Error;
+
+import java.io.IOException;
+
+/**
+ * Streaming type adapter for {@link OperationDetails}.
+ */
+final class OperationDetailsTypeAdapter extends TypeAdapter<OperationDetails> {
+
+    private final OperationTypeAdapter operationAdapter;
+    private final TypeAdapter<Error> errorAdapter;
+
+    OperationDetailsTypeAdapter(Gson gson) {
+        operationAdapter = new OperationTypeAdapter(gson);
+        errorAdapter = gson.getAdapter(Error.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, OperationDetails value) throws IOException {
+        out.beginObject();
+        out.name("error");
+        errorAdapter.write(out, value.error);
+        operationAdapter.writeFields(out, value);
+        out.endObject();
+    }
+
+    @Override
+    public OperationDetails read(JsonReader in) throws IOException {
+        OperationDetails.Builder builder = OperationTypeAdapter.newBuilder(new OperationDetails.Builder());
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if ("error".equals(name)) {
+                builder.setError(errorAdapter.read(in));
+            } else if (!operationAdapter.readField(in, name, builder)) {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return builder.create();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.typeadapters.model;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.yandex.money.api.methods.wallet.OperationHistory;
+import com.yandex.money.api.model.Error;
+import com.yandex.money.api.model.Operation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.yandex.money.api.typeadapters.model.JsonStreams.nextString;
+
+/**
+ * Streaming type adapter for {@link OperationHistory}. Operations are read one by one straight from the stream.
+ */
+final class OperationHistoryTypeAdapter extends TypeAdapter<OperationHistory> {
+
+    private final TypeAdapter<Error> errorAdapter;
+    private final TypeAdapter<Operation> operationAdapter;
+
+    OperationHistoryTypeAdapter(Gson gson) {
+        errorAdapter = gson.getAdapter(Error.class);
+        operationAdapter = gson.getAdapter(Operation.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, OperationHistory value) throws IOException {
+        out.beginObject();
+        out.name("error");
+        errorAdapter.write(out, value.error);
+        out.name("next_record").value(value.nextRecord);
+        if (value.operations != null) {
+            out.name("operations").beginArray();
+            for (Operation operation : value.operations) {
+                operationAdapter.write(out, operation);
+            }
+            out.endArray();
+        }
+        out.endObject();
+    }
+
+    @Override
+    public OperationHistory read(JsonReader in) throws IOException {
+        Error error = null;
+        String nextRecord = null;
+        List<Operation> operations = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "error":
+                    error = errorAdapter.read(in);
+                    break;
+                case "next_record":
+                    nextRecord = nextString(in);
+                    break;
+                case "operations":
+                    operations = readOperations(in);
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        return new OperationHistory(error, nextRecord, operations);
+    }
+
+    private List<Operation> readOperations(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        List<Operation> operations = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            operations.add(operationAdapter.read(in));
+        }
+        in.endArray();
+        return operations;
+    }
+}
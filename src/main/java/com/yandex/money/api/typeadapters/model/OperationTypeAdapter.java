@@ -0,0 +1,254 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.typeadapters.model;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.yandex.money.api.model.DigitalGoods;
+import com.yandex.money.api.model.Operation;
+import com.yandex.money.api.model.OperationStatus;
+import com.yandex.money.api.model.PayeeIdentifierType;
+import com.yandex.money.api.model.showcase.ShowcaseReference;
+import com.yandex.money.api.time.DateTime;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static com.yandex.money.api.typeadapters.model.JsonStreams.nextBigDecimal;
+import static com.yandex.money.api.typeadapters.model.JsonStreams.nextBoolean;
+import static com.yandex.money.api.typeadapters.model.JsonStreams.nextString;
+
+/**
+ * Streaming type adapter for {@link Operation}.
+ */
+final class OperationTypeAdapter extends TypeAdapter<Operation> {
+
+    private final TypeAdapter<OperationStatus> statusAdapter;
+    private final TypeAdapter<Operation.Direction> directionAdapter;
+    private final TypeAdapter<DateTime> dateTimeAdapter;
+    private final TypeAdapter<PayeeIdentifierType> recipientTypeAdapter;
+    private final TypeAdapter<Map<String, String>> paymentParametersAdapter;
+    private final TypeAdapter<Operation.Type> typeAdapter;
+    private final TypeAdapter<DigitalGoods> digitalGoodsAdapter;
+    private final TypeAdapter<List<Integer>> categoriesAdapter;
+    private final TypeAdapter<ShowcaseReference.Format> formatAdapter;
+
+    OperationTypeAdapter(Gson gson) {
+        statusAdapter = gson.getAdapter(OperationStatus.class);
+        directionAdapter = gson.getAdapter(Operation.Direction.class);
+        dateTimeAdapter = gson.getAdapter(DateTime.class);
+        recipientTypeAdapter = gson.getAdapter(PayeeIdentifierType.class);
+        paymentParametersAdapter = gson.getAdapter(new TypeToken<Map<String, String>>() {});
+        typeAdapter = gson.getAdapter(Operation.Type.class);
+        digitalGoodsAdapter = gson.getAdapter(DigitalGoods.class);
+        categoriesAdapter = gson.getAdapter(new TypeToken<List<Integer>>() {});
+        formatAdapter = gson.getAdapter(ShowcaseReference.Format.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, Operation value) throws IOException {
+        out.beginObject();
+        writeFields(out, value);
+        out.endObject();
+    }
+
+    @Override
+    public Operation read(JsonReader in) throws IOException {
+        Operation.Builder builder = newBuilder(new Operation.Builder());
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (!readField(in, name, builder)) {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return builder.create();
+    }
+
+    /**
+     * Clears builder's defaults, so absent fields stay {@code null} as they do with reflective deserialization.
+     *
+     * @param builder builder to prepare
+     * @return the same builder
+     */
+    static <T extends Operation.Builder> T newBuilder(T builder) {
+        builder.setAmount(null)
+                .setDatetime(null)
+                .setPaymentParameters(null)
+                .setCategories(null);
+        return builder;
+    }
+
+    /**
+     * Reads value of a field of {@link Operation}.
+     *
+     * @param in reader positioned at field's value
+     * @param name field's name
+     * @param builder builder to put value into
+     * @return {@code true} if field is known and its value was consumed
+     */
+    boolean readField(JsonReader in, String name, Operation.Builder builder) throws IOException {
+        switch (name) {
+            case "operation_id":
+                builder.setOperationId(nextString(in));
+                break;
+            case "status":
+                builder.setStatus(statusAdapter.read(in));
+                break;
+            case "pattern_id":
+                builder.setPatternId(nextString(in));
+                break;
+            case "direction":
+                builder.setDirection(directionAdapter.read(in));
+                break;
+            case "amount":
+                builder.setAmount(nextBigDecimal(in));
+                break;
+            case "amount_due":
+                builder.setAmountDue(nextBigDecimal(in));
+                break;
+            case "fee":
+                builder.setFee(nextBigDecimal(in));
+                break;
+            case "datetime":
+                builder.setDatetime(dateTimeAdapter.read(in));
+                break;
+            case "title":
+                builder.setTitle(nextString(in));
+                break;
+            case "sender":
+                builder.setSender(nextString(in));
+                break;
+            case "recipient":
+                builder.setRecipient(nextString(in));
+                break;
+            case "recipient_type":
+                builder.setRecipientType(recipientTypeAdapter.read(in));
+                break;
+            case "message":
+                builder.setMessage(nextString(in));
+                break;
+            case "comment":
+                builder.setComment(nextString(in));
+                break;
+            case "codepro":
+                builder.setCodepro(nextBoolean(in));
+                break;
+            case "protection_code":
+                builder.setProtectionCode(nextString(in));
+                break;
+            case "expires":
+                builder.setExpires(dateTimeAdapter.read(in));
+                break;
+            case "answer_datetime":
+                builder.setAnswerDatetime(dateTimeAdapter.read(in));
+                break;
+            case "label":
+                builder.setLabel(nextString(in));
+                break;
+            case "details":
+                builder.setDetails(nextString(in));
+                break;
+            case "repeatable":
+                builder.setRepeatable(nextBoolean(in));
+                break;
+            case "payment_parameters":
+                builder.setPaymentParameters(paymentParametersAdapter.read(in));
+                break;
+            case "favourite":
+                builder.setFavorite(nextBoolean(in));
+                break;
+            case "type":
+                builder.setType(typeAdapter.read(in));
+                break;
+            case "digital_goods":
+                builder.setDigitalGoods(digitalGoodsAdapter.read(in));
+                break;
+            case "categories":
+                builder.setCategories(categoriesAdapter.read(in));
+                break;
+            case "showcase_format":
+                builder.setFormat(formatAdapter.read(in));
+                break;
+            default:
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Writes fields of {@link Operation} in declaration order. Writer drops {@code null} values unless it is
+     * configured to serialize them.
+     *
+     * @param out writer positioned inside of an object
+     * @param value operation to write
+     */
+    void writeFields(JsonWriter out, Operation value) throws IOException {
+        out.name("operation_id").value(value.operationId);
+        out.name("status");
+        statusAdapter.write(out, value.status);
+        out.name("pattern_id").value(value.patternId);
+        out.name("direction");
+        directionAdapter.write(out, value.direction);
+        out.name("amount").value(value.amount);
+        out.name("amount_due").value(value.amountDue);
+        out.name("fee").value(value.fee);
+        out.name("datetime");
+        dateTimeAdapter.write(out, value.datetime);
+        out.name("title").value(value.title);
+        out.name("sender").value(value.sender);
+        out.name("recipient").value(value.recipient);
+        out.name("recipient_type");
+        recipientTypeAdapter.write(out, value.recipientType);
+        out.name("message").value(value.message);
+        out.name("comment").value(value.comment);
+        out.name("codepro").value(value.codepro);
+        out.name("protection_code").value(value.protectionCode);
+        out.name("expires");
+        dateTimeAdapter.write(out, value.expires);
+        out.name("answer_datetime");
+        dateTimeAdapter.write(out, value.answerDatetime);
+        out.name("label").value(value.label);
+        out.name("details").value(value.details);
+        out.name("repeatable").value(value.repeatable);
+        out.name("payment_parameters");
+        paymentParametersAdapter.write(out, value.paymentParameters);
+        out.name("favourite").value(value.favorite);
+        out.name("type");
+        typeAdapter.write(out, value.type);
+        out.name("digital_goods");
+        digitalGoodsAdapter.write(out, value.digitalGoods);
+        out.name("categories");
+        categoriesAdapter.write(out, value.categories);
+        out.name("showcase_format");
+        formatAdapter.write(out, value.showcaseFormat);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.typeadapters.model;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.yandex.money.api.methods.payment.BaseProcessPayment;
+import com.yandex.money.api.methods.payment.ProcessPayment;
+import com.yandex.money.api.model.DigitalGoods;
+import com.yandex.money.api.model.Error;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static com.yandex.money.api.typeadapters.model.JsonStreams.nextBigDecimal;
+import static com.yandex.money.api.typeadapters.model.JsonStreams.nextLong;
+import static com.yandex.money.api.typeadapters.model.JsonStreams.nextString;
+
+/**
+ * Streaming type adapter for {@link ProcessPayment}.
+ */
+final class ProcessPaymentTypeAdapter extends TypeAdapter<ProcessPayment> {
+
+    private final ReflectiveModelFactory<ProcessPayment> reflectiveFactory =
+            new ReflectiveModelFactory<>(ProcessPayment.class, ProcessPayment.Builder.class);
+    private final TypeAdapter<DigitalGoods> digitalGoodsAdapter;
+    private final TypeAdapter<BaseProcessPayment.Status> statusAdapter;
+    private final TypeAdapter<Error> errorAdapter;
+    private final TypeAdapter<Map<String, String>> acsParamsAdapter;
+
+    ProcessPaymentTypeAdapter(Gson gson) {
+        digitalGoodsAdapter = gson.getAdapter(DigitalGoods.class);
+        statusAdapter = gson.getAdapter(BaseProcessPayment.Status.class);
+        errorAdapter = gson.getAdapter(Error.class);
+        acsParamsAdapter = gson.getAdapter(new TypeToken<Map<String, String>>() {});
+    }
+
+    @Override
+    public void write(JsonWriter out, ProcessPayment value) throws IOException {
+        out.beginObject();
+        out.name("payment_id").value(value.paymentId);
+        out.name("balance").value(value.balance);
+        out.name("payer").value(value.payer);
+        out.name("payee").value(value.payee);
+        out.name("credit_amount").value(value.creditAmount);
+        out.name("account_unblock_uri").value(value.accountUnblockUri);
+        out.name("payee_uid").value(value.payeeUid);
+        out.name("hold_for_pickup_link").value(value.holdForPickupLink);
+        out.name("digital_goods");
+        digitalGoodsAdapter.write(out, value.digitalGoods);
+        out.name("status");
+        statusAdapter.write(out, value.status);
+        out.name("error");
+        errorAdapter.write(out, value.error);
+        out.name("invoice_id").value(value.invoiceId);
+        out.name("acs_uri").value(value.acsUri);
+        out.name("acs_params");
+        acsParamsAdapter.write(out, value.acsParams);
+        out.name("next_retry").value(value.nextRetry);
+        out.endObject();
+    }
+
+    @Override
+    public ProcessPayment read(JsonReader in) throws IOException {
+        ProcessPayment.Builder builder = new ProcessPayment.Builder();
+        // absent fields stay empty as they do with reflective deserialization
+        builder.setAcsParams(null);
+        builder.setNextRetry(0L);
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "payment_id":
+                    builder.setPaymentId(nextString(in));
+                    break;
+                case "balance":
+                    builder.setBalance(nextBigDecimal(in));
+                    break;
+                case "payer":
+                    builder.setPayer(nextString(in));
+                    break;
+                case "payee":
+                    builder.setPayee(nextString(in));
+                    break;
+                case "credit_amount":
+                    builder.setCreditAmount(nextBigDecimal(in));
+                    break;
+                case "account_unblock_uri":
+                    builder.setAccountUnblockUri(nextString(in));
+                    break;
+                case "payee_uid":
+                    builder.setPayeeUid(nextString(in));
+                    break;
+                case "hold_for_pickup_link":
+                    builder.setHoldForPickupLink(nextString(in));
+                    break;
+                case "digital_goods":
+                    builder.setDigitalGoods(digitalGoodsAdapter.read(in));
+                    break;
+                case "status":
+                    builder.setStatus(statusAdapter.read(in));
+                    break;
+                case "error":
+                    builder.setError(errorAdapter.read(in));
+                    break;
+                case "invoice_id":
+                    builder.setInvoiceId(nextString(in));
+                    break;
+                case "acs_uri":
+                    builder.setAcsUri(nextString(in));
+                    break;
+                case "acs_params":
+                    builder.setAcsParams(acsParamsAdapter.read(in));
+                    break;
+                case "next_retry":
+                    Long nextRetry = nextLong(in);
+                    if (nextRetry != null) {
+                        builder.setNextRetry(nextRetry);
+                    }
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        try {
+            return builder.create();
+        } catch (RuntimeException e) {
+            // required fields are absent
+            return reflectiveFactory.create(builder);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.typeadapters.model;
+
+import com.google.gson.InstanceCreator;
+import com.google.gson.JsonIOException;
+import com.google.gson.internal.ConstructorConstructor;
+import com.google.gson.internal.ObjectConstructor;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Creates models from their builders bypassing validation of constructors. An instance is allocated the same way
+ * GSON's reflective adapter does it and its fields are copied from builder's fields of the same names.
+ * <p/>
+ * Streaming adapters use it for documents that lack fields required by model's constructor: reflective
+ * deserialization accepted such documents leaving those fields {@code null}, and so do streaming adapters.
+ *
+ * @param <T> type of model
+ */
+final class ReflectiveModelFactory<T> {
+
+    private final ObjectConstructor<T> constructor;
+    private final List<Field> modelFields = new ArrayList<>();
+    private final List<Field> builderFields = new ArrayList<>();
+
+    ReflectiveModelFactory(Class<T> type, Class<?> builderType) {
+        constructor = new ConstructorConstructor(Collections.<Type, InstanceCreator<?>>emptyMap())
+                .get(TypeToken.get(type));
+        for (Class<?> cls = type; cls != Object.class; cls = cls.getSuperclass()) {
+            for (Field field : cls.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                    modelFields.add(accessible(field));
+                    builderFields.add(accessible(findField(builderType, field.getName())));
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates model from builder's values as is.
+     *
+     * @param builder builder of the model
+     * @return model
+     */
+    T create(Object builder) {
+        T model = constructor.construct();
+        try {
+            for (int i = 0; i < modelFields.size(); ++i) {
+                modelFields.get(i).set(model, builderFields.get(i).get(builder));
+            }
+        } catch (IllegalAccessException e) {
+            throw new JsonIOException(e);
+        }
+        return model;
+    }
+
+    private static Field findField(Class<?> type, String name) {
+        for (Class<?> cls = type; cls != Object.class; cls = cls.getSuperclass()) {
+            try {
+                return cls.getDeclaredField(name);
+            } catch (NoSuchFieldException e) {
+                // look up in superclass
+            }
+        }
+        throw new IllegalArgumentException("builder " + type.getName() + " has no field " + name);
+    }
+
+    private static Field accessible(Field field) {
+        field.setAccessible(true);
+        return field;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.typeadapters.model;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.yandex.money.api.methods.payment.BaseRequestPayment;
+import com.yandex.money.api.methods.payment.RequestPayment;
+import com.yandex.money.api.model.AccountStatus;
+import com.yandex.money.api.model.AccountType;
+import com.yandex.money.api.model.Error;
+import com.yandex.money.api.model.Fees;
+
+import java.io.IOException;
+
+import static com.yandex.money.api.typeadapters.model.JsonStreams.nextBigDecimal;
+import static com.yandex.money.api.typeadapters.model.JsonStreams.nextBoolean;
+import static com.yandex.money.api.typeadapters.model.JsonStreams.nextString;
+
+/**
+ * Streaming type adapter for {@link RequestPayment}.
+ */
+final class RequestPaymentTypeAdapter extends TypeAdapter<RequestPayment> {
+
+    private final ReflectiveModelFactory<RequestPayment> reflectiveFactory =
+            new ReflectiveModelFactory<>(RequestPayment.class, RequestPayment.Builder.class);
+    private final TypeAdapter<RequestPayment.MoneySource> moneySourceAdapter;
+    private final TypeAdapter<AccountStatus> accountStatusAdapter;
+    private final TypeAdapter<AccountType> accountTypeAdapter;
+    private final TypeAdapter<BaseRequestPayment.Status> statusAdapter;
+    private final TypeAdapter<Error> errorAdapter;
+    private final TypeAdapter<Fees> feesAdapter;
+
+    RequestPaymentTypeAdapter(Gson gson) {
+        moneySourceAdapter = gson.getAdapter(RequestPayment.MoneySource.class);
+        accountStatusAdapter = gson.getAdapter(AccountStatus.class);
+        accountTypeAdapter = gson.getAdapter(AccountType.class);
+        statusAdapter = gson.getAdapter(BaseRequestPayment.Status.class);
+        errorAdapter = gson.getAdapter(Error.class);
+        feesAdapter = gson.getAdapter(Fees.class);
+    }
+
+    @Override
+    public void write(JsonWriter out, RequestPayment value) throws IOException {
+        out.beginObject();
+        out.name("money_source");
+        moneySourceAdapter.write(out, value.moneySource);
+        out.name("balance").value(value.balance);
+        out.name("recipient_account_status");
+        accountStatusAdapter.write(out, value.recipientAccountStatus);
+        out.name("recipient_account_type");
+        accountTypeAdapter.write(out, value.recipientAccountType);
+        out.name("protection_code").value(value.protectionCode);
+        out.name("account_unblock_uri").value(value.accountUnblockUri);
+        out.name("ext_action_uri").value(value.extActionUri);
+        out.name("multiple_recipients_found").value(value.multipleRecipientsFound);
+        out.name("status");
+        statusAdapter.write(out, value.status);
+        out.name("error");
+        errorAdapter.write(out, value.error);
+        out.name("request_id").value(value.requestId);
+        out.name("contract_amount").value(value.contractAmount);
+        out.name("title").value(value.title);
+        out.name("fees");
+        feesAdapter.write(out, value.fees);
+        out.endObject();
+    }
+
+    @Override
+    public RequestPayment read(JsonReader in) throws IOException {
+        RequestPayment.Builder builder = new RequestPayment.Builder();
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "money_source":
+                    builder.setMoneySources(moneySourceAdapter.read(in));
+                    break;
+                case "balance":
+                    builder.setBalance(nextBigDecimal(in));
+                    break;
+                case "recipient_account_status":
+                    builder.setRecipientAccountStatus(accountStatusAdapter.read(in));
+                    break;
+                case "recipient_account_type":
+                    builder.setRecipientAccountType(accountTypeAdapter.read(in));
+                    break;
+                case "protection_code":
+                    builder.setProtectionCode(nextString(in));
+                    break;
+                case "account_unblock_uri":
+                    builder.setAccountUnblockUri(nextString(in));
+                    break;
+                case "ext_action_uri":
+                    builder.setExtActionUri(nextString(in));
+                    break;
+                case "multiple_recipients_found":
+                    builder.setMultipleRecipientsFound(nextBoolean(in));
+                    break;
+                case "status":
+                    builder.setStatus(statusAdapter.read(in));
+                    break;
+                case "error":
+                    builder.setError(errorAdapter.read(in));
+                    break;
+                case "request_id":
+                    builder.setRequestId(nextString(in));
+                    break;
+                case "contract_amount":
+                    builder.setContractAmount(nextBigDecimal(in));
+                    break;
+                case "title":
+                    builder.setTitle(nextString(in));
+                    break;
+                case "fees":
+                    builder.setFees(feesAdapter.read(in));
+                    break;
+                default:
+                    in.skipValue();
+            }
+        }
+        in.endObject();
+        try {
+            return builder.create();
+        } catch (RuntimeException e) {
+            // required fields are absent
+            return reflectiveFactory.create(builder);
+        }
+    }
+}
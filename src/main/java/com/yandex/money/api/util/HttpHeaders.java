@@ -49,19 +49,24 @@ public final class HttpHeaders {
     public static final String USER_AGENT = "User-Agent";
     public static final String WWW_AUTHENTICATE = "WWW-Authenticate";
 
-    private static final DateFormat DATE_TIME_FORMATTER =
-            new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+    private static final ThreadLocal<DateFormat> DATE_TIME_FORMATTER = new ThreadLocal<DateFormat>() {
+        @Override
+        protected DateFormat initialValue() {
+            return new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        }
+    };
 
     private HttpHeaders() {
         // prevents instantiating of this class
     }
 
     public static DateTime parseDateTime(String value) throws ParseException {
-        return DateTime.from(DATE_TIME_FORMATTER.parse(value));
+        return DateTime.from(DATE_TIME_FORMATTER.get().parse(value));
     }
 
     public static String formatDateTime(DateTime value) {
-        DATE_TIME_FORMATTER.setTimeZone(value.getTimeZone());
-        return DATE_TIME_FORMATTER.format(value.getDate());
+        DateFormat formatter = DATE_TIME_FORMATTER.get();
+        formatter.setTimeZone(value.getTimeZone());
+        return formatter.format(value.getDate());
     }
 }
@@ -0,0 +1,249 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.yandex.money.api;
+
+import com.yandex.money.api.methods.InstanceId;
+import com.yandex.money.api.methods.payment.ProcessPayment;
+import com.yandex.money.api.methods.payment.RequestExternalPayment;
+import com.yandex.money.api.methods.payment.RequestPayment;
+import com.yandex.money.api.methods.wallet.AccountInfo;
+import com.yandex.money.api.methods.wallet.IncomingTransferAccept;
+import com.yandex.money.api.methods.wallet.IncomingTransferReject;
+import com.yandex.money.api.methods.wallet.OperationDetails;
+import com.yandex.money.api.methods.wallet.OperationHistory;
+import com.yandex.money.api.model.showcase.Showcase;
+import com.yandex.money.api.net.ParametersBuffer;
+import com.yandex.money.api.time.Iso8601Format;
+import com.yandex.money.api.typeadapters.TypeAdapter;
+import com.yandex.money.api.typeadapters.model.showcase.ShowcaseTypeAdapter;
+import com.yandex.money.api.util.Responses;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Checks that hot paths do not allocate more than their budgets. Bytes per call are measured with
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)} after a warm up, so that JIT compilation and
+ * lazy initialization are not counted. The smallest of several rounds is taken: noise like deoptimization or a
+ * profile polluted by other code can only add allocations.
+ * <p/>
+ * Results depend on the state of the JVM, so these tests belong to {@value #GROUP} group which is excluded from
+ * {@code test} task and run in a JVM of its own by {@code allocationTest} task. Budgets are set from measurements
+ * of that task with some headroom; if a change makes a call allocate more, either optimize it or raise the budget
+ * consciously.
+ */
+@Test(groups = AllocationBudgetTest.GROUP)
+public class AllocationBudgetTest {
+
+    static final String GROUP = "allocation";
+
+    private static final int WARM_UP_CALLS = 5000;
+    private static final int MEASURED_CALLS = 1000;
+    private static final int ROUNDS = 5;
+
+    private com.sun.management.ThreadMXBean threadMXBean;
+    private Map<String, String> parameters;
+
+    /**
+     * Keeps results reachable, so that allocations are not eliminated.
+     */
+    private Object sink;
+
+    @BeforeClass(alwaysRun = true)
+    public void setUp() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            throw new SkipException("thread allocated memory is not available on this JVM");
+        }
+        threadMXBean = (com.sun.management.ThreadMXBean) bean;
+        if (!threadMXBean.isThreadAllocatedMemorySupported()) {
+            throw new SkipException("thread allocated memory is not supported on this JVM");
+        }
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        parameters = new LinkedHashMap<>();
+        parameters.put("to", "4100175017397");
+        parameters.put("amount", "1234.56");
+        parameters.put("comment", "Перевод средств по договору");
+        parameters.put("message", "Payment for order #42");
+        parameters.put("label", "order-42");
+    }
+
+    @Test
+    public void testParametersBuffer() throws Exception {
+        final ParametersBuffer buffer = new ParametersBuffer().setParameters(parameters);
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream(1024);
+
+        checkBudget("ParametersBuffer.prepareBytes", 1280, new Call() {
+            @Override
+            public Object call() {
+                return buffer.prepareBytes();
+            }
+        });
+        checkBudget("ParametersBuffer.prepareGet", 2304, new Call() {
+            @Override
+            public Object call() {
+                return buffer.prepareGet();
+            }
+        });
+        checkBudget("ParametersBuffer.writeTo", 128, new Call() {
+            @Override
+            public Object call() throws IOException {
+                stream.reset();
+                buffer.writeTo(stream);
+                return stream;
+            }
+        });
+    }
+
+    @Test
+    public void testRequestBody() throws Exception {
+        final RequestPayment.Request request = RequestPayment.Request.newInstance("p2p", parameters);
+        checkBudget("BaseApiRequest.getBody", 1280, new Call() {
+            @Override
+            public Object call() {
+                return request.getBody();
+            }
+        });
+
+        Map<String, String> shared = new LinkedHashMap<>(parameters);
+        Map<String, String> specific = new LinkedHashMap<>();
+        specific.put("amount", shared.remove("amount"));
+        specific.put("label", shared.remove("label"));
+        final RequestPayment.Request templateRequest = RequestPayment.Request.newTemplate("p2p", shared)
+                .newRequest(specific);
+        checkBudget("BaseApiRequest.getBody with prepared parameters", 1536, new Call() {
+            @Override
+            public Object call() {
+                return templateRequest.getBody();
+            }
+        });
+    }
+
+    @DataProvider
+    public Object[][] models() {
+        return new Object[][] {
+                { "/methods/wallet/account-info.json", AccountInfo.class, 15360 },
+                { "/methods/wallet/incoming-transfer-accept-success.json", IncomingTransferAccept.class, 14336 },
+                { "/methods/wallet/incoming-transfer-reject-success.json", IncomingTransferReject.class, 14336 },
+                { "/methods/instance-id-success.json", InstanceId.class, 15360 },
+                { "/methods/wallet/operation-details-1.json", OperationDetails.class, 31744 },
+                { "/methods/wallet/operation-history-1.json", OperationHistory.class, 27648 },
+                { "/methods/payment/process-payment-1.json", ProcessPayment.class, 16384 },
+                { "/methods/payment/request-external-payment-1.json", RequestExternalPayment.class, 16384 },
+                { "/methods/payment/request-payment-1.json", RequestPayment.class, 18432 }
+        };
+    }
+
+    @Test(dataProvider = "models")
+    public void testParseJson(String path, final Class<?> cls, int budget) throws Exception {
+        final byte[] json = load(path);
+        checkBudget("Responses.parseJson(" + cls.getSimpleName() + ")", budget, new Call() {
+            @Override
+            public Object call() {
+                return Responses.parseJson(new ByteArrayInputStream(json), cls, null);
+            }
+        });
+    }
+
+    @Test
+    public void testParseShowcase() throws Exception {
+        final byte[] json = load("/showcase/showcase_bills.json");
+        final TypeAdapter<Showcase> typeAdapter = ShowcaseTypeAdapter.getInstance();
+        checkBudget("Responses.parseJson(Showcase)", 35840, new Call() {
+            @Override
+            public Object call() {
+                return Responses.parseJson(new ByteArrayInputStream(json), null, typeAdapter);
+            }
+        });
+    }
+
+    @Test
+    public void testShowcasePaymentParameters() throws Exception {
+        final Showcase showcase = ShowcaseTypeAdapter.getInstance().fromJson(Resources.load(
+                "/showcase/showcase_bills.json"));
+        checkBudget("Showcase.getPaymentParameters", 1024, new Call() {
+            @Override
+            public Object call() {
+                return showcase.getPaymentParameters();
+            }
+        });
+    }
+
+    @Test
+    public void testIso8601Parse() throws Exception {
+        checkBudget("Iso8601Format.parse", 1024, new Call() {
+            @Override
+            public Object call() throws Exception {
+                return Iso8601Format.parse("2011-03-11T20:43:00.000+03:00");
+            }
+        });
+    }
+
+    private void checkBudget(String name, long budget, Call call) throws Exception {
+        for (int i = 0; i < WARM_UP_CALLS; ++i) {
+            sink = call.call();
+        }
+
+        long[] rounds = new long[ROUNDS];
+        long allocated = Long.MAX_VALUE;
+        for (int i = 0; i < rounds.length; ++i) {
+            rounds[i] = allocatedBytesPerCall(call);
+            allocated = Math.min(allocated, rounds[i]);
+        }
+        assertTrue(allocated <= budget, name + " allocates " + allocated + " bytes per call, budget is " + budget +
+                ", rounds: " + Arrays.toString(rounds));
+    }
+
+    private long allocatedBytesPerCall(Call call) throws Exception {
+        long threadId = Thread.currentThread().getId();
+        long before = threadMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_CALLS; ++i) {
+            sink = call.call();
+        }
+        return (threadMXBean.getThreadAllocatedBytes(threadId) - before) / MEASURED_CALLS;
+    }
+
+    private static byte[] load(String path) throws IOException {
+        return Files.readAllBytes(Paths.get("./src/test/resources" + path));
+    }
+
+    private interface Call {
+        Object call() throws Exception;
+    }
+}
@@ -25,8 +25,12 @@
 package com.yandex.money.api;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.yandex.money.api.methods.InstanceId;
+import com.yandex.money.api.methods.payment.ProcessPayment;
 import com.yandex.money.api.methods.payment.RequestExternalPayment;
 import com.yandex.money.api.methods.payment.RequestPayment;
 import com.yandex.money.api.methods.wallet.AccountInfo;
@@ -46,6 +50,7 @@ import org.testng.annotations.Test;
 
 import java.io.FileNotFoundException;
 import java.math.BigDecimal;
+import java.util.Map;
 
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotEquals;
@@ -59,6 +64,9 @@ public class ModelTests {
     @Test
     public void testAccountInfo() {
         checkType("/methods/wallet/account-info.json", AccountInfo.class);
+        checkReflectiveType("/methods/wallet/account-info-partial.json", AccountInfo.class);
+        checkReflectiveType("/methods/wallet/account-info-nulls.json", AccountInfo.class);
+        checkReflectiveType("/methods/wallet/account-info-empty.json", AccountInfo.class);
     }
 
     @Test
@@ -110,6 +118,8 @@ public class ModelTests {
         checkType("/methods/wallet/operation-details-3.json", OperationDetails.class);
         checkType("/methods/wallet/operation-details-4.json", OperationDetails.class);
         checkType("/methods/wallet/operation-details-5.json", OperationDetails.class);
+        checkReflectiveType("/methods/wallet/operation-details-partial.json", OperationDetails.class);
+        checkReflectiveType("/methods/wallet/operation-details-nulls.json", OperationDetails.class);
     }
 
     @Test
@@ -119,6 +129,18 @@ public class ModelTests {
         checkType("/methods/wallet/operation-history-3.json", OperationHistory.class);
         checkType("/methods/wallet/operation-history-4.json", OperationHistory.class);
         checkType("/methods/wallet/operation-history-5.json", OperationHistory.class);
+        checkReflectiveType("/methods/wallet/operation-history-partial.json", OperationHistory.class);
+        checkReflectiveType("/methods/wallet/operation-history-nulls.json", OperationHistory.class);
+    }
+
+    @Test
+    public void testProcessPayment() {
+        checkType("/methods/payment/process-payment-1.json", ProcessPayment.class);
+        checkType("/methods/payment/process-payment-2.json", ProcessPayment.class);
+        checkType("/methods/payment/process-payment-3.json", ProcessPayment.class);
+        checkReflectiveType("/methods/payment/process-payment-partial.json", ProcessPayment.class);
+        checkReflectiveType("/methods/payment/process-payment-nulls.json", ProcessPayment.class);
+        checkReflectiveType("/methods/payment/process-payment-incomplete.json", ProcessPayment.class);
     }
 
     @Test
@@ -133,6 +155,9 @@ public class ModelTests {
         checkType("/methods/payment/request-payment-1.json", RequestPayment.class);
         checkType("/methods/payment/request-payment-2.json", RequestPayment.class);
         checkType("/methods/payment/request-payment-3.json", RequestPayment.class);
+        checkReflectiveType("/methods/payment/request-payment-partial.json", RequestPayment.class);
+        checkReflectiveType("/methods/payment/request-payment-nulls.json", RequestPayment.class);
+        checkReflectiveType("/methods/payment/request-payment-incomplete.json", RequestPayment.class);
     }
 
     @Test
@@ -175,6 +200,44 @@ public class ModelTests {
         }
     }
 
+    /**
+     * Reads JSON path with absent or {@code null} fields and asserts that it is deserialized the same way as GSON's
+     * reflective adapter does it: such fields stay {@code null} and are not serialized back.
+     *
+     * @param path JSON path name in resources
+     * @param type type to check
+     */
+    private static <T> void checkReflectiveType(String path, Class<T> type) {
+        try {
+            String json = Resources.load(path);
+            Gson gson = GsonProvider.getGson();
+            JsonElement serialized = gson.toJsonTree(gson.fromJson(json, type));
+            assertEquals(serialized, gson.toJsonTree(new Gson().fromJson(json, type)));
+            assertEquals(serialized, removeNulls(new JsonParser().parse(json)));
+        } catch (FileNotFoundException e) {
+            fail();
+        }
+    }
+
+    private static JsonElement removeNulls(JsonElement element) {
+        if (element.isJsonObject()) {
+            JsonObject object = new JsonObject();
+            for (Map.Entry<String, JsonElement> entry : element.getAsJsonObject().entrySet()) {
+                if (!entry.getValue().isJsonNull()) {
+                    object.add(entry.getKey(), removeNulls(entry.getValue()));
+                }
+            }
+            return object;
+        } else if (element.isJsonArray()) {
+            JsonArray array = new JsonArray();
+            for (JsonElement item : element.getAsJsonArray()) {
+                array.add(removeNulls(item));
+            }
+            return array;
+        }
+        return element;
+    }
+
     private static <T> void performTest(T value, Class<T> cls) {
         Gson gson = GsonProvider.getGson();
         assertEquals(gson.fromJson(gson.toJson(value), cls), value);
@@ -0,0 +1,159 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.methods.wallet;
+
+import com.yandex.money.api.model.OperationStatus;
+import com.yandex.money.api.net.clients.DefaultApiClient;
+import com.yandex.money.api.net.providers.DefaultApiV1HostsProvider;
+import com.yandex.money.api.util.HttpHeaders;
+import com.yandex.money.api.util.MimeTypes;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class OperationDetailsFetcherTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private MockWebServer server;
+    private OperationDetailsFetcher fetcher;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                String body = request.getBody().readUtf8();
+                String operationId = body.substring(body.indexOf("operation_id=") + 13);
+                switch (operationId) {
+                    case "1":
+                        return details(operationId, "success");
+                    case "2":
+                        return details(operationId, "in_progress");
+                    case "4":
+                        release.await(10, TimeUnit.SECONDS);
+                        return details(operationId, "in_progress");
+                    default:
+                        return new MockResponse().setResponseCode(HttpURLConnection.HTTP_UNAUTHORIZED);
+                }
+            }
+        });
+        server.start();
+        fetcher = new OperationDetailsFetcher(new DefaultApiClient.Builder()
+                .setClientId("clientId")
+                .setHostsProvider(new DefaultApiV1HostsProvider(false) {
+                    @Override
+                    public String getMoney() {
+                        //noinspection SyntheticAccessorCall
+                        return server.url("").toString();
+                    }
+                })
+                .create(), 2);
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void testFetch() throws Exception {
+        Map<String, Future<OperationDetails>> results = fetcher.fetch(Arrays.asList("1", "2", "1", "3"));
+        assertEquals(results.keySet().toString(), "[1, 2, 3]");
+        assertEquals(results.get("1").get().status, OperationStatus.SUCCESS);
+        assertEquals(results.get("2").get().status, OperationStatus.IN_PROGRESS);
+        try {
+            results.get("3").get();
+            fail();
+        } catch (ExecutionException e) {
+            // expected
+        }
+        assertEquals(server.getRequestCount(), 3);
+        assertEquals(fetcher.getCacheSize(), 1);
+
+        // final operation is served from cache, operation in progress is requested again
+        results = fetcher.fetch(Arrays.asList("1", "2"));
+        assertTrue(results.get("1").isDone());
+        assertEquals(results.get("1").get().operationId, "1");
+        assertEquals(results.get("2").get().operationId, "2");
+        assertEquals(server.getRequestCount(), 4);
+
+        fetcher.clear();
+        fetcher.fetch(Arrays.asList("1")).get("1").get();
+        assertEquals(server.getRequestCount(), 5);
+    }
+
+    @Test
+    public void testCancelAffectsOnlyItsCaller() throws Exception {
+        Future<OperationDetails> first = fetcher.fetch(Arrays.asList("4")).get("4");
+        Future<OperationDetails> second = fetcher.fetch(Arrays.asList("4")).get("4");
+        assertNotSame(first, second);
+
+        assertTrue(first.cancel(true));
+        assertTrue(first.isCancelled());
+        assertFalse(second.isDone());
+        try {
+            first.get();
+            fail();
+        } catch (CancellationException e) {
+            // expected
+        }
+
+        release.countDown();
+        assertEquals(second.get(10, TimeUnit.SECONDS).operationId, "4");
+        assertFalse(second.isCancelled());
+        assertFalse(first.cancel(true));
+        assertEquals(server.getRequestCount(), 1);
+    }
+
+    private static MockResponse details(String operationId, String status) {
+        return new MockResponse()
+                .addHeader(HttpHeaders.CONTENT_TYPE, MimeTypes.Application.JSON)
+                .setBody("{\"operation_id\":\"" + operationId + "\",\"status\":\"" + status +
+                        "\",\"datetime\":\"2017-01-01T00:00:00.000Z\"}");
+    }
+}
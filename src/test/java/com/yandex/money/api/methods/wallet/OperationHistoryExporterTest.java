@@ -0,0 +1,194 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.methods.wallet;
+
+import com.yandex.money.api.model.Operation;
+import com.yandex.money.api.net.clients.AsyncApiClient;
+import com.yandex.money.api.net.clients.DefaultApiClient;
+import com.yandex.money.api.net.providers.DefaultApiV1HostsProvider;
+import com.yandex.money.api.time.DateTime;
+import com.yandex.money.api.time.Interval;
+import com.yandex.money.api.time.Iso8601Format;
+import com.yandex.money.api.util.HttpHeaders;
+import com.yandex.money.api.util.MimeTypes;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class OperationHistoryExporterTest {
+
+    private static final long START = 1483228800000L; // 2017-01-01T00:00:00Z
+    private static final long STEP = TimeUnit.MINUTES.toMillis(10);
+    private static final int COUNT = 288;
+
+    private MockWebServer server;
+    private AsyncApiClient client;
+    private final List<Long> sliceDurations = Collections.synchronizedList(new ArrayList<Long>());
+    private volatile boolean failing;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                //noinspection SyntheticAccessorCall
+                if (failing) {
+                    return new MockResponse().setResponseCode(HttpURLConnection.HTTP_UNAUTHORIZED);
+                }
+                return historyPage(parse(request.getBody().readUtf8()));
+            }
+        });
+        server.start();
+        client = new DefaultApiClient.Builder()
+                .setClientId("clientId")
+                .setHostsProvider(new DefaultApiV1HostsProvider(false) {
+                    @Override
+                    public String getMoney() {
+                        //noinspection SyntheticAccessorCall
+                        return server.url("").toString();
+                    }
+                })
+                .create();
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void testExport() throws Exception {
+        OperationHistoryExporter exporter = new OperationHistoryExporter.Builder()
+                .setParallelism(3)
+                .setTargetSliceSize(20)
+                .setRecords(7)
+                .create();
+
+        List<Operation> operations = exporter.export(client, new Interval(DateTime.from(START),
+                DateTime.from(START + COUNT * STEP)));
+
+        assertEquals(operations.size(), COUNT);
+        for (int i = 0; i < COUNT; ++i) {
+            Operation operation = operations.get(i);
+            assertEquals(operation.operationId, String.valueOf(i));
+            assertEquals(operation.datetime.getDate().getTime(), START + i * STEP);
+        }
+        // initial slices cover 48 operations each, later ones shrink towards the target size
+        assertEquals((long) sliceDurations.get(0), COUNT * STEP / 6);
+        assertTrue(Collections.min(sliceDurations) < COUNT * STEP / 6);
+    }
+
+    @Test
+    public void testFailure() throws Exception {
+        failing = true;
+        try {
+            new OperationHistoryExporter.Builder().create()
+                    .export(client, new Interval(DateTime.from(START), DateTime.from(START + COUNT * STEP)));
+            fail();
+        } catch (Exception e) {
+            // expected
+        }
+    }
+
+    /**
+     * Responds with operations in {@code [from, till]}. Including {@code till} makes adjacent slices overlap.
+     */
+    private MockResponse historyPage(Map<String, String> params) {
+        try {
+            long from = Iso8601Format.parse(params.get("from")).getDate().getTime();
+            long till = Iso8601Format.parse(params.get("till")).getDate().getTime();
+            int records = Integer.parseInt(params.get("records"));
+            int start = params.containsKey("start_record") ? Integer.parseInt(params.get("start_record")) : 0;
+            if (start == 0) {
+                sliceDurations.add(till - from);
+            }
+
+            List<Integer> ids = new ArrayList<>();
+            for (int i = 0; i < COUNT; ++i) {
+                long datetime = START + i * STEP;
+                if (datetime >= from && datetime <= till) {
+                    ids.add(i);
+                }
+            }
+
+            StringBuilder builder = new StringBuilder("{");
+            int end = Math.min(ids.size(), start + records);
+            if (end < ids.size()) {
+                builder.append("\"next_record\":\"").append(end).append("\",");
+            }
+            builder.append("\"operations\":[");
+            // newest first as the server does
+            for (int i = end - 1; i >= start; --i) {
+                int id = ids.get(i);
+                builder.append("{\"operation_id\":\"").append(id)
+                        .append("\",\"status\":\"success\",\"datetime\":\"")
+                        .append(Iso8601Format.format(DateTime.from(START + id * STEP))).append("\"}");
+                if (i > start) {
+                    builder.append(',');
+                }
+            }
+            return new MockResponse()
+                    .addHeader(HttpHeaders.CONTENT_TYPE, MimeTypes.Application.JSON)
+                    .setBody(builder.append("]}").toString());
+        } catch (Exception e) {
+            return new MockResponse().setResponseCode(HttpURLConnection.HTTP_INTERNAL_ERROR);
+        }
+    }
+
+    private static Map<String, String> parse(String body) {
+        Map<String, String> params = new HashMap<>();
+        try {
+            for (String pair : body.split("&")) {
+                int index = pair.indexOf('=');
+                params.put(URLDecoder.decode(pair.substring(0, index), "UTF-8"),
+                        URLDecoder.decode(pair.substring(index + 1), "UTF-8"));
+            }
+        } catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+        return params;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.methods.wallet;
+
+import com.yandex.money.api.exceptions.InvalidRequestException;
+import com.yandex.money.api.net.clients.AsyncApiClient;
+import com.yandex.money.api.net.clients.DefaultApiClient;
+import com.yandex.money.api.net.providers.DefaultApiV1HostsProvider;
+import com.yandex.money.api.util.HttpHeaders;
+import com.yandex.money.api.util.MimeTypes;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class OperationHistoryIteratorTest {
+
+    private MockWebServer server;
+    private AsyncApiClient client;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new DefaultApiClient.Builder()
+                .setClientId("clientId")
+                .setHostsProvider(new DefaultApiV1HostsProvider(false) {
+                    @Override
+                    public String getMoney() {
+                        //noinspection SyntheticAccessorCall
+                        return server.url("").toString();
+                    }
+                })
+                .create();
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void testIteration() throws Exception {
+        enqueuePage("2", "1", "2");
+        enqueuePage("4", "3", "4");
+        enqueuePage(null, "5");
+
+        OperationHistoryIterator iterator = new OperationHistoryIterator(client,
+                new OperationHistory.Request.Builder().setRecords(2));
+
+        assertEquals(iterator.next().operationId, "1");
+        assertFalse(takeRequest().getBody().readUtf8().contains("start_record"));
+        // next page is requested before the current one is consumed
+        assertTrue(takeRequest().getBody().readUtf8().contains("start_record=2"));
+
+        assertEquals(iterator.next().operationId, "2");
+        assertEquals(iterator.next().operationId, "3");
+        assertTrue(takeRequest().getBody().readUtf8().contains("start_record=4"));
+        assertEquals(iterator.next().operationId, "4");
+        assertEquals(iterator.next().operationId, "5");
+        assertFalse(iterator.hasNext());
+        assertEquals(server.getRequestCount(), 3);
+
+        try {
+            iterator.next();
+            fail();
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testError() throws Exception {
+        server.enqueue(jsonResponse("{\"error\":\"illegal_param_records\"}"));
+
+        OperationHistoryIterator iterator = new OperationHistoryIterator(client,
+                new OperationHistory.Request.Builder());
+        try {
+            iterator.hasNext();
+            fail();
+        } catch (InvalidRequestException e) {
+            assertEquals(e.getMessage(), "illegal_param_records");
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        enqueuePage("1", "1");
+        server.enqueue(jsonResponse("{\"operations\":[]}").setBodyDelay(1, TimeUnit.SECONDS));
+
+        OperationHistoryIterator iterator = new OperationHistoryIterator(client,
+                new OperationHistory.Request.Builder());
+        assertEquals(iterator.next().operationId, "1");
+        iterator.close();
+        assertFalse(iterator.hasNext());
+    }
+
+    private RecordedRequest takeRequest() throws InterruptedException {
+        RecordedRequest request = server.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(request);
+        return request;
+    }
+
+    private void enqueuePage(String nextRecord, String... operationIds) {
+        StringBuilder builder = new StringBuilder("{");
+        if (nextRecord != null) {
+            builder.append("\"next_record\":\"").append(nextRecord).append("\",");
+        }
+        builder.append("\"operations\":[");
+        for (int i = 0; i < operationIds.length; ++i) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"operation_id\":\"").append(operationIds[i])
+                    .append("\",\"status\":\"success\",\"datetime\":\"2017-01-01T00:00:00.000Z\"}");
+        }
+        server.enqueue(jsonResponse(builder.append("]}").toString()));
+    }
+
+    private static MockResponse jsonResponse(String body) {
+        return new MockResponse()
+                .addHeader(HttpHeaders.CONTENT_TYPE, MimeTypes.Application.JSON)
+                .setBody(body);
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.methods.wallet;
+
+import com.yandex.money.api.model.Operation;
+import com.yandex.money.api.model.OperationStatus;
+import com.yandex.money.api.net.clients.AsyncApiClient;
+import com.yandex.money.api.net.clients.DefaultApiClient;
+import com.yandex.money.api.net.providers.DefaultApiV1HostsProvider;
+import com.yandex.money.api.time.DateTime;
+import com.yandex.money.api.time.Iso8601Format;
+import com.yandex.money.api.util.HttpHeaders;
+import com.yandex.money.api.util.MimeTypes;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class OperationHistorySyncTest {
+
+    private static final long START = 1483228800000L; // 2017-01-01T00:00:00Z
+
+    // operations of the wallet by their datetime, newest are served first
+    private final Map<Long, String[]> history = new TreeMap<>();
+
+    private MockWebServer server;
+    private AsyncApiClient client;
+    private File directory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        history.clear();
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                //noinspection SyntheticAccessorCall
+                return historyPage(request.getBody().clone().readUtf8());
+            }
+        });
+        server.start();
+        client = new DefaultApiClient.Builder()
+                .setClientId("clientId")
+                .setHostsProvider(new DefaultApiV1HostsProvider(false) {
+                    @Override
+                    public String getMoney() {
+                        //noinspection SyntheticAccessorCall
+                        return server.url("").toString();
+                    }
+                })
+                .create();
+        directory = Files.createTempDirectory("checkpoints").toFile();
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        server.shutdown();
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                assertTrue(file.delete());
+            }
+        }
+        assertTrue(directory.delete());
+    }
+
+    @Test
+    public void testSync() throws Exception {
+        addOperation(0, "1", "success");
+        addOperation(1, "2", "in_progress");
+        addOperation(2, "3", "success");
+
+        FileCheckpointStore store = new FileCheckpointStore(directory);
+        OperationHistorySync sync = new OperationHistorySync(client, store);
+        assertNull(store.load("4100"));
+
+        RecordingListener listener = new RecordingListener();
+        SyncCheckpoint checkpoint = sync.sync("4100", listener);
+        assertEquals(listener.events.toString(), "[+1, +2, +3]");
+        assertEquals(store.load("4100"), checkpoint);
+        assertEquals(checkpoint.pending.keySet().toString(), "[2]");
+        assertFalse(takeRequest().contains("from="));
+
+        listener = new RecordingListener();
+        sync.sync("4100", listener);
+        assertEquals(listener.events.size(), 0);
+        // operations are requested since the operation in progress
+        assertTrue(takeRequest().contains("from=" + Iso8601Format.format(DateTime.from(START + 60000))));
+
+        addOperation(1, "2", "success");
+        addOperation(2, "4", "success");
+        addOperation(3, "5", "success");
+
+        listener = new RecordingListener();
+        checkpoint = sync.sync("4100", listener);
+        assertEquals(listener.events.toString(), "[2: in_progress -> success, +4, +5]");
+        assertTrue(checkpoint.pending.isEmpty());
+        assertEquals(checkpoint.newestIds.toString(), "[5]");
+
+        // checkpoint survives a restart
+        listener = new RecordingListener();
+        new OperationHistorySync(client, new FileCheckpointStore(directory)).sync("4100", listener);
+        assertEquals(listener.events.size(), 0);
+    }
+
+    private String takeRequest() throws Exception {
+        RecordedRequest request = server.takeRequest(1, TimeUnit.SECONDS);
+        assertNotNull(request);
+        return URLDecoder.decode(request.getBody().readUtf8(), "UTF-8");
+    }
+
+    private synchronized void addOperation(int minute, String operationId, String status) {
+        long datetime = START + TimeUnit.MINUTES.toMillis(minute);
+        String[] operations = history.get(datetime);
+        List<String[]> updated = new ArrayList<>();
+        if (operations != null) {
+            for (int i = 0; i < operations.length; i += 2) {
+                if (!operations[i].equals(operationId)) {
+                    updated.add(new String[] { operations[i], operations[i + 1] });
+                }
+            }
+        }
+        updated.add(new String[] { operationId, status });
+        String[] flat = new String[updated.size() * 2];
+        for (int i = 0; i < updated.size(); ++i) {
+            flat[i * 2] = updated.get(i)[0];
+            flat[i * 2 + 1] = updated.get(i)[1];
+        }
+        history.put(datetime, flat);
+    }
+
+    private synchronized MockResponse historyPage(String body) {
+        long from = Long.MIN_VALUE;
+        try {
+            for (String pair : body.split("&")) {
+                if (pair.startsWith("from=")) {
+                    from = Iso8601Format.parse(URLDecoder.decode(pair.substring(5), "UTF-8")).getDate().getTime();
+                }
+            }
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+
+        StringBuilder builder = new StringBuilder("{\"operations\":[");
+        boolean first = true;
+        for (Map.Entry<Long, String[]> entry : ((TreeMap<Long, String[]>) history).descendingMap().entrySet()) {
+            if (entry.getKey() < from) {
+                continue;
+            }
+            String[] operations = entry.getValue();
+            for (int i = 0; i < operations.length; i += 2) {
+                if (!first) {
+                    builder.append(',');
+                }
+                first = false;
+                builder.append("{\"operation_id\":\"").append(operations[i])
+                        .append("\",\"status\":\"").append(operations[i + 1])
+                        .append("\",\"datetime\":\"").append(Iso8601Format.format(DateTime.from(entry.getKey())))
+                        .append("\"}");
+            }
+        }
+        return new MockResponse()
+                .addHeader(HttpHeaders.CONTENT_TYPE, MimeTypes.Application.JSON)
+                .setBody(builder.append("]}").toString());
+    }
+
+    private static final class RecordingListener implements OperationHistorySync.Listener {
+
+        final List<String> events = new ArrayList<>();
+
+        @Override
+        public void onInserted(Operation operation) {
+            events.add("+" + operation.operationId);
+        }
+
+        @Override
+        public void onStatusChanged(Operation operation, OperationStatus previousStatus) {
+            events.add(operation.operationId + ": " + previousStatus.code + " -> " + operation.status.code);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.methods.wallet;
+
+import com.yandex.money.api.Resources;
+import com.yandex.money.api.model.Operation;
+import com.yandex.money.api.model.OperationStatus;
+import com.yandex.money.api.time.DateTime;
+import com.yandex.money.api.time.Interval;
+import com.yandex.money.api.typeadapters.GsonProvider;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+public class OperationStoreTest {
+
+    private static final long START = 1483228800000L; // 2017-01-01T00:00:00Z
+
+    private File directory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("operations").toFile();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                assertTrue(file.delete());
+            }
+        }
+        assertTrue(directory.delete());
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        List<Operation> operations = new ArrayList<>(GsonProvider.getGson()
+                .fromJson(Resources.load("/methods/wallet/operation-history-1.json"), OperationHistory.class)
+                .operations);
+        for (int i = 1; i <= 5; ++i) {
+            Operation operation = GsonProvider.getGson().fromJson(
+                    Resources.load("/methods/wallet/operation-details-" + i + ".json"), Operation.class);
+            // skip error responses
+            if (operation.operationId != null) {
+                operations.add(operation);
+            }
+        }
+
+        OperationStore store = new OperationStore(directory);
+        store.appendAll(operations);
+        for (Operation operation : operations) {
+            OperationView view = store.get(operation.operationId);
+            assertEquals(view.getOperationId(), operation.operationId);
+            assertEquals(view.toOperation(), latest(operations, operation.operationId));
+        }
+        assertNull(store.get("unknown"));
+        store.close();
+    }
+
+    @Test
+    public void testIndexes() throws Exception {
+        // small segments to spread records over several files
+        OperationStore store = new OperationStore(directory, 512);
+        // reversed order as history is served, datetime index has to be sorted
+        for (int i = 49; i >= 0; --i) {
+            store.append(createOperation(i, OperationStatus.IN_PROGRESS));
+        }
+        assertEquals(store.size(), 50);
+        assertTrue(directory.listFiles().length > 1);
+
+        List<OperationView> views = store.findByLabel("label-0");
+        assertEquals(views.size(), 17);
+        assertEquals(views.get(0).getOperationId(), "48");
+        assertEquals(views.get(16).getOperationId(), "0");
+
+        assertEquals(store.findByPatternId("p2p").size(), 25);
+        assertEquals(store.findByPatternId("unknown").size(), 0);
+
+        views = store.findByDatetime(new Interval(DateTime.from(START + 10 * 60000), DateTime.from(START + 20 * 60000)));
+        assertEquals(views.size(), 10);
+        assertEquals(views.get(0).getOperationId(), "10");
+        assertEquals(views.get(9).getOperationId(), "19");
+
+        // newer record of the same operation supersedes the old one
+        store.append(createOperation(12, OperationStatus.SUCCESS));
+        assertEquals(store.size(), 50);
+        assertEquals(store.get("12").getStatus(), OperationStatus.SUCCESS);
+        assertEquals(store.findByLabel("label-0").size(), 17);
+        views = store.findByDatetime(new Interval(DateTime.from(START + 10 * 60000), DateTime.from(START + 20 * 60000)));
+        assertEquals(views.size(), 10);
+        store.close();
+
+        // indexes are rebuilt from segments
+        store = new OperationStore(directory, 512);
+        assertEquals(store.size(), 50);
+        assertEquals(store.get("12").getStatus(), OperationStatus.SUCCESS);
+        assertEquals(store.get("13").getStatus(), OperationStatus.IN_PROGRESS);
+        assertEquals(store.get("13").getAmount(), new BigDecimal("13.50"));
+        assertEquals(store.findByLabel("label-1").size(), 17);
+        assertEquals(store.findByDatetime(new Interval(DateTime.from(START), DateTime.from(START + 60 * 60000)))
+                .size(), 50);
+        store.close();
+    }
+
+    @Test
+    public void testFormatVersion() throws Exception {
+        OperationStore store = new OperationStore(directory);
+        store.append(createOperation(0, OperationStatus.IN_PROGRESS));
+        store.close();
+
+        File[] files = directory.listFiles();
+        assertEquals(files.length, 1);
+        RandomAccessFile file = new RandomAccessFile(files[0], "rw");
+        try {
+            file.seek(4);
+            int version = file.readInt();
+            file.seek(4);
+            file.writeInt(version + 1);
+        } finally {
+            file.close();
+        }
+
+        try {
+            new OperationStore(directory).size();
+            fail();
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("unsupported format version"));
+        }
+    }
+
+    private static Operation createOperation(int index, OperationStatus status) {
+        return new Operation.Builder()
+                .setOperationId(String.valueOf(index))
+                .setStatus(status)
+                .setDirection(Operation.Direction.OUTGOING)
+                .setAmount(new BigDecimal(index + ".50"))
+                .setDatetime(DateTime.from(START + index * 60000))
+                .setLabel("label-" + (index % 3))
+                .setPatternId(index % 2 == 0 ? "p2p" : null)
+                .setTitle("Operation " + index)
+                .create();
+    }
+
+    private static Operation latest(List<Operation> operations, String operationId) {
+        Operation result = null;
+        for (Operation operation : operations) {
+            if (operation.operationId.equals(operationId)) {
+                result = operation;
+            }
+        }
+        return result;
+    }
+}
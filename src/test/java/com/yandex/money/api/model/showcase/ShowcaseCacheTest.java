@@ -0,0 +1,166 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.model.showcase;
+
+import com.yandex.money.api.Resources;
+import com.yandex.money.api.model.showcase.components.uicontrols.Text;
+import com.yandex.money.api.net.clients.ApiClient;
+import com.yandex.money.api.net.clients.DefaultApiClient;
+import com.yandex.money.api.net.providers.DefaultApiV1HostsProvider;
+import com.yandex.money.api.time.DateTime;
+import com.yandex.money.api.util.HttpHeaders;
+import com.yandex.money.api.util.MimeTypes;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.file.Files;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+
+public class ShowcaseCacheTest {
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private MockWebServer server;
+    private ApiClient client;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = new DefaultApiClient.Builder()
+                .setClientId("clientId")
+                .setHostsProvider(new DefaultApiV1HostsProvider(false) {
+                    @Override
+                    public String getMoney() {
+                        //noinspection SyntheticAccessorCall
+                        return server.url("").toString();
+                    }
+                })
+                .create();
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void testRevalidation() throws Exception {
+        String lastModified = HttpHeaders.formatDateTime(DateTime.from(1500000000000L));
+        server.enqueue(new MockResponse()
+                .setResponseCode(HttpURLConnection.HTTP_MULT_CHOICE)
+                .addHeader(HttpHeaders.CONTENT_TYPE, MimeTypes.Application.JSON)
+                .addHeader(HttpHeaders.LAST_MODIFIED, lastModified)
+                .addHeader(HttpHeaders.LOCATION, "https://money.yandex.ru/api/showcase/validate/5551/step_INN_3681")
+                .setBody(Resources.load("/showcase/showcase_bills_novalidation.json")));
+        server.enqueue(new MockResponse().setResponseCode(HttpURLConnection.HTTP_NOT_MODIFIED));
+
+        ShowcaseCache cache = new ShowcaseCache(client, 0, TimeUnit.MILLISECONDS, null, DIRECT_EXECUTOR);
+        ShowcaseContext first = cache.get(5551);
+        RecordedRequest request = server.takeRequest();
+        assertEquals(request.getPath(), "//api/showcase/5551");
+        assertNull(request.getHeader(HttpHeaders.IF_MODIFIED_SINCE));
+        ((Text) first.getCurrentStep().showcase.form.items.get(0)).setValue("1234567890");
+
+        ShowcaseContext second = cache.get(5551);
+        assertEquals(server.takeRequest().getHeader(HttpHeaders.IF_MODIFIED_SINCE), lastModified);
+        assertNotSame(second.getCurrentStep().showcase, first.getCurrentStep().showcase);
+        assertEquals(second.getCurrentStep().showcase.title, first.getCurrentStep().showcase.title);
+        assertEquals(second.getCurrentStep().submitUrl, first.getCurrentStep().submitUrl);
+        assertEquals(second.getLastModified(), first.getLastModified());
+        assertEquals(second.getState(), ShowcaseContext.State.HAS_NEXT_STEP);
+        assertNull(((Text) second.getCurrentStep().showcase.form.items.get(0)).getValue());
+        assertEquals(server.getRequestCount(), 2);
+    }
+
+    @Test
+    public void testDiskCache() throws Exception {
+        File directory = Files.createTempDirectory("showcases").toFile();
+        try {
+            String lastModified = HttpHeaders.formatDateTime(DateTime.from(1500000000000L));
+            server.enqueue(new MockResponse()
+                    .setResponseCode(HttpURLConnection.HTTP_MULT_CHOICE)
+                    .addHeader(HttpHeaders.CONTENT_TYPE, MimeTypes.Application.JSON)
+                    .addHeader(HttpHeaders.LAST_MODIFIED, lastModified)
+                    .setBody(Resources.load("/showcase/showcase_bills_novalidation.json")));
+            server.enqueue(new MockResponse().setResponseCode(HttpURLConnection.HTTP_NOT_MODIFIED));
+
+            ShowcaseDiskCache diskCache = new ShowcaseDiskCache(directory);
+            ShowcaseContext fetched = new ShowcaseCache(client, 1, TimeUnit.MINUTES, diskCache, DIRECT_EXECUTOR)
+                    .get(5551);
+            diskCache.close();
+            server.takeRequest();
+
+            diskCache = new ShowcaseDiskCache(directory);
+            ShowcaseContext loaded = new ShowcaseCache(client, 1, TimeUnit.MINUTES, diskCache, DIRECT_EXECUTOR)
+                    .get(5551);
+            diskCache.close();
+            assertEquals(server.takeRequest().getHeader(HttpHeaders.IF_MODIFIED_SINCE), lastModified);
+            assertEquals(loaded.getCurrentStep(), fetched.getCurrentStep());
+            assertEquals(loaded.getLastModified(), fetched.getLastModified());
+        } finally {
+            File[] files = directory.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    //noinspection ResultOfMethodCallIgnored
+                    file.delete();
+                }
+            }
+            //noinspection ResultOfMethodCallIgnored
+            directory.delete();
+        }
+    }
+
+    @Test
+    public void testFreshShowcaseIsNotRevalidated() throws Exception {
+        server.enqueue(new MockResponse()
+                .setResponseCode(HttpURLConnection.HTTP_MULT_CHOICE)
+                .addHeader(HttpHeaders.CONTENT_TYPE, MimeTypes.Application.JSON)
+                .setBody(Resources.load("/showcase/showcase_bills_novalidation.json")));
+
+        ShowcaseCache cache = new ShowcaseCache(client, 1, TimeUnit.MINUTES, null, DIRECT_EXECUTOR);
+        cache.get("5551");
+        cache.get("5551");
+        assertEquals(server.getRequestCount(), 1);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.model.showcase;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.yandex.money.api.Resources;
+import com.yandex.money.api.time.DateTime;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class ShowcaseDiskCacheTest {
+
+    private File directory;
+    private JsonElement showcase;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("showcases").toFile();
+        showcase = new JsonParser().parse(Resources.load("/showcase/showcase_bills_novalidation.json"));
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+            }
+        }
+        //noinspection ResultOfMethodCallIgnored
+        directory.delete();
+    }
+
+    @Test
+    public void testPersistence() throws IOException {
+        DateTime lastModified = DateTime.from(1500000000000L);
+        ShowcaseDiskCache cache = new ShowcaseDiskCache(directory);
+        assertNull(cache.get("5551"));
+        cache.put("5551", new ShowcaseSnapshot(showcase, "https://money.yandex.ru/submit", lastModified));
+        cache.put("patternId", new ShowcaseSnapshot(showcase, null, lastModified));
+        cache.remove("patternId");
+        cache.close();
+
+        cache = new ShowcaseDiskCache(directory);
+        ShowcaseSnapshot snapshot = cache.get("5551");
+        assertEquals(snapshot.showcase, showcase);
+        assertEquals(snapshot.submitUrl, "https://money.yandex.ru/submit");
+        assertEquals(snapshot.lastModified, lastModified);
+        assertNull(cache.get("patternId"));
+        cache.close();
+    }
+
+    @Test
+    public void testSegments() throws IOException {
+        ShowcaseDiskCache cache = new ShowcaseDiskCache(directory, 1024);
+        for (int i = 0; i < 10; ++i) {
+            cache.put(String.valueOf(i), new ShowcaseSnapshot(showcase, null, DateTime.from(i * 1000L)));
+        }
+        cache.put("0", new ShowcaseSnapshot(showcase, null, DateTime.from(42000L)));
+        cache.close();
+        assertTrue(directory.list().length > 1);
+
+        cache = new ShowcaseDiskCache(directory, 1024);
+        assertEquals(cache.get("0").lastModified, DateTime.from(42000L));
+        for (int i = 1; i < 10; ++i) {
+            assertEquals(cache.get(String.valueOf(i)).lastModified, DateTime.from(i * 1000L));
+        }
+        cache.close();
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net;
+
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class FormUrlEncoderTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    @Test
+    public void testEncode() throws Exception {
+        check("");
+        check("pattern_id");
+        check("Az09.-*_");
+        check("a b+c&d=e%f/g?h~");
+        check("Привет, мир!");
+        check("€ 100");
+        check("💳 card");
+        check("lone \uD83D surrogate");
+        check("lone \uDCB3 surrogate");
+        check("trailing \uD83D");
+        check("\u0000\u007F\u0080߿ࠀ￿");
+    }
+
+    @Test
+    public void testRandomStrings() throws Exception {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; ++i) {
+            char[] chars = new char[random.nextInt(32)];
+            for (int j = 0; j < chars.length; ++j) {
+                switch (random.nextInt(3)) {
+                    case 0:
+                        chars[j] = (char) random.nextInt(128);
+                        break;
+                    case 1:
+                        chars[j] = (char) random.nextInt(0x800);
+                        break;
+                    default:
+                        chars[j] = (char) random.nextInt(0x10000);
+                }
+            }
+            check(new String(chars));
+        }
+    }
+
+    @Test
+    public void testIsSafe() {
+        assertTrue(FormUrlEncoder.isSafe("instance_id"));
+        assertFalse(FormUrlEncoder.isSafe("a b"));
+        assertFalse(FormUrlEncoder.isSafe("ы"));
+    }
+
+    @Test
+    public void testParametersBuffer() {
+        ParametersBuffer buffer = new ParametersBuffer();
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("pattern_id", "p2p");
+        params.put("message", "Привет & пока");
+        params.put("empty", "");
+        buffer.setParameters(params);
+
+        String expected = "pattern_id=p2p&message=%D0%9F%D1%80%D0%B8%D0%B2%D0%B5%D1%82+%26+%D0%BF%D0%BE%D0%BA%D0%B0";
+        assertEquals(buffer.prepareGet(), "?" + expected);
+        assertEquals(new String(buffer.prepareBytes(), UTF8), expected);
+        assertEquals(buffer.contentLength(), expected.length());
+    }
+
+    private static void check(String value) throws Exception {
+        String expected = URLEncoder.encode(value, "UTF-8");
+        assertEquals(FormUrlEncoder.encode(value, new StringBuilder()).toString(), expected, value);
+        assertEquals(FormUrlEncoder.encodedLength(value), expected.length(), value);
+        assertEquals(new String(FormUrlEncoder.encodeToBytes(value), UTF8), expected, value);
+
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        FormUrlEncoder.encode(value, stream);
+        assertEquals(new String(stream.toByteArray(), UTF8), expected, value);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net;
+
+import com.yandex.money.api.methods.payment.ProcessExternalPayment;
+import com.yandex.money.api.methods.payment.RequestExternalPayment;
+import com.yandex.money.api.methods.payment.RequestPayment;
+import com.yandex.money.api.model.CardBrand;
+import com.yandex.money.api.model.ExternalCard;
+import org.testng.annotations.Test;
+
+import java.net.URLDecoder;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+
+public class PreparedParametersTest {
+
+    private static final String INSTANCE_ID = "instanceId";
+    private static final String SUCCESS_URI = "https://example.com/success?a=1&b=2";
+    private static final String FAIL_URI = "https://example.com/fail";
+
+    @Test
+    public void testRequestPayment() throws Exception {
+        Map<String, String> shared = new HashMap<>();
+        shared.put("to", "410011161616877");
+        shared.put("comment", "Оплата заказа");
+        RequestPayment.Request.Template template = RequestPayment.Request.newTemplate("p2p", shared);
+
+        for (String amount : new String[] { "1.00", "12.34", "100" }) {
+            Map<String, String> params = new HashMap<>(shared);
+            params.put("amount", amount);
+            RequestPayment.Request expected = RequestPayment.Request.newInstance("p2p", params);
+            RequestPayment.Request actual = template.newRequest(singleton("amount", amount));
+            assertSameBody(actual, expected);
+        }
+    }
+
+    @Test
+    public void testRequestExternalPayment() throws Exception {
+        Map<String, String> shared = singleton("to", "410011161616877");
+        RequestExternalPayment.Request.Template template =
+                RequestExternalPayment.Request.newTemplate(INSTANCE_ID, "p2p", shared);
+
+        Map<String, String> params = new HashMap<>(shared);
+        params.put("amount_due", "10.00");
+        params.put("message", "Привет & пока");
+        RequestExternalPayment.Request expected = RequestExternalPayment.Request.newInstance(INSTANCE_ID, "p2p",
+                params);
+
+        Map<String, String> varying = new HashMap<>(params);
+        varying.remove("to");
+        assertSameBody(template.newRequest(varying), expected);
+    }
+
+    @Test
+    public void testProcessExternalPayment() throws Exception {
+        ProcessExternalPayment.Request.Template template =
+                ProcessExternalPayment.Request.newTemplate(INSTANCE_ID, SUCCESS_URI, FAIL_URI);
+
+        assertSameBody(template.newRequest("requestId", true),
+                new ProcessExternalPayment.Request(INSTANCE_ID, "requestId", SUCCESS_URI, FAIL_URI, true));
+
+        ExternalCard card = new ExternalCard.Builder()
+                .setMoneySourceToken("token")
+                .setPanFragment("5280****7918")
+                .setType(CardBrand.MASTER_CARD)
+                .setFundingSourceType("payment-card")
+                .create();
+        assertSameBody(template.newRequest("requestId", card, "123"),
+                new ProcessExternalPayment.Request(INSTANCE_ID, "requestId", SUCCESS_URI, FAIL_URI, card, "123"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testSharedParameterIsNotOverridden() {
+        RequestPayment.Request.newTemplate("p2p", singleton("to", "410011161616877"))
+                .newRequest(singleton("to", "410011161616878"));
+    }
+
+    private static void assertSameBody(BaseApiRequest<?> actual, BaseApiRequest<?> expected) throws Exception {
+        byte[] body = actual.getBody();
+        assertEquals(body.length, actual.getBodyLength());
+        assertEquals(parse(body), parse(expected.getBody()));
+        assertEquals(actual.getParameters(), expected.getParameters());
+    }
+
+    private static Map<String, String> parse(byte[] body) throws Exception {
+        Map<String, String> result = new HashMap<>();
+        for (String pair : new String(body, Charset.forName("US-ASCII")).split("&")) {
+            String[] parts = pair.split("=", 2);
+            assertEquals(parts.length, 2, pair);
+            assertEquals(result.put(URLDecoder.decode(parts[0], "UTF-8"), URLDecoder.decode(parts[1], "UTF-8")), null,
+                    "duplicate " + parts[0]);
+        }
+        return result;
+    }
+
+    private static Map<String, String> singleton(String key, String value) {
+        Map<String, String> map = new HashMap<>();
+        map.put(key, value);
+        return map;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net.clients;
+
+import com.yandex.money.api.Resources;
+import com.yandex.money.api.exceptions.InvalidTokenException;
+import com.yandex.money.api.methods.wallet.OperationDetails;
+import com.yandex.money.api.net.ApiRequest;
+import com.yandex.money.api.net.providers.DefaultApiV1HostsProvider;
+import com.yandex.money.api.util.HttpHeaders;
+import com.yandex.money.api.util.MimeTypes;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class BatchExecutorTest {
+
+    private static final int MAX_REQUESTS_PER_HOST = 2;
+
+    private final MockWebServer server = new MockWebServer();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    private AsyncApiClient client;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        final String body = Resources.load("/methods/wallet/operation-details-1.json");
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                int current = running.incrementAndGet();
+                try {
+                    int max;
+                    do {
+                        max = maxRunning.get();
+                    } while (current > max && !maxRunning.compareAndSet(max, current));
+                    Thread.sleep(20);
+
+                    if (request.getBody().readUtf8().contains("operation_id=bad")) {
+                        return new MockResponse().setResponseCode(HttpURLConnection.HTTP_UNAUTHORIZED);
+                    }
+                    return new MockResponse()
+                            .addHeader(HttpHeaders.CONTENT_TYPE, MimeTypes.Application.JSON)
+                            .setBody(body);
+                } finally {
+                    running.decrementAndGet();
+                }
+            }
+        });
+        server.start();
+
+        client = new DefaultApiClient.Builder()
+                .setClientId("clientId")
+                .setHostsProvider(new DefaultApiV1HostsProvider(false) {
+                    @Override
+                    public String getMoney() {
+                        //noinspection SyntheticAccessorCall
+                        return server.url("").toString();
+                    }
+                })
+                .create();
+    }
+
+    @AfterClass
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        List<OperationDetails.Request> requests = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            requests.add(new OperationDetails.Request(i == 3 || i == 7 ? "bad" : String.valueOf(i)));
+        }
+
+        final ConcurrentMap<Integer, Object> successes = new ConcurrentHashMap<>();
+        final ConcurrentMap<Integer, Exception> failures = new ConcurrentHashMap<>();
+        BatchExecutor executor = new BatchExecutor(client, 8, MAX_REQUESTS_PER_HOST);
+        BatchExecutor.Batch batch = executor.execute(requests, new BatchExecutor.Listener() {
+            @Override
+            public <T> void onSuccess(int index, ApiRequest<T> request, T response) {
+                successes.put(index, response);
+            }
+
+            @Override
+            public void onFailure(int index, ApiRequest<?> request, Exception exception) {
+                failures.put(index, exception);
+            }
+        });
+
+        assertTrue(batch.await(10, TimeUnit.SECONDS));
+        assertEquals(successes.size(), 8);
+        assertEquals(failures.size(), 2);
+        assertTrue(failures.get(3) instanceof InvalidTokenException);
+        assertTrue(failures.get(7) instanceof InvalidTokenException);
+        assertTrue(successes.get(0) instanceof OperationDetails);
+        assertTrue(maxRunning.get() <= MAX_REQUESTS_PER_HOST);
+        assertEquals(executor.getRunningCount(), 0);
+        assertEquals(executor.getPendingCount(), 0);
+    }
+}
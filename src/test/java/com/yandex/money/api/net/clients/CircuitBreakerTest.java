@@ -0,0 +1,92 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net.clients;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class CircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    @Test
+    public void testFailureRate() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(new CircuitBreakerConfig.Builder()
+                .setWindow(4, 4)
+                .setOpenDuration(50, TimeUnit.MILLISECONDS)
+                .setHalfOpenCalls(2)
+                .create());
+
+        call(circuitBreaker, FAST, true);
+        call(circuitBreaker, FAST, false);
+        call(circuitBreaker, FAST, false);
+        assertEquals(circuitBreaker.getState(), CircuitBreaker.State.CLOSED);
+        call(circuitBreaker, FAST, true);
+        assertEquals(circuitBreaker.getState(), CircuitBreaker.State.OPEN);
+        assertFalse(circuitBreaker.tryAcquire());
+
+        TimeUnit.MILLISECONDS.sleep(60);
+        assertTrue(circuitBreaker.tryAcquire());
+        assertEquals(circuitBreaker.getState(), CircuitBreaker.State.HALF_OPEN);
+        assertTrue(circuitBreaker.tryAcquire());
+        assertFalse(circuitBreaker.tryAcquire());
+        circuitBreaker.release();
+        assertTrue(circuitBreaker.tryAcquire());
+
+        circuitBreaker.onResult(FAST, false);
+        circuitBreaker.onResult(FAST, false);
+        assertEquals(circuitBreaker.getState(), CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    public void testSlowCallRate() throws InterruptedException {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(new CircuitBreakerConfig.Builder()
+                .setWindow(10, 2)
+                .setSlowCallRateThreshold(0.5, 1, TimeUnit.SECONDS)
+                .setOpenDuration(50, TimeUnit.MILLISECONDS)
+                .setHalfOpenCalls(1)
+                .create());
+
+        call(circuitBreaker, FAST, false);
+        call(circuitBreaker, SLOW, false);
+        assertEquals(circuitBreaker.getState(), CircuitBreaker.State.OPEN);
+
+        TimeUnit.MILLISECONDS.sleep(60);
+        call(circuitBreaker, SLOW, false);
+        assertEquals(circuitBreaker.getState(), CircuitBreaker.State.OPEN);
+    }
+
+    private static void call(CircuitBreaker circuitBreaker, long durationNanos, boolean failure) {
+        assertTrue(circuitBreaker.tryAcquire());
+        circuitBreaker.onResult(durationNanos, failure);
+    }
+}
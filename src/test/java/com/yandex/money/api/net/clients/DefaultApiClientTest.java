@@ -0,0 +1,446 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net.clients;
+
+import com.google.gson.JsonObject;
+import com.yandex.money.api.Resources;
+import com.yandex.money.api.exceptions.CircuitBreakerOpenException;
+import com.yandex.money.api.exceptions.InvalidTokenException;
+import com.yandex.money.api.exceptions.RateLimitExceededException;
+import com.yandex.money.api.methods.wallet.AccountInfo;
+import com.yandex.money.api.methods.wallet.IncomingTransferReject;
+import com.yandex.money.api.net.DocumentApiRequest;
+import com.yandex.money.api.net.FirstApiRequest;
+import com.yandex.money.api.net.HttpResourceResponse;
+import com.yandex.money.api.net.LruDocumentCache;
+import com.yandex.money.api.net.providers.DefaultApiV1HostsProvider;
+import com.yandex.money.api.net.providers.HostsProvider;
+import com.yandex.money.api.time.DateTime;
+import com.yandex.money.api.time.Minutes;
+import com.yandex.money.api.util.HttpHeaders;
+import com.yandex.money.api.util.MimeTypes;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+@Test(singleThreaded = true)
+public class DefaultApiClientTest {
+
+    private MockWebServer server;
+    private DefaultApiClient client;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        client = newClientBuilder().create();
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void testExecuteAsync() throws Exception {
+        enqueueAccountInfo();
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<AccountInfo> callbackResult = new AtomicReference<>();
+        Future<AccountInfo> future = client.executeAsync(new AccountInfo.Request(), new ApiCallback<AccountInfo>() {
+            @Override
+            public void onSuccess(AccountInfo response) {
+                callbackResult.set(response);
+                latch.countDown();
+            }
+
+            @Override
+            public void onFailure(Exception exception) {
+                latch.countDown();
+            }
+        });
+
+        AccountInfo accountInfo = future.get(5, TimeUnit.SECONDS);
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertNotNull(accountInfo);
+        assertEquals(accountInfo.account, "4100123456789");
+        assertEquals(callbackResult.get(), accountInfo);
+    }
+
+    @Test
+    public void testExecuteAsyncFailure() throws Exception {
+        server.enqueue(new MockResponse().setResponseCode(HttpURLConnection.HTTP_UNAUTHORIZED));
+
+        Future<AccountInfo> future = client.executeAsync(new AccountInfo.Request(), null);
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("exception expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof InvalidTokenException);
+        }
+    }
+
+    @Test
+    public void testWithAccessToken() throws Exception {
+        DefaultApiClient view = client.withAccessToken("token");
+        assertTrue(view.isAuthorized());
+        assertFalse(client.isAuthorized());
+        assertEquals(view.getClientId(), client.getClientId());
+        assertSame(view.getHostsProvider(), client.getHostsProvider());
+
+        enqueueAccountInfo();
+        view.execute(new AccountInfo.Request());
+        assertEquals(server.takeRequest().getHeader(HttpHeaders.AUTHORIZATION), "Bearer token");
+
+        enqueueAccountInfo();
+        client.execute(new AccountInfo.Request());
+        assertNull(server.takeRequest().getHeader(HttpHeaders.AUTHORIZATION));
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testViewAccessTokenIsImmutable() {
+        client.withAccessToken("token").setAccessToken("other");
+    }
+
+    @Test
+    public void testConnectionPoolConfig() throws Exception {
+        DefaultApiClient client = new DefaultApiClient.Builder()
+                .setClientId("clientId")
+                .setConnectionPoolConfig(new ConnectionPoolConfig.Builder()
+                        .setMaxRequests(128)
+                        .setMaxRequestsPerHost(32)
+                        .setMaxIdleConnections(16)
+                        .create())
+                .create();
+        ConnectionPoolStats stats = client.getConnectionPoolStats();
+        assertEquals(stats.maxRequests, 128);
+        assertEquals(stats.maxRequestsPerHost, 32);
+        assertEquals(stats.connectionCount, 0);
+        assertEquals(stats.runningCallsCount, 0);
+    }
+
+    @Test
+    public void testRateLimiter() throws Exception {
+        DefaultApiClient client = newClientBuilder()
+                .setRateLimiter(new RateLimiter.Builder().setAccessTokenLimit(0.1, 1).create(), false)
+                .create();
+        DefaultApiClient view = client.withAccessToken("token");
+
+        enqueueAccountInfo();
+        view.execute(new AccountInfo.Request());
+        try {
+            view.execute(new AccountInfo.Request());
+            fail("exception expected");
+        } catch (RateLimitExceededException e) {
+            // expected
+        }
+        assertEquals(server.getRequestCount(), 1);
+
+        enqueueAccountInfo();
+        client.withAccessToken("anotherToken").execute(new AccountInfo.Request());
+        assertEquals(server.getRequestCount(), 2);
+    }
+
+    @Test
+    public void testRetryPolicy() throws Exception {
+        DefaultApiClient client = newClientBuilder()
+                .setRetryPolicy(new RetryPolicy.Builder()
+                        .setBaseDelay(1, TimeUnit.MILLISECONDS)
+                        .setMaxDelay(10, TimeUnit.MILLISECONDS)
+                        .create())
+                .create();
+
+        server.enqueue(new MockResponse().setResponseCode(HttpURLConnection.HTTP_UNAVAILABLE));
+        server.enqueue(new MockResponse().setResponseCode(HttpURLConnection.HTTP_INTERNAL_ERROR));
+        enqueueAccountInfo();
+        assertEquals(client.execute(new AccountInfo.Request()).account, "4100123456789");
+        assertEquals(server.getRequestCount(), 3);
+
+        server.enqueue(new MockResponse().setResponseCode(HttpURLConnection.HTTP_UNAVAILABLE));
+        try {
+            client.execute(new IncomingTransferReject.Request("operationId"));
+            fail("exception expected");
+        } catch (IOException e) {
+            // expected
+        }
+        assertEquals(server.getRequestCount(), 4);
+    }
+
+    @Test
+    public void testRetryBudget() throws Exception {
+        DefaultApiClient client = newClientBuilder()
+                .setRetryPolicy(new RetryPolicy.Builder()
+                        .setBaseDelay(1, TimeUnit.MILLISECONDS)
+                        .setMaxDelay(10, TimeUnit.MILLISECONDS)
+                        .setBudget(0.5, 1)
+                        .create())
+                .create();
+
+        for (int i = 0; i < 5; ++i) {
+            server.enqueue(new MockResponse().setResponseCode(HttpURLConnection.HTTP_UNAVAILABLE));
+        }
+        for (int i = 0; i < 2; ++i) {
+            try {
+                client.execute(new AccountInfo.Request());
+                fail("exception expected");
+            } catch (IOException e) {
+                // expected
+            }
+        }
+        // the first request spends the reserved retry, the second one accumulates only a half of a retry
+        assertEquals(server.getRequestCount(), 3);
+    }
+
+    @Test
+    public void testCircuitBreaker() throws Exception {
+        DefaultApiClient client = newClientBuilder()
+                .setRetryPolicy(new RetryPolicy.Builder()
+                        .setBaseDelay(1, TimeUnit.MILLISECONDS)
+                        .setMaxDelay(10, TimeUnit.MILLISECONDS)
+                        .create())
+                .setCircuitBreakerConfig(new CircuitBreakerConfig.Builder()
+                        .setWindow(2, 2)
+                        .create())
+                .create();
+
+        server.enqueue(new MockResponse().setResponseCode(HttpURLConnection.HTTP_UNAVAILABLE));
+        server.enqueue(new MockResponse().setResponseCode(HttpURLConnection.HTTP_UNAVAILABLE));
+        try {
+            client.execute(new AccountInfo.Request());
+            fail("exception expected");
+        } catch (CircuitBreakerOpenException e) {
+            // expected
+        }
+        assertEquals(server.getRequestCount(), 2);
+
+        try {
+            client.withAccessToken("token").execute(new AccountInfo.Request());
+            fail("exception expected");
+        } catch (CircuitBreakerOpenException e) {
+            // expected
+        }
+        assertEquals(server.getRequestCount(), 2);
+    }
+
+    @Test
+    public void testRequestCoalescing() throws Exception {
+        final DefaultApiClient client = newClientBuilder()
+                .setRequestCoalescing(true)
+                .create();
+
+        server.enqueue(new MockResponse()
+                .addHeader(HttpHeaders.CONTENT_TYPE, MimeTypes.Application.JSON)
+                .setBody(Resources.load("/methods/wallet/account-info.json"))
+                .setBodyDelay(500, TimeUnit.MILLISECONDS));
+        final int count = 8;
+        for (int i = 0; i < count; ++i) {
+            enqueueAccountInfo();
+        }
+
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<HttpResourceResponse<AccountInfo>>> futures = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(count);
+        try {
+            for (int i = 0; i < count; ++i) {
+                futures.add(executor.submit(new Callable<HttpResourceResponse<AccountInfo>>() {
+                    @Override
+                    public HttpResourceResponse<AccountInfo> call() throws Exception {
+                        start.await();
+                        return client.execute(new AccountInfoDocumentRequest());
+                    }
+                }));
+            }
+            start.countDown();
+
+            HttpResourceResponse<AccountInfo> response = futures.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<HttpResourceResponse<AccountInfo>> future : futures) {
+                assertSame(future.get(5, TimeUnit.SECONDS), response);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(server.getRequestCount(), 1);
+
+        client.execute(new AccountInfoDocumentRequest());
+        assertEquals(server.getRequestCount(), 2);
+    }
+
+    @Test
+    public void testDocumentCache() throws Exception {
+        LruDocumentCache documentCache = new LruDocumentCache(1);
+        DefaultApiClient client = newClientBuilder()
+                .setDocumentCache(documentCache)
+                .create();
+
+        String lastModified = HttpHeaders.formatDateTime(DateTime.from(1500000000000L));
+        server.enqueue(new MockResponse()
+                .addHeader(HttpHeaders.CONTENT_TYPE, MimeTypes.Application.JSON)
+                .addHeader(HttpHeaders.LAST_MODIFIED, lastModified)
+                .addHeader(HttpHeaders.EXPIRES, HttpHeaders.formatDateTime(DateTime.now().plus(Minutes.ONE)))
+                .setBody(Resources.load("/methods/wallet/account-info.json")));
+
+        HttpResourceResponse<AccountInfo> response = client.execute(new AccountInfoDocumentRequest());
+        assertTrue(response.hasDocument());
+        assertSame(client.execute(new AccountInfoDocumentRequest()), response);
+        assertEquals(server.getRequestCount(), 1);
+        assertEquals(documentCache.size(), 1);
+
+        server.enqueue(new MockResponse()
+                .addHeader(HttpHeaders.CONTENT_TYPE, MimeTypes.Application.JSON)
+                .addHeader(HttpHeaders.LAST_MODIFIED, lastModified)
+                .setBody(Resources.load("/methods/wallet/account-info.json")));
+        DefaultApiClient view = client.withAccessToken("token");
+        HttpResourceResponse<AccountInfo> viewResponse = view.execute(new AccountInfoDocumentRequest());
+        assertEquals(server.getRequestCount(), 2);
+        assertEquals(documentCache.size(), 1);
+        server.takeRequest();
+        server.takeRequest();
+
+        server.enqueue(new MockResponse()
+                .setResponseCode(HttpURLConnection.HTTP_NOT_MODIFIED)
+                .addHeader(HttpHeaders.LAST_MODIFIED, lastModified));
+        HttpResourceResponse<AccountInfo> revalidated = view.execute(new AccountInfoDocumentRequest());
+        assertEquals(server.takeRequest().getHeader(HttpHeaders.IF_MODIFIED_SINCE), lastModified);
+        assertTrue(revalidated.hasDocument());
+        assertSame(revalidated.document, viewResponse.document);
+    }
+
+    @Test
+    public void testStreamingBody() throws Exception {
+        FormRequest formRequest = new FormRequest();
+        enqueueAccountInfo();
+        client.execute(formRequest);
+
+        RecordedRequest recorded = server.takeRequest();
+        byte[] expected = formRequest.getBody();
+        assertEquals(recorded.getHeader(HttpHeaders.CONTENT_LENGTH), String.valueOf(expected.length));
+        assertEquals(recorded.getBody().readByteArray(), expected);
+        assertEquals(formRequest.getBodyLength(), expected.length);
+
+        JsonObject json = new JsonObject();
+        json.addProperty("title", "Оплата \"услуг\" \uD83D\uDCB3");
+        json.addProperty("amount", 10.5);
+        JsonRequest jsonRequest = new JsonRequest(json);
+        enqueueAccountInfo();
+        client.execute(jsonRequest);
+
+        recorded = server.takeRequest();
+        expected = jsonRequest.getBody();
+        assertEquals(recorded.getHeader(HttpHeaders.CONTENT_LENGTH), String.valueOf(expected.length));
+        assertEquals(recorded.getHeader(HttpHeaders.CONTENT_TYPE), MimeTypes.Application.JSON + "; charset=utf-8");
+        assertEquals(recorded.getBody().readByteArray(), expected);
+        assertEquals(jsonRequest.getBodyLength(), expected.length);
+    }
+
+    private DefaultApiClient.Builder newClientBuilder() {
+        return new DefaultApiClient.Builder()
+                .setClientId("clientId")
+                .setHostsProvider(new DefaultApiV1HostsProvider(false) {
+                    @Override
+                    public String getMoney() {
+                        //noinspection SyntheticAccessorCall
+                        return server.url("").toString();
+                    }
+                });
+    }
+
+    private void enqueueAccountInfo() throws IOException {
+        server.enqueue(new MockResponse()
+                .addHeader(HttpHeaders.CONTENT_TYPE, MimeTypes.Application.JSON)
+                .setBody(Resources.load("/methods/wallet/account-info.json")));
+    }
+
+    private static final class AccountInfoDocumentRequest extends DocumentApiRequest<AccountInfo> {
+
+        AccountInfoDocumentRequest() {
+            super(AccountInfo.class);
+        }
+
+        @Override
+        protected String requestUrlBase(HostsProvider hostsProvider) {
+            return hostsProvider.getMoneyApi() + "/account-info";
+        }
+    }
+
+    private static final class FormRequest extends FirstApiRequest<AccountInfo> {
+
+        FormRequest() {
+            super(AccountInfo.class);
+            addParameter("pattern_id", "p2p");
+            addParameter("message", "Привет & пока = 100%");
+            addParameter("amount", new BigDecimal("12.34"));
+            addParameter("empty", "");
+        }
+
+        @Override
+        protected String requestUrlBase(HostsProvider hostsProvider) {
+            return hostsProvider.getMoneyApi() + "/account-info";
+        }
+    }
+
+    private static final class JsonRequest extends FirstApiRequest<AccountInfo> {
+
+        JsonRequest(JsonObject json) {
+            super(AccountInfo.class);
+            setBody(json);
+        }
+
+        @Override
+        public String getContentType() {
+            return MimeTypes.Application.JSON + "; charset=utf-8";
+        }
+
+        @Override
+        protected String requestUrlBase(HostsProvider hostsProvider) {
+            return hostsProvider.getMoneyApi() + "/account-info";
+        }
+    }
+}
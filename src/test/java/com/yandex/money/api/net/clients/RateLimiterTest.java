@@ -0,0 +1,95 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.net.clients;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class RateLimiterTest {
+
+    @Test
+    public void testBurst() {
+        RateLimiter rateLimiter = new RateLimiter.Builder()
+                .setAccessTokenLimit(1, 3)
+                .create();
+
+        for (int i = 0; i < 3; ++i) {
+            assertTrue(rateLimiter.tryAcquire("clientId", "token", "/api/account-info"));
+        }
+        assertFalse(rateLimiter.tryAcquire("clientId", "token", "/api/account-info"));
+        assertTrue(rateLimiter.tryAcquire("clientId", "anotherToken", "/api/account-info"));
+        assertTrue(rateLimiter.tryAcquire("clientId", null, "/api/account-info"));
+    }
+
+    @Test
+    public void testPermitsAreReleasedOnRejection() {
+        RateLimiter rateLimiter = new RateLimiter.Builder()
+                .setClientIdLimit(1, 2)
+                .setEndpointLimit(1, 1)
+                .create();
+
+        assertTrue(rateLimiter.tryAcquire("clientId", null, "/api/account-info"));
+        assertFalse(rateLimiter.tryAcquire("clientId", null, "/api/account-info"));
+        assertTrue(rateLimiter.tryAcquire("clientId", null, "/api/operation-history"));
+    }
+
+    @Test
+    public void testAcquireWaits() throws InterruptedException {
+        RateLimiter rateLimiter = new RateLimiter.Builder()
+                .setEndpointLimit(20, 1)
+                .create();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 3; ++i) {
+            rateLimiter.acquire(null, null, "/api/account-info");
+        }
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(90));
+    }
+
+    @Test
+    public void testBucketsAreBounded() {
+        RateLimiter rateLimiter = new RateLimiter.Builder()
+                .setAccessTokenLimit(0.001, 1)
+                .create();
+
+        // buckets are not full again, so they can only be evicted
+        int keys = RateLimiter.MAX_BUCKETS * 2;
+        for (int i = 0; i < keys; ++i) {
+            assertTrue(rateLimiter.tryAcquire(null, "token" + i, null));
+        }
+        assertTrue(rateLimiter.bucketCount() <= RateLimiter.MAX_BUCKETS);
+        assertFalse(rateLimiter.tryAcquire(null, "token" + (keys - 1), null));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidLimit() {
+        new RateLimiter.Builder().setClientIdLimit(0, 1);
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.typeadapters;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.internal.bind.ReflectiveTypeAdapterFactory;
+import com.yandex.money.api.Resources;
+import com.yandex.money.api.methods.InstanceId;
+import com.yandex.money.api.methods.payment.ProcessPayment;
+import com.yandex.money.api.methods.payment.RequestExternalPayment;
+import com.yandex.money.api.methods.payment.RequestPayment;
+import com.yandex.money.api.methods.wallet.AccountInfo;
+import com.yandex.money.api.methods.wallet.IncomingTransferAccept;
+import com.yandex.money.api.methods.wallet.IncomingTransferReject;
+import com.yandex.money.api.methods.wallet.OperationDetails;
+import com.yandex.money.api.methods.wallet.OperationHistory;
+import com.yandex.money.api.model.Card;
+import com.yandex.money.api.model.ExternalCard;
+import com.yandex.money.api.model.Fees;
+import com.yandex.money.api.model.Error;
+import com.yandex.money.api.model.showcase.ShowcaseReference;
+import com.yandex.money.api.time.DateTime;
+import com.yandex.money.api.time.YearMonth;
+import com.yandex.money.api.typeadapters.model.ModelTypeAdapterFactory;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+public class GeneratedTypeAdapterFactoryTest {
+
+    private final Gson reflective = new GsonBuilder()
+            .registerTypeAdapter(DateTime.class, new DateTimeTypeAdapter().nullSafe())
+            .registerTypeAdapterFactory(new ModelTypeAdapterFactory())
+            .registerTypeAdapter(YearMonth.class, new YearMonthTypeAdapter())
+            .create();
+
+    @DataProvider
+    public Object[][] resources() {
+        return new Object[][] {
+                { "/methods/instance-id-success.json", InstanceId.class },
+                { "/methods/instance-id-refused.json", InstanceId.class },
+                { "/methods/payment/process-payment-1.json", ProcessPayment.class },
+                { "/methods/payment/process-payment-2.json", ProcessPayment.class },
+                { "/methods/payment/process-payment-3.json", ProcessPayment.class },
+                { "/methods/payment/request-external-payment-1.json", RequestExternalPayment.class },
+                { "/methods/payment/request-external-payment-2.json", RequestExternalPayment.class },
+                { "/methods/payment/request-external-payment-3.json", RequestExternalPayment.class },
+                { "/methods/payment/request-payment-1.json", RequestPayment.class },
+                { "/methods/payment/request-payment-2.json", RequestPayment.class },
+                { "/methods/payment/request-payment-3.json", RequestPayment.class },
+                { "/methods/wallet/account-info.json", AccountInfo.class },
+                { "/methods/wallet/incoming-transfer-accept-refused-1.json", IncomingTransferAccept.class },
+                { "/methods/wallet/incoming-transfer-accept-refused-2.json", IncomingTransferAccept.class },
+                { "/methods/wallet/incoming-transfer-accept-success.json", IncomingTransferAccept.class },
+                { "/methods/wallet/incoming-transfer-reject-refused.json", IncomingTransferReject.class },
+                { "/methods/wallet/incoming-transfer-reject-success.json", IncomingTransferReject.class },
+                { "/methods/wallet/operation-details-1.json", OperationDetails.class },
+                { "/methods/wallet/operation-history-1.json", OperationHistory.class },
+                { "/methods/wallet/operation-history-2.json", OperationHistory.class },
+                { "/model/card-1.json", Card.class },
+                { "/model/card-2.json", Card.class },
+                { "/model/external-card.json", ExternalCard.class },
+                { "/model/fees-1.json", Fees.class },
+                { "/model/fees-2.json", Fees.class },
+                { "/model/fees-3.json", Fees.class },
+        };
+    }
+
+    @Test(dataProvider = "resources")
+    public void testSameAsReflective(String resource, Class<?> type) throws Exception {
+        String json = Resources.load(resource);
+        Gson gson = GsonProvider.getGson();
+
+        Object expected = reflective.fromJson(json, type);
+        Object actual = gson.fromJson(json, type);
+        assertEquals(actual, expected);
+        assertEquals(gson.toJson(actual), reflective.toJson(expected));
+    }
+
+    @Test
+    public void testModelsAreNotReflective() {
+        Gson gson = GsonProvider.getGson();
+        for (Class<?> type : new Class<?>[] { InstanceId.class, Card.class, ExternalCard.class, Fees.class,
+                ShowcaseReference.class, IncomingTransferAccept.class, Error.class }) {
+            TypeAdapter<?> adapter = gson.getAdapter(type);
+            assertFalse(adapter instanceof ReflectiveTypeAdapterFactory.Adapter, type.getName());
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2017 NBCO Yandex.Money LLC
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+
+package com.yandex.money.api.typeadapters;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.yandex.money.api.methods.wallet.AccountInfo;
+import com.yandex.money.api.model.showcase.Showcase;
+import com.yandex.money.api.typeadapters.model.showcase.ShowcaseTypeAdapter;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+
+public class GsonProviderTest {
+
+    @Test
+    public void testRebuildsOnlyForNewTypeAdapters() {
+        ShowcaseTypeAdapter adapter = ShowcaseTypeAdapter.getInstance();
+        Gson gson = GsonProvider.getGson();
+        GsonProvider.registerTypeAdapter(Showcase.class, adapter);
+        assertSame(GsonProvider.getGson(), gson);
+
+        GsonProvider.registerTypeAdapter(Marker.class, new MarkerDeserializer());
+        Gson rebuilt = GsonProvider.getGson();
+        assertNotSame(rebuilt, gson);
+        assertSame(GsonProvider.getGson(), rebuilt);
+        assertEquals(rebuilt.fromJson("\"value\"", Marker.class).value, "value");
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final String json = "{\"account\":\"4100123456789\",\"balance\":1.00,\"currency\":\"643\"," +
+                "\"account_type\":\"personal\",\"account_status\":\"named\"}";
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<AccountInfo>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; ++i) {
+                futures.add(executor.submit(new Callable<AccountInfo>() {
+                    @Override
+                    public AccountInfo call() {
+                        return GsonProvider.getGson().fromJson(json, AccountInfo.class);
+                    }
+                }));
+                if (i % 8 == 0) {
+                    GsonProvider.registerTypeAdapter(Marker.class, new MarkerDeserializer());
+                }
+            }
+            for (Future<AccountInfo> future : futures) {
+                AccountInfo accountInfo = future.get();
+                assertNotNull(accountInfo);
+                assertEquals(accountInfo.account, "4100123456789");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static final class Marker {
+
+        final String value;
+
+        Marker(String value) {
+            this.value = value;
+        }
+    }
+
+    private static final class MarkerDeserializer implements JsonDeserializer<Marker> {
+        @Override
+        public Marker deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
+            return new Marker(json.getAsString());
+        }
+    }
+}